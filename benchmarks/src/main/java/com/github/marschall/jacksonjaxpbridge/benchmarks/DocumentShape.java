@@ -0,0 +1,147 @@
+package com.github.marschall.jacksonjaxpbridge.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+import javax.json.spi.JsonProvider;
+
+import org.glassfish.json.JsonProviderImpl;
+
+/**
+ * The shapes of the documents used in the benchmarks.
+ */
+public enum DocumentShape {
+
+  /**
+   * A single small object with a handful of scalar properties.
+   */
+  SMALL_FLAT(Documents.Flat.class) {
+
+    @Override
+    JsonValue createDocument() {
+      return flat(1);
+    }
+
+  },
+
+  /**
+   * A single object with many properties.
+   */
+  WIDE_OBJECT(Map.class) {
+
+    @Override
+    JsonValue createDocument() {
+      JsonObjectBuilder builder = REFERENCE.createObjectBuilder();
+      for (int i = 0; i < 500; i++) {
+        builder.add("property" + i, "value" + i);
+      }
+      return builder.build();
+    }
+
+  },
+
+  /**
+   * Objects nested deeply in each other.
+   */
+  DEEP_NESTING(Documents.Nested.class) {
+
+    @Override
+    JsonValue createDocument() {
+      JsonObject nested = REFERENCE.createObjectBuilder()
+          .add("level", 200)
+          .build();
+      for (int i = 199; i >= 0; i--) {
+        nested = REFERENCE.createObjectBuilder()
+            .add("level", i)
+            .add("child", nested)
+            .build();
+      }
+      return nested;
+    }
+
+  },
+
+  /**
+   * A large array of small objects.
+   */
+  LARGE_ARRAY(Documents.Flat[].class) {
+
+    @Override
+    JsonValue createDocument() {
+      JsonArrayBuilder builder = REFERENCE.createArrayBuilder();
+      for (int i = 0; i < 10_000; i++) {
+        builder.add(flat(i));
+      }
+      return builder.build();
+    }
+
+  },
+
+  /**
+   * An array of objects consisting almost only of numbers.
+   */
+  NUMBER_HEAVY(Documents.Sample[].class) {
+
+    @Override
+    JsonValue createDocument() {
+      JsonArrayBuilder builder = REFERENCE.createArrayBuilder();
+      for (int i = 0; i < 1_000; i++) {
+        JsonArrayBuilder readings = REFERENCE.createArrayBuilder();
+        for (int j = 0; j < 16; j++) {
+          readings.add(i * 0.25d + j);
+        }
+        builder.add(REFERENCE.createObjectBuilder()
+            .add("timestamp", 1_666_000_000_000L + i)
+            .add("sensor", i % 64)
+            .add("price", new BigDecimal("1234.5678").add(BigDecimal.valueOf(i)))
+            .add("readings", readings));
+      }
+      return builder.build();
+    }
+
+  };
+
+  /**
+   * Documents are created with the reference implementation, the values
+   * applications pass to the bridge.
+   */
+  static final JsonProvider REFERENCE = new JsonProviderImpl();
+
+  private final Class<?> targetType;
+
+  DocumentShape(Class<?> targetType) {
+    this.targetType = targetType;
+  }
+
+  /**
+   * Creates a new document of this shape.
+   *
+   * @return the new document, not {@code null}
+   */
+  abstract JsonValue createDocument();
+
+  /**
+   * Returns the type documents of this shape are bound to.
+   *
+   * @return the target type, not {@code null}
+   */
+  Class<?> getTargetType() {
+    return this.targetType;
+  }
+
+  static JsonObject flat(int i) {
+    return REFERENCE.createObjectBuilder()
+        .add("id", i)
+        .add("name", "name" + i)
+        .add("active", (i % 2) == 0)
+        .add("score", i * 1.5d)
+        .add("tags", REFERENCE.createArrayBuilder(List.of("alpha", "beta")))
+        .build();
+  }
+
+}
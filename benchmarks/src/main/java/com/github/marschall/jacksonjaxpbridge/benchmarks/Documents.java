@@ -0,0 +1,49 @@
+package com.github.marschall.jacksonjaxpbridge.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * The POJOs the documents are bound to.
+ */
+final class Documents {
+
+  private Documents() {
+    throw new AssertionError("not instantiable");
+  }
+
+  public static final class Flat {
+
+    public int id;
+
+    public String name;
+
+    public boolean active;
+
+    public double score;
+
+    public List<String> tags;
+
+  }
+
+  public static final class Nested {
+
+    public int level;
+
+    public Nested child;
+
+  }
+
+  public static final class Sample {
+
+    public long timestamp;
+
+    public int sensor;
+
+    public BigDecimal price;
+
+    public double[] readings;
+
+  }
+
+}
@@ -0,0 +1,91 @@
+package com.github.marschall.jacksonjaxpbridge.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+
+import javax.json.JsonValue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr353.JSR353Module;
+import com.github.marschall.jacksonjaxpbridge.JsonpNodeAdapter;
+
+/**
+ * Compares the different ways of binding a JSON-P value to a POJO.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@State(Scope.Benchmark)
+public class ReadBenchmarks {
+
+  @Param
+  private DocumentShape shape;
+
+  private ObjectMapper objectMapper;
+
+  private ObjectReader objectReader;
+
+  private ObjectMapper jsr353Mapper;
+
+  private JsonValue jsonValue;
+
+  @Setup
+  public void setup() {
+    this.objectMapper = new ObjectMapper();
+    this.objectReader = this.objectMapper.readerFor(this.shape.getTargetType());
+    this.jsr353Mapper = new ObjectMapper().registerModule(new JSR353Module());
+    this.jsonValue = this.shape.createDocument();
+  }
+
+  @Benchmark
+  public Object bridge() throws IOException {
+    JsonNode jsonNode = JsonpNodeAdapter.adapt(this.jsonValue, this.objectMapper.getNodeFactory());
+    return this.objectReader.readValue(jsonNode);
+  }
+
+  @Benchmark
+  public Object bridgeMemoizing() throws IOException {
+    JsonNode jsonNode = JsonpNodeAdapter.adapt(this.jsonValue, this.objectMapper.getNodeFactory(), true);
+    return this.objectReader.readValue(jsonNode);
+  }
+
+  @Benchmark
+  public Object bridgeParser() throws IOException {
+    return JsonpNodeAdapter.readValue(this.objectReader, this.jsonValue);
+  }
+
+  @Benchmark
+  public Object stringRoundTrip() throws IOException {
+    return this.objectReader.readValue(this.jsonValue.toString());
+  }
+
+  @Benchmark
+  public Object jsr353() {
+    return this.jsr353Mapper.convertValue(this.jsonValue, this.shape.getTargetType());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(".*" + ReadBenchmarks.class.getSimpleName() + ".*")
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+
+}
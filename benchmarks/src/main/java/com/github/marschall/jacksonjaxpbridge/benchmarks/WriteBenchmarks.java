@@ -0,0 +1,90 @@
+package com.github.marschall.jacksonjaxpbridge.benchmarks;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import javax.json.JsonReader;
+import javax.json.JsonValue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr353.JSR353Module;
+import com.github.marschall.jacksonjaxpbridge.JacksonValueAdapter;
+
+/**
+ * Compares the different ways of converting a POJO to a JSON-P value.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(SECONDS)
+@State(Scope.Benchmark)
+public class WriteBenchmarks {
+
+  @Param
+  private DocumentShape shape;
+
+  private ObjectMapper objectMapper;
+
+  private ObjectWriter objectWriter;
+
+  private ObjectMapper jsr353Mapper;
+
+  private Object pojo;
+
+  @Setup
+  public void setup() throws IOException {
+    this.objectMapper = new ObjectMapper();
+    this.objectWriter = this.objectMapper.writer();
+    this.jsr353Mapper = new ObjectMapper().registerModule(new JSR353Module());
+    this.pojo = this.objectMapper.readValue(this.shape.createDocument().toString(), this.shape.getTargetType());
+  }
+
+  @Benchmark
+  public JsonValue bridge() {
+    JsonNode jsonNode = this.objectMapper.valueToTree(this.pojo);
+    return JacksonValueAdapter.adapt(jsonNode);
+  }
+
+  @Benchmark
+  public JsonValue bridgeGenerator() throws IOException {
+    return JacksonValueAdapter.writeValue(this.objectWriter, this.pojo);
+  }
+
+  @Benchmark
+  public JsonValue stringRoundTrip() throws IOException {
+    String json = this.objectMapper.writeValueAsString(this.pojo);
+    try (JsonReader reader = DocumentShape.REFERENCE.createReader(new StringReader(json))) {
+      return reader.readValue();
+    }
+  }
+
+  @Benchmark
+  public JsonValue jsr353() {
+    return this.jsr353Mapper.convertValue(this.pojo, JsonValue.class);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(".*" + WriteBenchmarks.class.getSimpleName() + ".*")
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+
+}
@@ -0,0 +1,120 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.AbstractList;
+import java.util.List;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Implements the typed accessors of {@link JsonArray} in terms of {@link #get(int)}.
+ */
+abstract class AbstractJsonArray extends AbstractList<JsonValue> implements JsonArray {
+
+  @Override
+  public ValueType getValueType() {
+    return ValueType.ARRAY;
+  }
+
+  @Override
+  public JsonArray asJsonArray() {
+    return this;
+  }
+
+  @Override
+  public JsonObject getJsonObject(int index) {
+    return (JsonObject) this.get(index);
+  }
+
+  @Override
+  public JsonArray getJsonArray(int index) {
+    return (JsonArray) this.get(index);
+  }
+
+  @Override
+  public JsonNumber getJsonNumber(int index) {
+    return (JsonNumber) this.get(index);
+  }
+
+  @Override
+  public JsonString getJsonString(int index) {
+    return (JsonString) this.get(index);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends JsonValue> List<T> getValuesAs(Class<T> clazz) {
+    return (List<T>) this;
+  }
+
+  @Override
+  public String getString(int index) {
+    return this.getJsonString(index).getString();
+  }
+
+  @Override
+  public String getString(int index, String defaultValue) {
+    JsonValue value = this.getOrNull(index);
+    if (value instanceof JsonString jsonString) {
+      return jsonString.getString();
+    }
+    return defaultValue;
+  }
+
+  @Override
+  public int getInt(int index) {
+    return this.getJsonNumber(index).intValue();
+  }
+
+  @Override
+  public int getInt(int index, int defaultValue) {
+    JsonValue value = this.getOrNull(index);
+    if (value instanceof JsonNumber jsonNumber) {
+      return jsonNumber.intValue();
+    }
+    return defaultValue;
+  }
+
+  @Override
+  public boolean getBoolean(int index) {
+    return switch (this.get(index).getValueType()) {
+      case TRUE -> true;
+      case FALSE -> false;
+      default -> throw new ClassCastException("not a boolean at index: " + index);
+    };
+  }
+
+  @Override
+  public boolean getBoolean(int index, boolean defaultValue) {
+    JsonValue value = this.getOrNull(index);
+    if (value == null) {
+      return defaultValue;
+    }
+    return switch (value.getValueType()) {
+      case TRUE -> true;
+      case FALSE -> false;
+      default -> defaultValue;
+    };
+  }
+
+  @Override
+  public boolean isNull(int index) {
+    return this.get(index).getValueType() == ValueType.NULL;
+  }
+
+  private JsonValue getOrNull(int index) {
+    if ((index >= 0) && (index < this.size())) {
+      return this.get(index);
+    }
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return JsonpNodeAdapter.toJson(this);
+  }
+
+}
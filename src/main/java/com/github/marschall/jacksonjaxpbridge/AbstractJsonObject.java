@@ -0,0 +1,114 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.AbstractMap;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+/**
+ * Implements the typed accessors of {@link JsonObject} in terms of {@link #get(Object)}.
+ */
+abstract class AbstractJsonObject extends AbstractMap<String, JsonValue> implements JsonObject {
+
+  @Override
+  public ValueType getValueType() {
+    return ValueType.OBJECT;
+  }
+
+  @Override
+  public JsonObject asJsonObject() {
+    return this;
+  }
+
+  @Override
+  public JsonArray getJsonArray(String name) {
+    return (JsonArray) this.get(name);
+  }
+
+  @Override
+  public JsonObject getJsonObject(String name) {
+    return (JsonObject) this.get(name);
+  }
+
+  @Override
+  public JsonNumber getJsonNumber(String name) {
+    return (JsonNumber) this.get(name);
+  }
+
+  @Override
+  public JsonString getJsonString(String name) {
+    return (JsonString) this.get(name);
+  }
+
+  @Override
+  public String getString(String name) {
+    return this.getJsonString(name).getString();
+  }
+
+  @Override
+  public String getString(String name, String defaultValue) {
+    JsonValue value = this.get(name);
+    if (value instanceof JsonString jsonString) {
+      return jsonString.getString();
+    }
+    return defaultValue;
+  }
+
+  @Override
+  public int getInt(String name) {
+    return this.getJsonNumber(name).intValue();
+  }
+
+  @Override
+  public int getInt(String name, int defaultValue) {
+    JsonValue value = this.get(name);
+    if (value instanceof JsonNumber jsonNumber) {
+      return jsonNumber.intValue();
+    }
+    return defaultValue;
+  }
+
+  @Override
+  public boolean getBoolean(String name) {
+    JsonValue value = this.get(name);
+    if (value == null) {
+      throw new NullPointerException("no mapping for: " + name);
+    }
+    return switch (value.getValueType()) {
+      case TRUE -> true;
+      case FALSE -> false;
+      default -> throw new ClassCastException("not a boolean: " + name);
+    };
+  }
+
+  @Override
+  public boolean getBoolean(String name, boolean defaultValue) {
+    JsonValue value = this.get(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    return switch (value.getValueType()) {
+      case TRUE -> true;
+      case FALSE -> false;
+      default -> defaultValue;
+    };
+  }
+
+  @Override
+  public boolean isNull(String name) {
+    JsonValue value = this.get(name);
+    if (value == null) {
+      throw new NullPointerException("no mapping for: " + name);
+    }
+    return value.getValueType() == ValueType.NULL;
+  }
+
+  @Override
+  public String toString() {
+    return JsonpNodeAdapter.toJson(this);
+  }
+
+}
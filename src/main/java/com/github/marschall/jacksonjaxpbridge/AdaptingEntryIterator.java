@@ -4,23 +4,23 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 import javax.json.JsonValue;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
 final class AdaptingEntryIterator implements Iterator<Entry<String, JsonNode>> {
 
   private final Iterator<Entry<String, JsonValue>> delegate;
-  private final JsonNodeFactory nc;
+  private final BiFunction<String, JsonValue, JsonNode> adapter;
 
-  AdaptingEntryIterator(Iterator<Entry<String, JsonValue>> delegate, JsonNodeFactory nc) {
-    this.nc = nc;
+  AdaptingEntryIterator(Iterator<Entry<String, JsonValue>> delegate, BiFunction<String, JsonValue, JsonNode> adapter) {
     Objects.requireNonNull(delegate, "delegate");
-    Objects.requireNonNull(nc, "nc");
+    Objects.requireNonNull(adapter, "adapter");
     this.delegate = delegate;
+    this.adapter = adapter;
   }
 
   @Override
@@ -31,8 +31,9 @@ final class AdaptingEntryIterator implements Iterator<Entry<String, JsonNode>> {
   @Override
   public Entry<String, JsonNode> next() {
     Entry<String, JsonValue> unAdapted = this.delegate.next();
-    JsonNode jsonNode = JsonpNodeAdapter.adapt(unAdapted.getValue(), this.nc);
-    return Map.entry(unAdapted.getKey(), jsonNode);
+    String key = unAdapted.getKey();
+    JsonNode jsonNode = this.adapter.apply(key, unAdapted.getValue());
+    return Map.entry(key, jsonNode);
   }
 
   @Override
@@ -44,7 +45,7 @@ final class AdaptingEntryIterator implements Iterator<Entry<String, JsonNode>> {
   public void forEachRemaining(Consumer<? super Entry<String, JsonNode>> action) {
     this.delegate.forEachRemaining(unAdapted -> {
       String key = unAdapted.getKey();
-      Entry<String, JsonNode> adapted = Map.entry(key, JsonpNodeAdapter.adapt(unAdapted.getValue(), this.nc));
+      Entry<String, JsonNode> adapted = Map.entry(key, this.adapter.apply(key, unAdapted.getValue()));
       action.accept(adapted);
     });
   }
@@ -4,21 +4,20 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.function.Consumer;
 
-import javax.json.JsonValue;
-
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 
-final class AdaptingIterator implements Iterator<JsonNode> {
+final class AdaptingIterator<T> implements Iterator<JsonNode> {
 
-  private final Iterator<JsonValue> delegate;
-  private final JsonNodeFactory nc;
+  private final Iterator<T> delegate;
+  private final ChildAdapter<? super T> adapter;
+  private int index;
 
-  AdaptingIterator(Iterator<JsonValue> delegate, JsonNodeFactory nc) {
-    this.nc = nc;
+  AdaptingIterator(Iterator<T> delegate, ChildAdapter<? super T> adapter) {
     Objects.requireNonNull(delegate, "delegate");
-    Objects.requireNonNull(nc, "nc");
+    Objects.requireNonNull(adapter, "adapter");
     this.delegate = delegate;
+    this.adapter = adapter;
+    this.index = 0;
   }
 
   @Override
@@ -28,7 +27,7 @@ final class AdaptingIterator implements Iterator<JsonNode> {
 
   @Override
   public JsonNode next() {
-    return JsonpNodeAdapter.adapt(this.delegate.next(), this.nc);
+    return this.adapter.adapt(this.index++, this.delegate.next());
   }
 
   @Override
@@ -39,9 +38,21 @@ final class AdaptingIterator implements Iterator<JsonNode> {
   @Override
   public void forEachRemaining(Consumer<? super JsonNode> action) {
     this.delegate.forEachRemaining(value -> {
-      JsonNode jsonNode = JsonpNodeAdapter.adapt(value, this.nc);
+      JsonNode jsonNode = this.adapter.adapt(this.index++, value);
       action.accept(jsonNode);
     });
   }
 
+  /**
+   * Adapts a child at a given position of its parent.
+   *
+   * @param <T> the type of the unadapted child
+   */
+  @FunctionalInterface
+  interface ChildAdapter<T> {
+
+    JsonNode adapt(int index, T child);
+
+  }
+
 }
@@ -0,0 +1,78 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+/**
+ * The outcome of binding one element of a batch, either the bound value
+ * or the exception that prevented binding.
+ * <p>
+ * Instances are immutable.
+ *
+ * @param <T> the type of the bound value
+ * @see JsonpBridge#readAll(com.fasterxml.jackson.databind.ObjectReader, java.util.List)
+ */
+public final class BindingResult<T> {
+
+  private final int index;
+
+  private final T value;
+
+  private final Exception error;
+
+  private BindingResult(int index, T value, Exception error) {
+    this.index = index;
+    this.value = value;
+    this.error = error;
+  }
+
+  static <T> BindingResult<T> success(int index, T value) {
+    return new BindingResult<>(index, value, null);
+  }
+
+  static <T> BindingResult<T> failure(int index, Exception error) {
+    return new BindingResult<>(index, null, error);
+  }
+
+  /**
+   * Returns the index of the element in the batch.
+   *
+   * @return the index of the element
+   */
+  public int getIndex() {
+    return this.index;
+  }
+
+  /**
+   * Whether the element was bound successfully.
+   *
+   * @return {@code true} if the element was bound, {@code false} if binding failed
+   */
+  public boolean isSuccess() {
+    return this.error == null;
+  }
+
+  /**
+   * Returns the bound value.
+   *
+   * @return the bound value, {@code null} if binding failed
+   */
+  public T getValue() {
+    return this.value;
+  }
+
+  /**
+   * Returns the exception that prevented binding.
+   *
+   * @return the exception, {@code null} if the element was bound
+   */
+  public Exception getError() {
+    return this.error;
+  }
+
+  @Override
+  public String toString() {
+    if (this.isSuccess()) {
+      return "BindingResult[index=" + this.index + ", value=" + this.value + ']';
+    }
+    return "BindingResult[index=" + this.index + ", error=" + this.error + ']';
+  }
+
+}
@@ -0,0 +1,155 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NumericNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+/**
+ * Node factory that shares scalar nodes for repetitive values.
+ * <p>
+ * Short strings such as status, country or currency codes are cached in a
+ * bounded concurrent cache and the same {@link TextNode} is returned for
+ * the same value. Small integers are served from a table of
+ * {@link IntNode}s, booleans and null are singletons anyway. Pass an
+ * instance to {@link JsonpNodeAdapter#adapt(javax.json.JsonValue, JsonNodeFactory)}
+ * to share the scalar nodes of adapted values.
+ * <pre><code>
+ * JsonNodeFactory nodeFactory = new CachingJsonNodeFactory(4096, 16);
+ * JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, nodeFactory);
+ * </code></pre>
+ * <p>
+ * Once the maximum size is reached further strings are no longer cached,
+ * cached strings are never evicted. Instances are thread safe.
+ */
+public final class CachingJsonNodeFactory extends JsonNodeFactory {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int MIN_CACHED_INT = -128;
+
+  private static final int MAX_CACHED_INT = 1023;
+
+  private static final IntNode[] INT_NODES;
+
+  static {
+    INT_NODES = new IntNode[MAX_CACHED_INT - MIN_CACHED_INT + 1];
+    for (int i = 0; i < INT_NODES.length; i++) {
+      INT_NODES[i] = IntNode.valueOf(i + MIN_CACHED_INT);
+    }
+  }
+
+  private final boolean bigDecimalExact;
+
+  private final int maximumSize;
+
+  private final int maximumLength;
+
+  private final transient Map<String, TextNode> textNodes;
+
+  private final transient LongAdder hits;
+
+  private final transient LongAdder misses;
+
+  /**
+   * Constructs a new factory.
+   *
+   * @param maximumSize the maximum number of strings to cache, positive
+   * @param maximumLength the maximum length of a string to be cached, positive
+   */
+  public CachingJsonNodeFactory(int maximumSize, int maximumLength) {
+    this(false, maximumSize, maximumLength);
+  }
+
+  /**
+   * Constructs a new factory.
+   *
+   * @param bigDecimalExact see {@link JsonNodeFactory#JsonNodeFactory(boolean)}
+   * @param maximumSize the maximum number of strings to cache, positive
+   * @param maximumLength the maximum length of a string to be cached, positive
+   */
+  public CachingJsonNodeFactory(boolean bigDecimalExact, int maximumSize, int maximumLength) {
+    super(bigDecimalExact);
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    if (maximumLength < 1) {
+      throw new IllegalArgumentException("maximumLength must be positive");
+    }
+    this.bigDecimalExact = bigDecimalExact;
+    this.maximumSize = maximumSize;
+    this.maximumLength = maximumLength;
+    this.textNodes = new ConcurrentHashMap<>();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+  }
+
+  @Override
+  public TextNode textNode(String text) {
+    if ((text == null) || (text.length() > this.maximumLength)) {
+      return super.textNode(text);
+    }
+    TextNode node = this.textNodes.get(text);
+    if (node != null) {
+      this.hits.increment();
+      JsonpMetrics.cacheHit();
+      return node;
+    }
+    this.misses.increment();
+    JsonpMetrics.cacheMiss();
+    node = super.textNode(text);
+    if (this.textNodes.size() < this.maximumSize) {
+      // racy, may exceed the maximum size by the number of concurrent callers
+      TextNode previous = this.textNodes.putIfAbsent(text, node);
+      if (previous != null) {
+        return previous;
+      }
+    }
+    return node;
+  }
+
+  @Override
+  public NumericNode numberNode(int v) {
+    if ((v >= MIN_CACHED_INT) && (v <= MAX_CACHED_INT)) {
+      return INT_NODES[v - MIN_CACHED_INT];
+    }
+    return super.numberNode(v);
+  }
+
+  /**
+   * Returns the number of strings found in the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getHitCount() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns the number of cacheable strings not found in the cache.
+   *
+   * @return the number of cache misses
+   */
+  public long getMissCount() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns the number of cached strings.
+   *
+   * @return the number of cached strings
+   */
+  public int size() {
+    return this.textNodes.size();
+  }
+
+  private Object readResolve() {
+    // the cache is not serialized
+    return new CachingJsonNodeFactory(this.bigDecimalExact, this.maximumSize, this.maximumLength);
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * Bounded cache of pre-encoded field names used when serializing JAX-P
+ * values.
+ * <p>
+ * In arrays of homogeneous records the same few names are written over and
+ * over again. With a cache every name is quoted and encoded only once. The
+ * cache is enabled for a write by registering it as an attribute under its
+ * class.
+ * <pre><code>
+ * FieldNameCache fieldNames = new FieldNameCache(256);
+ * ObjectWriter writer = objectMapper.writer().withAttribute(FieldNameCache.class, fieldNames);
+ * </code></pre>
+ * <p>
+ * Once the maximum size is reached further names are no longer cached,
+ * cached names are never evicted. The hit and miss counts can be used to
+ * tune the size.
+ * <p>
+ * Instances are thread safe and can be shared by concurrent writes.
+ */
+public final class FieldNameCache {
+
+  private final int maximumSize;
+
+  private final Map<String, SerializedString> names;
+
+  private final LongAdder hits;
+
+  private final LongAdder misses;
+
+  /**
+   * Constructs a new cache.
+   *
+   * @param maximumSize the maximum number of names to cache, positive
+   */
+  public FieldNameCache(int maximumSize) {
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    this.maximumSize = maximumSize;
+    this.names = new ConcurrentHashMap<>();
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+  }
+
+  /**
+   * Looks up the pre-encoded version of a field name.
+   *
+   * @param name the field name
+   * @return the pre-encoded name, possibly not cached
+   */
+  SerializableString get(String name) {
+    SerializedString serialized = this.names.get(name);
+    if (serialized != null) {
+      this.hits.increment();
+      JsonpMetrics.cacheHit();
+      return serialized;
+    }
+    this.misses.increment();
+    JsonpMetrics.cacheMiss();
+    serialized = new SerializedString(name);
+    if (this.names.size() < this.maximumSize) {
+      // racy, may exceed the maximum size by the number of concurrent writers
+      SerializedString previous = this.names.putIfAbsent(name, serialized);
+      if (previous != null) {
+        return previous;
+      }
+    }
+    return serialized;
+  }
+
+  /**
+   * Returns the number of names found in the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long getHitCount() {
+    return this.hits.sum();
+  }
+
+  /**
+   * Returns the number of names not found in the cache.
+   *
+   * @return the number of cache misses
+   */
+  public long getMissCount() {
+    return this.misses.sum();
+  }
+
+  /**
+   * Returns the number of cached names.
+   *
+   * @return the number of cached names
+   */
+  public int size() {
+    return this.names.size();
+  }
+
+  /**
+   * Returns the maximum number of cached names.
+   *
+   * @return the maximum number of cached names
+   */
+  public int getMaximumSize() {
+    return this.maximumSize;
+  }
+
+  @Override
+  public String toString() {
+    return "FieldNameCache[size=" + this.size() + ", hits=" + this.getHitCount() + ", misses=" + this.getMissCount() + ']';
+  }
+
+}
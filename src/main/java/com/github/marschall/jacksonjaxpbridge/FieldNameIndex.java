@@ -0,0 +1,305 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+
+import com.github.marschall.jacksonjaxpbridge.JsonValueTraversal.Visitor;
+
+/**
+ * Index of all fields in a JAX-P value by name, shared by an adapted root
+ * node and all its descendants.
+ * <p>
+ * Every value is numbered in the same depth first order that
+ * {@link JsonValueTraversal} uses, every object and array remembers the
+ * range of numbers of its descendants. A search below any object or array
+ * therefore only has to look at the occurrences of one name within that
+ * range and reports the same matches in the same order as a traversal.
+ * <p>
+ * The index is built lazily in a single pass on the first search. If the
+ * same non-empty object or array instance occurs more than once in the
+ * value the numbering is ambiguous and the index is not used.
+ */
+final class FieldNameIndex {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final JsonValue root;
+
+  private volatile boolean invalid;
+
+  /**
+   * Lazily built on the first search.
+   */
+  private volatile Index index;
+
+  FieldNameIndex(JsonValue root) {
+    Objects.requireNonNull(root, "root");
+    this.root = root;
+  }
+
+  /**
+   * Marks the index as stale, for example because a node was mutated.
+   */
+  void invalidate() {
+    this.invalid = true;
+  }
+
+  /**
+   * Searches the fields with a given name below a value.
+   *
+   * @param container the object or array to search
+   * @param fieldName the name of the fields to search
+   * @param visitor the visitor to call for every match
+   * @return {@code null} if the index can not answer the search, otherwise
+   *         whether the search was terminated by the visitor
+   */
+  Boolean traverse(JsonValue container, String fieldName, Visitor visitor) {
+    if (this.invalid) {
+      return null;
+    }
+    Index current = this.getIndex();
+    if (current == null) {
+      return null;
+    }
+    Range range = current.ranges.get(container);
+    if (range == null) {
+      return null;
+    }
+    List<Occurrence> occurrences = current.fields.get(fieldName);
+    if (occurrences == null) {
+      return Boolean.FALSE;
+    }
+    // positions are ascending, skip everything before the container
+    int low = 0;
+    int high = occurrences.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (occurrences.get(middle).position <= range.start) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    // matches inside the value of a previous match are not reported
+    int skipUntil = range.start;
+    for (int i = low; i < occurrences.size(); i++) {
+      Occurrence occurrence = occurrences.get(i);
+      if (occurrence.position > range.end) {
+        break;
+      }
+      if (occurrence.position <= skipUntil) {
+        continue;
+      }
+      if (visitor.visit(occurrence.parent, occurrence.value)) {
+        return Boolean.TRUE;
+      }
+      skipUntil = occurrence.end;
+    }
+    return Boolean.FALSE;
+  }
+
+  private Index getIndex() {
+    Index current = this.index;
+    if (current == null) {
+      synchronized (this) {
+        current = this.index;
+        if (current == null) {
+          current = new Builder().build(this.root);
+          if (current == null) {
+            this.invalid = true;
+            return null;
+          }
+          this.index = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  static final class Index {
+
+    final Map<String, List<Occurrence>> fields;
+
+    final Map<JsonValue, Range> ranges;
+
+    Index(Map<String, List<Occurrence>> fields, Map<JsonValue, Range> ranges) {
+      this.fields = fields;
+      this.ranges = ranges;
+    }
+
+  }
+
+  /**
+   * Numbers of the descendants of an object or array.
+   */
+  static final class Range {
+
+    final int start;
+
+    int end;
+
+    Range(int start) {
+      this.start = start;
+    }
+
+  }
+
+  static final class Occurrence {
+
+    final JsonObject parent;
+
+    final JsonValue value;
+
+    final int position;
+
+    /**
+     * Last position within the value.
+     */
+    int end;
+
+    Occurrence(JsonObject parent, JsonValue value, int position) {
+      this.parent = parent;
+      this.value = value;
+      this.position = position;
+      this.end = position;
+    }
+
+  }
+
+  /**
+   * Builds an index iteratively with the same stack layout as {@link JsonValueTraversal}.
+   */
+  static final class Builder {
+
+    private final Map<String, List<Occurrence>> fields = new HashMap<>();
+
+    private final Map<JsonValue, Range> ranges = new IdentityHashMap<>();
+
+    private JsonValue[] containers = new JsonValue[INITIAL_CAPACITY];
+
+    private Iterator<Entry<String, JsonValue>>[] entries = JsonValueTraversal.newEntryIterators(INITIAL_CAPACITY);
+
+    private int[] indices = new int[INITIAL_CAPACITY];
+
+    private Range[] frameRanges = new Range[INITIAL_CAPACITY];
+
+    /**
+     * The occurrence whose value is the container, {@code null} if none.
+     */
+    private Occurrence[] frameOccurrences = new Occurrence[INITIAL_CAPACITY];
+
+    private int depth;
+
+    private int position;
+
+    /**
+     * Builds the index.
+     *
+     * @return the index, {@code null} if an object or array instance is shared
+     */
+    Index build(JsonValue root) {
+      if (!this.pushIfContainer(root, null)) {
+        return null;
+      }
+      while (this.depth > 0) {
+        int top = this.depth - 1;
+        JsonValue container = this.containers[top];
+        Iterator<Entry<String, JsonValue>> iterator = this.entries[top];
+        JsonValue child;
+        Occurrence occurrence = null;
+        if (iterator == null) {
+          JsonArray array = (JsonArray) container;
+          int index = this.indices[top];
+          if (index >= array.size()) {
+            this.pop();
+            continue;
+          }
+          this.indices[top] = index + 1;
+          child = array.get(index);
+          this.position += 1;
+        } else {
+          if (!iterator.hasNext()) {
+            this.pop();
+            continue;
+          }
+          Entry<String, JsonValue> entry = iterator.next();
+          child = entry.getValue();
+          this.position += 1;
+          occurrence = new Occurrence((JsonObject) container, child, this.position);
+          this.fields.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).add(occurrence);
+        }
+        if (!this.pushIfContainer(child, occurrence)) {
+          return null;
+        }
+      }
+      return new Index(this.fields, this.ranges);
+    }
+
+    private boolean pushIfContainer(JsonValue value, Occurrence occurrence) {
+      ValueType valueType = value.getValueType();
+      if ((valueType != ValueType.OBJECT) && (valueType != ValueType.ARRAY)) {
+        return true;
+      }
+      Range range = new Range(this.position);
+      boolean empty = valueType == ValueType.OBJECT ? ((JsonObject) value).isEmpty() : ((JsonArray) value).isEmpty();
+      if (empty) {
+        // nothing to number, shared empty instances are harmless
+        range.end = this.position;
+        this.ranges.putIfAbsent(value, range);
+        return true;
+      }
+      if (this.ranges.put(value, range) != null) {
+        // shared instance, positions are ambiguous
+        return false;
+      }
+      int top = this.depth;
+      if (top == this.containers.length) {
+        this.grow();
+      }
+      this.containers[top] = value;
+      this.entries[top] = valueType == ValueType.OBJECT ? ((JsonObject) value).entrySet().iterator() : null;
+      this.indices[top] = 0;
+      this.frameRanges[top] = range;
+      this.frameOccurrences[top] = occurrence;
+      this.depth = top + 1;
+      return true;
+    }
+
+    private void pop() {
+      int top = this.depth - 1;
+      this.frameRanges[top].end = this.position;
+      Occurrence occurrence = this.frameOccurrences[top];
+      if (occurrence != null) {
+        occurrence.end = this.position;
+      }
+      this.containers[top] = null;
+      this.entries[top] = null;
+      this.frameRanges[top] = null;
+      this.frameOccurrences[top] = null;
+      this.depth = top;
+    }
+
+    private void grow() {
+      int capacity = this.containers.length * 2;
+      this.containers = Arrays.copyOf(this.containers, capacity);
+      this.entries = Arrays.copyOf(this.entries, capacity);
+      this.indices = Arrays.copyOf(this.indices, capacity);
+      this.frameRanges = Arrays.copyOf(this.frameRanges, capacity);
+      this.frameOccurrences = Arrays.copyOf(this.frameOccurrences, capacity);
+    }
+
+  }
+
+}
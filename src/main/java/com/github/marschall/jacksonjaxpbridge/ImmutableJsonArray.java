@@ -0,0 +1,33 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.List;
+
+import javax.json.JsonValue;
+
+/**
+ * {@link javax.json.JsonArray} backed by a list that is no longer modified.
+ */
+final class ImmutableJsonArray extends AbstractJsonArray {
+
+  private final List<JsonValue> elements;
+
+  /**
+   * Constructs a new array, takes ownership of the list without copying it.
+   *
+   * @param elements the elements, no longer modified by the caller
+   */
+  ImmutableJsonArray(List<JsonValue> elements) {
+    this.elements = elements;
+  }
+
+  @Override
+  public JsonValue get(int index) {
+    return this.elements.get(index);
+  }
+
+  @Override
+  public int size() {
+    return this.elements.size();
+  }
+
+}
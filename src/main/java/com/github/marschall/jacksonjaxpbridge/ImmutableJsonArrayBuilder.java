@@ -0,0 +1,270 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * {@link JsonArrayBuilder} that builds {@link ImmutableJsonArray}s.
+ * <p>
+ * The elements are handed over to the array without copying, the builder
+ * starts over with no elements afterwards.
+ */
+final class ImmutableJsonArrayBuilder implements JsonArrayBuilder {
+
+  private List<JsonValue> elements;
+
+  ImmutableJsonArrayBuilder() {
+    this.elements = new ArrayList<>();
+  }
+
+  ImmutableJsonArrayBuilder(JsonArray array) {
+    Objects.requireNonNull(array, "array");
+    this.elements = new ArrayList<>(array);
+  }
+
+  ImmutableJsonArrayBuilder(Collection<?> collection) {
+    Objects.requireNonNull(collection, "collection");
+    this.elements = new ArrayList<>(collection.size());
+    for (Object element : collection) {
+      this.elements.add(ImmutableJsonObjectBuilder.toJsonValue(element));
+    }
+  }
+
+  private static JsonValue requireValue(JsonValue value) {
+    return Objects.requireNonNull(value, "value");
+  }
+
+  private static JsonValue string(String value) {
+    return new ImmutableJsonString(Objects.requireNonNull(value, "value"));
+  }
+
+  private static JsonValue number(BigDecimal value) {
+    return ImmutableJsonNumber.of(Objects.requireNonNull(value, "value"));
+  }
+
+  private static JsonValue number(BigInteger value) {
+    return ImmutableJsonNumber.of(Objects.requireNonNull(value, "value"));
+  }
+
+  private static JsonValue bool(boolean value) {
+    return value ? JsonValue.TRUE : JsonValue.FALSE;
+  }
+
+  private static JsonValue object(JsonObjectBuilder builder) {
+    return Objects.requireNonNull(builder, "builder").build();
+  }
+
+  private static JsonValue array(JsonArrayBuilder builder) {
+    return Objects.requireNonNull(builder, "builder").build();
+  }
+
+  private JsonArrayBuilder addValue(JsonValue value) {
+    this.elements.add(value);
+    return this;
+  }
+
+  private JsonArrayBuilder addValue(int index, JsonValue value) {
+    this.elements.add(index, value);
+    return this;
+  }
+
+  private JsonArrayBuilder setValue(int index, JsonValue value) {
+    this.elements.set(index, value);
+    return this;
+  }
+
+  @Override
+  public JsonArrayBuilder add(JsonValue value) {
+    return this.addValue(requireValue(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(String value) {
+    return this.addValue(string(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(BigDecimal value) {
+    return this.addValue(number(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(BigInteger value) {
+    return this.addValue(number(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int value) {
+    return this.addValue(ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(long value) {
+    return this.addValue(ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(double value) {
+    return this.addValue(ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(boolean value) {
+    return this.addValue(bool(value));
+  }
+
+  @Override
+  public JsonArrayBuilder addNull() {
+    return this.addValue(JsonValue.NULL);
+  }
+
+  @Override
+  public JsonArrayBuilder add(JsonObjectBuilder builder) {
+    return this.addValue(object(builder));
+  }
+
+  @Override
+  public JsonArrayBuilder add(JsonArrayBuilder builder) {
+    return this.addValue(array(builder));
+  }
+
+  @Override
+  public JsonArrayBuilder addAll(JsonArrayBuilder builder) {
+    Objects.requireNonNull(builder, "builder");
+    this.elements.addAll(builder.build());
+    return this;
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, JsonValue value) {
+    return this.addValue(index, requireValue(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, String value) {
+    return this.addValue(index, string(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, BigDecimal value) {
+    return this.addValue(index, number(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, BigInteger value) {
+    return this.addValue(index, number(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, int value) {
+    return this.addValue(index, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, long value) {
+    return this.addValue(index, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, double value) {
+    return this.addValue(index, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, boolean value) {
+    return this.addValue(index, bool(value));
+  }
+
+  @Override
+  public JsonArrayBuilder addNull(int index) {
+    return this.addValue(index, JsonValue.NULL);
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, JsonObjectBuilder builder) {
+    return this.addValue(index, object(builder));
+  }
+
+  @Override
+  public JsonArrayBuilder add(int index, JsonArrayBuilder builder) {
+    return this.addValue(index, array(builder));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, JsonValue value) {
+    return this.setValue(index, requireValue(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, String value) {
+    return this.setValue(index, string(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, BigDecimal value) {
+    return this.setValue(index, number(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, BigInteger value) {
+    return this.setValue(index, number(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, int value) {
+    return this.setValue(index, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, long value) {
+    return this.setValue(index, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, double value) {
+    return this.setValue(index, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, boolean value) {
+    return this.setValue(index, bool(value));
+  }
+
+  @Override
+  public JsonArrayBuilder setNull(int index) {
+    return this.setValue(index, JsonValue.NULL);
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, JsonObjectBuilder builder) {
+    return this.setValue(index, object(builder));
+  }
+
+  @Override
+  public JsonArrayBuilder set(int index, JsonArrayBuilder builder) {
+    return this.setValue(index, array(builder));
+  }
+
+  @Override
+  public JsonArrayBuilder remove(int index) {
+    this.elements.remove(index);
+    return this;
+  }
+
+  @Override
+  public JsonArray build() {
+    JsonArray array = new ImmutableJsonArray(this.elements);
+    this.elements = new ArrayList<>();
+    return array;
+  }
+
+}
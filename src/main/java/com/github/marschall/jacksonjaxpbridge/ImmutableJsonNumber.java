@@ -0,0 +1,317 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import javax.json.JsonNumber;
+
+/**
+ * Immutable {@link JsonNumber} implementations that avoid going through
+ * {@link BigDecimal} where possible.
+ */
+abstract class ImmutableJsonNumber implements JsonNumber {
+
+  static JsonNumber of(int value) {
+    return new IntNumber(value);
+  }
+
+  static JsonNumber of(long value) {
+    return new LongNumber(value);
+  }
+
+  /**
+   * Creates a number from a finite {@code double}.
+   *
+   * @throws NumberFormatException if the value is not finite
+   */
+  static JsonNumber of(double value) {
+    if (!Double.isFinite(value)) {
+      throw new NumberFormatException("JSON does not support: " + value);
+    }
+    return new DoubleNumber(value);
+  }
+
+  static JsonNumber of(BigInteger value) {
+    return new BigDecimalNumber(new BigDecimal(value));
+  }
+
+  static JsonNumber of(BigDecimal value) {
+    return new BigDecimalNumber(value);
+  }
+
+  @Override
+  public ValueType getValueType() {
+    return ValueType.NUMBER;
+  }
+
+  @Override
+  public int intValueExact() {
+    return this.bigDecimalValue().intValueExact();
+  }
+
+  @Override
+  public long longValueExact() {
+    return this.bigDecimalValue().longValueExact();
+  }
+
+  @Override
+  public BigInteger bigIntegerValue() {
+    return this.bigDecimalValue().toBigInteger();
+  }
+
+  @Override
+  public BigInteger bigIntegerValueExact() {
+    return this.bigDecimalValue().toBigIntegerExact();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return (obj instanceof JsonNumber other)
+        && this.bigDecimalValue().equals(other.bigDecimalValue());
+  }
+
+  @Override
+  public int hashCode() {
+    return this.bigDecimalValue().hashCode();
+  }
+
+  static final class IntNumber extends ImmutableJsonNumber {
+
+    private final int value;
+
+    IntNumber(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean isIntegral() {
+      return true;
+    }
+
+    @Override
+    public int intValue() {
+      return this.value;
+    }
+
+    @Override
+    public int intValueExact() {
+      return this.value;
+    }
+
+    @Override
+    public long longValue() {
+      return this.value;
+    }
+
+    @Override
+    public long longValueExact() {
+      return this.value;
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+      return BigInteger.valueOf(this.value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValueExact() {
+      return BigInteger.valueOf(this.value);
+    }
+
+    @Override
+    public double doubleValue() {
+      return this.value;
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+      return BigDecimal.valueOf(this.value);
+    }
+
+    @Override
+    public Number numberValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof IntNumber other) {
+        return this.value == other.value;
+      }
+      return super.equals(obj);
+    }
+
+    @Override
+    public String toString() {
+      return Integer.toString(this.value);
+    }
+
+  }
+
+  static final class LongNumber extends ImmutableJsonNumber {
+
+    private final long value;
+
+    LongNumber(long value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean isIntegral() {
+      return true;
+    }
+
+    @Override
+    public int intValue() {
+      return (int) this.value;
+    }
+
+    @Override
+    public int intValueExact() {
+      return Math.toIntExact(this.value);
+    }
+
+    @Override
+    public long longValue() {
+      return this.value;
+    }
+
+    @Override
+    public long longValueExact() {
+      return this.value;
+    }
+
+    @Override
+    public BigInteger bigIntegerValue() {
+      return BigInteger.valueOf(this.value);
+    }
+
+    @Override
+    public BigInteger bigIntegerValueExact() {
+      return BigInteger.valueOf(this.value);
+    }
+
+    @Override
+    public double doubleValue() {
+      return this.value;
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+      return BigDecimal.valueOf(this.value);
+    }
+
+    @Override
+    public Number numberValue() {
+      return this.value;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof LongNumber other) {
+        return this.value == other.value;
+      }
+      return super.equals(obj);
+    }
+
+    @Override
+    public String toString() {
+      return Long.toString(this.value);
+    }
+
+  }
+
+  static final class DoubleNumber extends ImmutableJsonNumber {
+
+    private final double value;
+
+    DoubleNumber(double value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean isIntegral() {
+      return this.bigDecimalValue().scale() == 0;
+    }
+
+    @Override
+    public int intValue() {
+      return (int) this.value;
+    }
+
+    @Override
+    public long longValue() {
+      return (long) this.value;
+    }
+
+    @Override
+    public double doubleValue() {
+      return this.value;
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+      return BigDecimal.valueOf(this.value);
+    }
+
+    @Override
+    public Number numberValue() {
+      return this.value;
+    }
+
+    @Override
+    public String toString() {
+      return Double.toString(this.value);
+    }
+
+  }
+
+  static final class BigDecimalNumber extends ImmutableJsonNumber {
+
+    private final BigDecimal value;
+
+    BigDecimalNumber(BigDecimal value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean isIntegral() {
+      return this.value.scale() == 0;
+    }
+
+    @Override
+    public int intValue() {
+      return this.value.intValue();
+    }
+
+    @Override
+    public long longValue() {
+      return this.value.longValue();
+    }
+
+    @Override
+    public double doubleValue() {
+      return this.value.doubleValue();
+    }
+
+    @Override
+    public BigDecimal bigDecimalValue() {
+      return this.value;
+    }
+
+    @Override
+    public Number numberValue() {
+      return this.value;
+    }
+
+    @Override
+    public String toString() {
+      return this.value.toString();
+    }
+
+  }
+
+}
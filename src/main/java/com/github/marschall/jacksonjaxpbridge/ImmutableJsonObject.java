@@ -0,0 +1,64 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.json.JsonValue;
+
+/**
+ * {@link javax.json.JsonObject} backed by a map that is no longer modified.
+ */
+final class ImmutableJsonObject extends AbstractJsonObject {
+
+  private final Map<String, JsonValue> members;
+
+  /**
+   * Constructs a new object, takes ownership of the map without copying it.
+   *
+   * @param members the members, no longer modified by the caller
+   */
+  ImmutableJsonObject(Map<String, JsonValue> members) {
+    this.members = members;
+  }
+
+  @Override
+  public JsonValue get(Object key) {
+    return this.members.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.members.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return this.members.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.members.isEmpty();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(this.members.keySet());
+  }
+
+  @Override
+  public Set<Entry<String, JsonValue>> entrySet() {
+    return Collections.unmodifiableMap(this.members).entrySet();
+  }
+
+  /**
+   * Iterates over the members without the unmodifiable wrappers, the
+   * entries must not be modified.
+   */
+  Iterator<Entry<String, JsonValue>> memberIterator() {
+    return this.members.entrySet().iterator();
+  }
+
+}
@@ -0,0 +1,168 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * {@link JsonObjectBuilder} that builds {@link ImmutableJsonObject}s.
+ * <p>
+ * The members are handed over to the object without copying, the builder
+ * starts over with no members afterwards.
+ */
+final class ImmutableJsonObjectBuilder implements JsonObjectBuilder {
+
+  private Map<String, JsonValue> members;
+
+  ImmutableJsonObjectBuilder() {
+    this.members = new LinkedHashMap<>();
+  }
+
+  ImmutableJsonObjectBuilder(JsonObject object) {
+    Objects.requireNonNull(object, "object");
+    this.members = new LinkedHashMap<>(object);
+  }
+
+  ImmutableJsonObjectBuilder(Map<String, ?> map) {
+    Objects.requireNonNull(map, "map");
+    this.members = new LinkedHashMap<>(Math.max((int) (map.size() / 0.75f) + 1, 16));
+    for (Entry<String, ?> entry : map.entrySet()) {
+      this.members.put(entry.getKey(), toJsonValue(entry.getValue()));
+    }
+  }
+
+  /**
+   * Converts an element of a {@link Map} or {@link Collection} passed to a
+   * builder factory.
+   */
+  static JsonValue toJsonValue(Object value) {
+    if (value == null) {
+      return JsonValue.NULL;
+    } else if (value instanceof JsonValue jsonValue) {
+      return jsonValue;
+    } else if (value instanceof String string) {
+      return new ImmutableJsonString(string);
+    } else if (value instanceof Integer intValue) {
+      return ImmutableJsonNumber.of(intValue.intValue());
+    } else if (value instanceof Long longValue) {
+      return ImmutableJsonNumber.of(longValue.longValue());
+    } else if (value instanceof Double doubleValue) {
+      return ImmutableJsonNumber.of(doubleValue.doubleValue());
+    } else if (value instanceof BigInteger bigInteger) {
+      return ImmutableJsonNumber.of(bigInteger);
+    } else if (value instanceof BigDecimal bigDecimal) {
+      return ImmutableJsonNumber.of(bigDecimal);
+    } else if (value instanceof Boolean booleanValue) {
+      return booleanValue.booleanValue() ? JsonValue.TRUE : JsonValue.FALSE;
+    } else if (value instanceof JsonObjectBuilder builder) {
+      return builder.build();
+    } else if (value instanceof JsonArrayBuilder builder) {
+      return builder.build();
+    } else if (value instanceof Map<?, ?> map) {
+      @SuppressWarnings("unchecked")
+      Map<String, ?> members = (Map<String, ?>) map;
+      return new ImmutableJsonObjectBuilder(members).build();
+    } else if (value instanceof Collection<?> collection) {
+      return new ImmutableJsonArrayBuilder(collection).build();
+    }
+    throw new IllegalArgumentException("unsupported type: " + value.getClass());
+  }
+
+  private JsonObjectBuilder addValue(String name, JsonValue value) {
+    Objects.requireNonNull(name, "name");
+    this.members.put(name, value);
+    return this;
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, JsonValue value) {
+    Objects.requireNonNull(value, "value");
+    return this.addValue(name, value);
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, String value) {
+    Objects.requireNonNull(value, "value");
+    return this.addValue(name, new ImmutableJsonString(value));
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, BigInteger value) {
+    Objects.requireNonNull(value, "value");
+    return this.addValue(name, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, BigDecimal value) {
+    Objects.requireNonNull(value, "value");
+    return this.addValue(name, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, int value) {
+    return this.addValue(name, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, long value) {
+    return this.addValue(name, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, double value) {
+    return this.addValue(name, ImmutableJsonNumber.of(value));
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, boolean value) {
+    return this.addValue(name, value ? JsonValue.TRUE : JsonValue.FALSE);
+  }
+
+  @Override
+  public JsonObjectBuilder addNull(String name) {
+    return this.addValue(name, JsonValue.NULL);
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, JsonObjectBuilder builder) {
+    Objects.requireNonNull(builder, "builder");
+    return this.addValue(name, builder.build());
+  }
+
+  @Override
+  public JsonObjectBuilder add(String name, JsonArrayBuilder builder) {
+    Objects.requireNonNull(builder, "builder");
+    return this.addValue(name, builder.build());
+  }
+
+  @Override
+  public JsonObjectBuilder addAll(JsonObjectBuilder builder) {
+    Objects.requireNonNull(builder, "builder");
+    this.members.putAll(builder.build());
+    return this;
+  }
+
+  @Override
+  public JsonObjectBuilder remove(String name) {
+    Objects.requireNonNull(name, "name");
+    this.members.remove(name);
+    return this;
+  }
+
+  @Override
+  public JsonObject build() {
+    JsonObject object = new ImmutableJsonObject(this.members);
+    this.members = new LinkedHashMap<>();
+    return object;
+  }
+
+}
@@ -0,0 +1,53 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Objects;
+
+import javax.json.JsonString;
+
+/**
+ * Immutable {@link JsonString} implementation.
+ */
+final class ImmutableJsonString implements JsonString {
+
+  private final String value;
+
+  ImmutableJsonString(String value) {
+    Objects.requireNonNull(value, "value");
+    this.value = value;
+  }
+
+  @Override
+  public ValueType getValueType() {
+    return ValueType.STRING;
+  }
+
+  @Override
+  public String getString() {
+    return this.value;
+  }
+
+  @Override
+  public CharSequence getChars() {
+    return this.value;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return (obj instanceof JsonString other)
+        && this.value.equals(other.getString());
+  }
+
+  @Override
+  public int hashCode() {
+    return this.value.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return JsonpNodeAdapter.toJson(this);
+  }
+
+}
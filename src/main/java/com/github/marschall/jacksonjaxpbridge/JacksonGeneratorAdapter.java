@@ -0,0 +1,319 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+
+import com.fasterxml.jackson.core.JsonStreamContext;
+
+/**
+ * Adapts a Jackson {@link com.fasterxml.jackson.core.JsonGenerator} to a
+ * JAX-P {@link JsonGenerator}.
+ * <p>
+ * Jackson allows a sequence of root values, JAX-P only a single one, the
+ * additional checks are done here.
+ */
+final class JacksonGeneratorAdapter implements JsonGenerator {
+
+  private final com.fasterxml.jackson.core.JsonGenerator delegate;
+
+  /**
+   * Whether a complete value has been written at the root level.
+   */
+  private boolean rootWritten;
+
+  JacksonGeneratorAdapter(com.fasterxml.jackson.core.JsonGenerator delegate) {
+    Objects.requireNonNull(delegate, "delegate");
+    this.delegate = delegate;
+  }
+
+  private JsonStreamContext context() {
+    return this.delegate.getOutputContext();
+  }
+
+  private void checkValue() {
+    JsonStreamContext context = this.context();
+    if (context.inRoot()) {
+      if (this.rootWritten) {
+        throw new JsonGenerationException("a value has already been written at the root level");
+      }
+    } else if (context.inObject() && (context.getCurrentName() == null)) {
+      throw new JsonGenerationException("a value in an object requires a name");
+    }
+  }
+
+  private void checkNamedValue() {
+    if (!this.context().inObject()) {
+      throw new JsonGenerationException("a named value requires an object context");
+    }
+  }
+
+  private void valueWritten() {
+    if (this.context().inRoot()) {
+      this.rootWritten = true;
+    }
+  }
+
+  private JsonException translate(IOException e) {
+    if (e instanceof com.fasterxml.jackson.core.JsonGenerationException) {
+      return new JsonGenerationException(e.getMessage(), e);
+    }
+    return new JsonException(e.getMessage(), e);
+  }
+
+  private static void checkFinite(double value) {
+    if (!Double.isFinite(value)) {
+      throw new NumberFormatException("JSON does not support: " + value);
+    }
+  }
+
+  @Override
+  public JsonGenerator writeStartObject() {
+    this.checkValue();
+    try {
+      this.delegate.writeStartObject();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartObject(String name) {
+    return this.writeKey(name).writeStartObject();
+  }
+
+  @Override
+  public JsonGenerator writeKey(String name) {
+    Objects.requireNonNull(name, "name");
+    this.checkNamedValue();
+    try {
+      this.delegate.writeFieldName(name);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray() {
+    this.checkValue();
+    try {
+      this.delegate.writeStartArray();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeStartArray(String name) {
+    return this.writeKey(name).writeStartArray();
+  }
+
+  @Override
+  public JsonGenerator write(String name, JsonValue value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, String value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, BigInteger value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, BigDecimal value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, int value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, long value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, double value) {
+    checkFinite(value);
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator write(String name, boolean value) {
+    return this.writeKey(name).write(value);
+  }
+
+  @Override
+  public JsonGenerator writeNull(String name) {
+    return this.writeKey(name).writeNull();
+  }
+
+  @Override
+  public JsonGenerator writeEnd() {
+    JsonStreamContext context = this.context();
+    try {
+      if (context.inObject()) {
+        this.delegate.writeEndObject();
+      } else if (context.inArray()) {
+        this.delegate.writeEndArray();
+      } else {
+        throw new JsonGenerationException("no object or array to end");
+      }
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(JsonValue value) {
+    Objects.requireNonNull(value, "value");
+    this.checkValue();
+    try {
+      JsonpNodeAdapter.serialize(value, this.delegate, null);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(String value) {
+    Objects.requireNonNull(value, "value");
+    this.checkValue();
+    try {
+      this.delegate.writeString(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(BigDecimal value) {
+    Objects.requireNonNull(value, "value");
+    this.checkValue();
+    try {
+      this.delegate.writeNumber(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(BigInteger value) {
+    Objects.requireNonNull(value, "value");
+    this.checkValue();
+    try {
+      this.delegate.writeNumber(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(int value) {
+    this.checkValue();
+    try {
+      this.delegate.writeNumber(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(long value) {
+    this.checkValue();
+    try {
+      this.delegate.writeNumber(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(double value) {
+    checkFinite(value);
+    this.checkValue();
+    try {
+      this.delegate.writeNumber(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator write(boolean value) {
+    this.checkValue();
+    try {
+      this.delegate.writeBoolean(value);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator writeNull() {
+    this.checkValue();
+    try {
+      this.delegate.writeNull();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    this.valueWritten();
+    return this;
+  }
+
+  @Override
+  public void flush() {
+    try {
+      this.delegate.flush();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    boolean incomplete = !this.context().inRoot() || !this.rootWritten;
+    try {
+      this.delegate.close();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    if (incomplete) {
+      throw new JsonGenerationException("incomplete JSON");
+    }
+  }
+
+}
@@ -0,0 +1,251 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+/**
+ * Implements all JAX-P factories on top of a Jackson {@link JsonFactory}.
+ * <p>
+ * The only supported configuration is {@link JsonGenerator#PRETTY_PRINTING}
+ * for generators and writers.
+ */
+final class JacksonJsonFactory implements JsonParserFactory, JsonGeneratorFactory,
+    JsonReaderFactory, JsonWriterFactory, JsonBuilderFactory {
+
+  private final JsonFactory factory;
+
+  private final boolean prettyPrinting;
+
+  JacksonJsonFactory(JsonFactory factory, Map<String, ?> config) {
+    Objects.requireNonNull(factory, "factory");
+    this.factory = factory;
+    this.prettyPrinting = (config != null) && isEnabled(config.get(JsonGenerator.PRETTY_PRINTING));
+  }
+
+  private static boolean isEnabled(Object value) {
+    // the reference implementation enables pretty printing for any value
+    return (value != null) && !Boolean.FALSE.equals(value) && !"false".equals(value);
+  }
+
+  // parsers
+
+  @Override
+  public JsonParser createParser(Reader reader) {
+    Objects.requireNonNull(reader, "reader");
+    try {
+      return new JacksonParserAdapter(new ExactDecimalParser(this.factory.createParser(reader)));
+    } catch (IOException e) {
+      throw new JsonException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public JsonParser createParser(InputStream in) {
+    Objects.requireNonNull(in, "in");
+    try {
+      // Jackson detects the encoding
+      return new JacksonParserAdapter(new ExactDecimalParser(this.factory.createParser(in)));
+    } catch (IOException e) {
+      throw new JsonException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public JsonParser createParser(InputStream in, Charset charset) {
+    Objects.requireNonNull(in, "in");
+    Objects.requireNonNull(charset, "charset");
+    return this.createParser(new InputStreamReader(in, charset));
+  }
+
+  @Override
+  public JsonParser createParser(JsonObject obj) {
+    Objects.requireNonNull(obj, "obj");
+    return new JacksonParserAdapter(new JsonValueParser(obj, null));
+  }
+
+  @Override
+  public JsonParser createParser(JsonArray array) {
+    Objects.requireNonNull(array, "array");
+    return new JacksonParserAdapter(new JsonValueParser(array, null));
+  }
+
+  // generators
+
+  private com.fasterxml.jackson.core.JsonGenerator jacksonGenerator(Writer writer) {
+    Objects.requireNonNull(writer, "writer");
+    try {
+      return this.configure(this.factory.createGenerator(writer));
+    } catch (IOException e) {
+      throw new JsonException(e.getMessage(), e);
+    }
+  }
+
+  private com.fasterxml.jackson.core.JsonGenerator jacksonGenerator(OutputStream out, Charset charset) {
+    Objects.requireNonNull(out, "out");
+    Objects.requireNonNull(charset, "charset");
+    for (JsonEncoding encoding : JsonEncoding.values()) {
+      if (encoding.getJavaName().equals(charset.name())) {
+        return this.jacksonGenerator(out, encoding);
+      }
+    }
+    // encodings other than UTF are not supported natively by Jackson
+    return this.jacksonGenerator(new OutputStreamWriter(out, charset));
+  }
+
+  private com.fasterxml.jackson.core.JsonGenerator jacksonGenerator(OutputStream out, JsonEncoding encoding) {
+    Objects.requireNonNull(out, "out");
+    try {
+      return this.configure(this.factory.createGenerator(out, encoding));
+    } catch (IOException e) {
+      throw new JsonException(e.getMessage(), e);
+    }
+  }
+
+  private com.fasterxml.jackson.core.JsonGenerator configure(com.fasterxml.jackson.core.JsonGenerator generator) {
+    if (this.prettyPrinting) {
+      generator.useDefaultPrettyPrinter();
+    }
+    return generator;
+  }
+
+  @Override
+  public JsonGenerator createGenerator(Writer writer) {
+    return new JacksonGeneratorAdapter(this.jacksonGenerator(writer));
+  }
+
+  @Override
+  public JsonGenerator createGenerator(OutputStream out) {
+    return new JacksonGeneratorAdapter(this.jacksonGenerator(out, JsonEncoding.UTF8));
+  }
+
+  @Override
+  public JsonGenerator createGenerator(OutputStream out, Charset charset) {
+    return new JacksonGeneratorAdapter(this.jacksonGenerator(out, charset));
+  }
+
+  // readers
+
+  @Override
+  public JsonReader createReader(Reader reader) {
+    return new JacksonJsonReader(this.createParser(reader));
+  }
+
+  @Override
+  public JsonReader createReader(InputStream in) {
+    return new JacksonJsonReader(this.createParser(in));
+  }
+
+  @Override
+  public JsonReader createReader(InputStream in, Charset charset) {
+    return new JacksonJsonReader(this.createParser(in, charset));
+  }
+
+  // writers
+
+  @Override
+  public JsonWriter createWriter(Writer writer) {
+    return new JacksonJsonWriter(this.jacksonGenerator(writer));
+  }
+
+  @Override
+  public JsonWriter createWriter(OutputStream out) {
+    return new JacksonJsonWriter(this.jacksonGenerator(out, JsonEncoding.UTF8));
+  }
+
+  @Override
+  public JsonWriter createWriter(OutputStream out, Charset charset) {
+    return new JacksonJsonWriter(this.jacksonGenerator(out, charset));
+  }
+
+  // builders
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder() {
+    return new ImmutableJsonObjectBuilder();
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder(JsonObject object) {
+    return new ImmutableJsonObjectBuilder(object);
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder(Map<String, Object> object) {
+    return new ImmutableJsonObjectBuilder(object);
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder() {
+    return new ImmutableJsonArrayBuilder();
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder(JsonArray array) {
+    return new ImmutableJsonArrayBuilder(array);
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder(Collection<?> collection) {
+    return new ImmutableJsonArrayBuilder(collection);
+  }
+
+  @Override
+  public Map<String, ?> getConfigInUse() {
+    if (this.prettyPrinting) {
+      return Map.of(JsonGenerator.PRETTY_PRINTING, Boolean.TRUE);
+    }
+    return Map.of();
+  }
+
+  /**
+   * Reports all floating point numbers as {@link NumberType#BIG_DECIMAL}
+   * so that values are built without the loss of precision of a
+   * {@code double}, as required by {@link javax.json.JsonNumber}.
+   */
+  static final class ExactDecimalParser extends JsonParserDelegate {
+
+    ExactDecimalParser(com.fasterxml.jackson.core.JsonParser delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public NumberType getNumberType() throws IOException {
+      if (this.delegate.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+        return NumberType.BIG_DECIMAL;
+      }
+      return this.delegate.getNumberType();
+    }
+
+  }
+
+}
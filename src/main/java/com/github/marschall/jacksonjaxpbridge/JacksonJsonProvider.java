@@ -0,0 +1,294 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
+import javax.json.JsonMergePatch;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonPatch;
+import javax.json.JsonPatchBuilder;
+import javax.json.JsonPointer;
+import javax.json.JsonReader;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonString;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+import javax.json.JsonWriterFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * JAX-P provider that parses and generates with Jackson.
+ * <p>
+ * Readers build immutable values directly from the tokens of a Jackson
+ * parser, writers and generators write to a Jackson generator. The
+ * provider is not registered for {@link java.util.ServiceLoader}, an
+ * application has to opt in by registering it in a
+ * {@code META-INF/services/javax.json.spi.JsonProvider} file for
+ * {@link javax.json.Json} to use it. It can also be used directly.
+ * <pre><code>
+ * JsonProvider provider = new JacksonJsonProvider(objectMapper.getFactory());
+ * JsonObject jsonObject = provider.createReader(in).readObject();
+ * </code></pre>
+ * <p>
+ * JSON Pointer, JSON Patch and JSON Merge Patch are not implemented and
+ * delegated to the next JAX-P provider found by
+ * {@link java.util.ServiceLoader} or to the reference implementation, if
+ * there is one.
+ * <p>
+ * Instances are thread safe.
+ */
+public final class JacksonJsonProvider extends JsonProvider {
+
+  /**
+   * Shared by all providers created by {@link java.util.ServiceLoader} when
+   * registered, {@link javax.json.Json} creates a new provider for every call.
+   */
+  private static final JsonFactory DEFAULT_FACTORY = new JsonFactory();
+
+  private final JsonFactory factory;
+
+  private final JacksonJsonFactory defaultFactory;
+
+  /**
+   * Constructs a new provider with a shared default {@link JsonFactory},
+   * used by {@link java.util.ServiceLoader}.
+   */
+  public JacksonJsonProvider() {
+    this(DEFAULT_FACTORY);
+  }
+
+  /**
+   * Constructs a new provider.
+   *
+   * @param factory the factory for parsers and generators, not {@code null}
+   */
+  public JacksonJsonProvider(JsonFactory factory) {
+    Objects.requireNonNull(factory, "factory");
+    this.factory = factory;
+    this.defaultFactory = new JacksonJsonFactory(factory, null);
+  }
+
+  @Override
+  public JsonParser createParser(Reader reader) {
+    return this.defaultFactory.createParser(reader);
+  }
+
+  @Override
+  public JsonParser createParser(InputStream in) {
+    return this.defaultFactory.createParser(in);
+  }
+
+  @Override
+  public JsonParserFactory createParserFactory(Map<String, ?> config) {
+    return new JacksonJsonFactory(this.factory, config);
+  }
+
+  @Override
+  public JsonGenerator createGenerator(Writer writer) {
+    return this.defaultFactory.createGenerator(writer);
+  }
+
+  @Override
+  public JsonGenerator createGenerator(OutputStream out) {
+    return this.defaultFactory.createGenerator(out);
+  }
+
+  @Override
+  public JsonGeneratorFactory createGeneratorFactory(Map<String, ?> config) {
+    return new JacksonJsonFactory(this.factory, config);
+  }
+
+  @Override
+  public JsonReader createReader(Reader reader) {
+    return this.defaultFactory.createReader(reader);
+  }
+
+  @Override
+  public JsonReader createReader(InputStream in) {
+    return this.defaultFactory.createReader(in);
+  }
+
+  @Override
+  public JsonWriter createWriter(Writer writer) {
+    return this.defaultFactory.createWriter(writer);
+  }
+
+  @Override
+  public JsonWriter createWriter(OutputStream out) {
+    return this.defaultFactory.createWriter(out);
+  }
+
+  @Override
+  public JsonWriterFactory createWriterFactory(Map<String, ?> config) {
+    return new JacksonJsonFactory(this.factory, config);
+  }
+
+  @Override
+  public JsonReaderFactory createReaderFactory(Map<String, ?> config) {
+    return new JacksonJsonFactory(this.factory, config);
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder() {
+    return new ImmutableJsonObjectBuilder();
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder(JsonObject object) {
+    return new ImmutableJsonObjectBuilder(object);
+  }
+
+  @Override
+  public JsonObjectBuilder createObjectBuilder(Map<String, Object> map) {
+    return new ImmutableJsonObjectBuilder(map);
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder() {
+    return new ImmutableJsonArrayBuilder();
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder(JsonArray array) {
+    return new ImmutableJsonArrayBuilder(array);
+  }
+
+  @Override
+  public JsonArrayBuilder createArrayBuilder(Collection<?> collection) {
+    return new ImmutableJsonArrayBuilder(collection);
+  }
+
+  @Override
+  public JsonBuilderFactory createBuilderFactory(Map<String, ?> config) {
+    return new JacksonJsonFactory(this.factory, config);
+  }
+
+  @Override
+  public JsonString createValue(String value) {
+    return new ImmutableJsonString(Objects.requireNonNull(value, "value"));
+  }
+
+  @Override
+  public JsonNumber createValue(int value) {
+    return ImmutableJsonNumber.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(long value) {
+    return ImmutableJsonNumber.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(double value) {
+    return ImmutableJsonNumber.of(value);
+  }
+
+  @Override
+  public JsonNumber createValue(BigDecimal value) {
+    return ImmutableJsonNumber.of(Objects.requireNonNull(value, "value"));
+  }
+
+  @Override
+  public JsonNumber createValue(BigInteger value) {
+    return ImmutableJsonNumber.of(Objects.requireNonNull(value, "value"));
+  }
+
+  @Override
+  public JsonPointer createPointer(String jsonPointer) {
+    return fallback().createPointer(jsonPointer);
+  }
+
+  @Override
+  public JsonPatchBuilder createPatchBuilder() {
+    return fallback().createPatchBuilder();
+  }
+
+  @Override
+  public JsonPatchBuilder createPatchBuilder(JsonArray array) {
+    return fallback().createPatchBuilder(array);
+  }
+
+  @Override
+  public JsonPatch createPatch(JsonArray array) {
+    return fallback().createPatch(array);
+  }
+
+  @Override
+  public JsonPatch createDiff(JsonStructure source, JsonStructure target) {
+    return fallback().createDiff(source, target);
+  }
+
+  @Override
+  public JsonMergePatch createMergePatch(JsonValue patch) {
+    return fallback().createMergePatch(patch);
+  }
+
+  @Override
+  public JsonMergePatch createMergeDiff(JsonValue source, JsonValue target) {
+    return fallback().createMergeDiff(source, target);
+  }
+
+  private static JsonProvider fallback() {
+    JsonProvider fallback = Fallback.PROVIDER;
+    if (fallback == null) {
+      throw new UnsupportedOperationException("no other JSON-P provider found");
+    }
+    return fallback;
+  }
+
+  @Override
+  public String toString() {
+    return "JacksonJsonProvider[factory=" + this.factory.getClass().getSimpleName() + ']';
+  }
+
+  /**
+   * Looks up the next provider on first use.
+   */
+  static final class Fallback {
+
+    private static final String DEFAULT_PROVIDER = "org.glassfish.json.JsonProviderImpl";
+
+    static final JsonProvider PROVIDER = load();
+
+    private Fallback() {
+      throw new AssertionError("not instantiable");
+    }
+
+    private static JsonProvider load() {
+      for (JsonProvider provider : ServiceLoader.load(JsonProvider.class, JacksonJsonProvider.class.getClassLoader())) {
+        if (!(provider instanceof JacksonJsonProvider)) {
+          return provider;
+        }
+      }
+      // the reference implementation is not registered, JsonProvider falls back to it by name
+      try {
+        Class<?> providerClass = Class.forName(DEFAULT_PROVIDER, true, JacksonJsonProvider.class.getClassLoader());
+        return (JsonProvider) providerClass.getConstructor().newInstance();
+      } catch (ReflectiveOperationException | LinkageError e) {
+        return null;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,79 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+/**
+ * {@link JsonReader} that builds immutable values directly from the
+ * tokens of a Jackson parser.
+ */
+final class JacksonJsonReader implements JsonReader {
+
+  private final JsonParser parser;
+
+  private boolean read;
+
+  JacksonJsonReader(JsonParser parser) {
+    Objects.requireNonNull(parser, "parser");
+    this.parser = parser;
+  }
+
+  @Override
+  public JsonStructure read() {
+    JsonValue value = this.readValue();
+    if (!(value instanceof JsonStructure structure)) {
+      throw new JsonParsingException("expected an object or array but got " + value.getValueType(), this.parser.getLocation());
+    }
+    return structure;
+  }
+
+  @Override
+  public JsonObject readObject() {
+    return this.read(ValueType.OBJECT).asJsonObject();
+  }
+
+  @Override
+  public JsonArray readArray() {
+    return this.read(ValueType.ARRAY).asJsonArray();
+  }
+
+  private JsonValue read(ValueType expected) {
+    JsonValue value = this.readValue();
+    if (value.getValueType() != expected) {
+      throw new JsonParsingException("expected " + expected + " but got " + value.getValueType(), this.parser.getLocation());
+    }
+    return value;
+  }
+
+  @Override
+  public JsonValue readValue() {
+    if (this.read) {
+      throw new IllegalStateException("read already called");
+    }
+    this.read = true;
+    if (!this.parser.hasNext()) {
+      throw new JsonException("no value to read");
+    }
+    this.parser.next();
+    JsonValue value = this.parser.getValue();
+    if (this.parser.hasNext()) {
+      throw new JsonParsingException("expected end of input", this.parser.getLocation());
+    }
+    return value;
+  }
+
+  @Override
+  public void close() {
+    this.parser.close();
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+import javax.json.JsonWriter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * {@link JsonWriter} that writes values to a Jackson generator.
+ */
+final class JacksonJsonWriter implements JsonWriter {
+
+  private final JsonGenerator generator;
+
+  private boolean written;
+
+  JacksonJsonWriter(JsonGenerator generator) {
+    Objects.requireNonNull(generator, "generator");
+    this.generator = generator;
+  }
+
+  @Override
+  public void writeArray(JsonArray array) {
+    this.write((JsonValue) array);
+  }
+
+  @Override
+  public void writeObject(JsonObject object) {
+    this.write((JsonValue) object);
+  }
+
+  @Override
+  public void write(JsonStructure value) {
+    this.write((JsonValue) value);
+  }
+
+  @Override
+  public void write(JsonValue value) {
+    Objects.requireNonNull(value, "value");
+    if (this.written) {
+      throw new IllegalStateException("write already called");
+    }
+    this.written = true;
+    try {
+      JsonpNodeAdapter.serialize(value, this.generator, null);
+      this.generator.flush();
+    } catch (IOException e) {
+      throw new JsonException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.generator.close();
+    } catch (IOException e) {
+      throw new JsonException(e.getMessage(), e);
+    }
+  }
+
+}
@@ -0,0 +1,453 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+import javax.json.stream.JsonLocation;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Adapts a Jackson {@link com.fasterxml.jackson.core.JsonParser} to a JAX-P
+ * {@link JsonParser}.
+ * <p>
+ * Values requested through {@link #getValue()} and friends are built with a
+ * {@link JsonValueGenerator} directly from the tokens of the Jackson parser.
+ */
+final class JacksonParserAdapter implements JsonParser {
+
+  private final com.fasterxml.jackson.core.JsonParser delegate;
+
+  /**
+   * Token read ahead by {@link #hasNext()} at the root level, {@code null} if none.
+   */
+  private JsonToken peeked;
+
+  /**
+   * Copy of a root level scalar that was current when {@link #hasNext()} had
+   * to read ahead, {@code null} if none.
+   */
+  private JsonValue detached;
+
+  private Event event;
+
+  JacksonParserAdapter(com.fasterxml.jackson.core.JsonParser delegate) {
+    Objects.requireNonNull(delegate, "delegate");
+    this.delegate = delegate;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.peeked != null) {
+      return true;
+    }
+    if (!this.delegate.getParsingContext().inRoot() || this.isStructStart()) {
+      // inside an object or array the end event is still missing
+      return true;
+    }
+    // at the root level only reading ahead tells whether there is another value
+    JsonValue current = this.event != null ? this.materializeScalar() : null;
+    JsonToken token = this.nextToken();
+    if (token == null) {
+      return false;
+    }
+    this.detached = current;
+    this.peeked = token;
+    return true;
+  }
+
+  private boolean isStructStart() {
+    JsonToken token = this.delegate.currentToken();
+    return (token != null) && token.isStructStart();
+  }
+
+  private JsonValue materializeScalar() {
+    JsonToken token = this.delegate.currentToken();
+    if ((token == null) || token.isStructEnd()) {
+      return null;
+    }
+    return this.materialize();
+  }
+
+  @Override
+  public Event next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    JsonToken token = this.peeked != null ? this.peeked : this.nextToken();
+    this.peeked = null;
+    this.detached = null;
+    if (token == null) {
+      throw new JsonParsingException("unexpected end of input", this.getLocation());
+    }
+    Event next = this.toEvent(token);
+    this.event = next;
+    return next;
+  }
+
+  private JsonToken nextToken() {
+    try {
+      JsonToken token = this.delegate.nextToken();
+      if (token == JsonToken.NOT_AVAILABLE) {
+        throw new JsonParsingException("non-blocking input exhausted", this.getLocation());
+      }
+      return token;
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  private Event toEvent(JsonToken token) {
+    return switch (token) {
+      case START_OBJECT -> Event.START_OBJECT;
+      case END_OBJECT -> Event.END_OBJECT;
+      case START_ARRAY -> Event.START_ARRAY;
+      case END_ARRAY -> Event.END_ARRAY;
+      case FIELD_NAME -> Event.KEY_NAME;
+      case VALUE_STRING -> Event.VALUE_STRING;
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> Event.VALUE_NUMBER;
+      case VALUE_TRUE -> Event.VALUE_TRUE;
+      case VALUE_FALSE -> Event.VALUE_FALSE;
+      case VALUE_NULL -> Event.VALUE_NULL;
+      default -> throw new JsonParsingException("unsupported token: " + token, this.getLocation());
+    };
+  }
+
+  @Override
+  public String getString() {
+    Event current = this.event;
+    if ((current != Event.KEY_NAME) && (current != Event.VALUE_STRING) && (current != Event.VALUE_NUMBER)) {
+      throw new IllegalStateException("current event (" + current + ") has no string value");
+    }
+    if (this.detached != null) {
+      return this.detached.getValueType() == ValueType.STRING
+          ? ((JsonString) this.detached).getString()
+          : this.detached.toString();
+    }
+    try {
+      return this.delegate.getText();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  @Override
+  public boolean isIntegralNumber() {
+    this.requireNumber();
+    if (this.detached != null) {
+      return ((JsonNumber) this.detached).isIntegral();
+    }
+    return this.delegate.currentToken() == JsonToken.VALUE_NUMBER_INT;
+  }
+
+  @Override
+  public int getInt() {
+    this.requireNumber();
+    if (this.detached != null) {
+      return ((JsonNumber) this.detached).intValue();
+    }
+    try {
+      if (this.delegate.getNumberType() == NumberType.INT) {
+        return this.delegate.getIntValue();
+      }
+      // JSON-P truncates instead of failing on overflow
+      return this.delegate.getDecimalValue().intValue();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  @Override
+  public long getLong() {
+    this.requireNumber();
+    if (this.detached != null) {
+      return ((JsonNumber) this.detached).longValue();
+    }
+    try {
+      NumberType numberType = this.delegate.getNumberType();
+      if ((numberType == NumberType.INT) || (numberType == NumberType.LONG)) {
+        return this.delegate.getLongValue();
+      }
+      return this.delegate.getDecimalValue().longValue();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  @Override
+  public BigDecimal getBigDecimal() {
+    this.requireNumber();
+    if (this.detached != null) {
+      return ((JsonNumber) this.detached).bigDecimalValue();
+    }
+    try {
+      return this.delegate.getDecimalValue();
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  private void requireNumber() {
+    if (this.event != Event.VALUE_NUMBER) {
+      throw new IllegalStateException("current event (" + this.event + ") is not a number");
+    }
+  }
+
+  @Override
+  public JsonObject getObject() {
+    if (this.event != Event.START_OBJECT) {
+      throw new IllegalStateException("current event (" + this.event + ") is not START_OBJECT");
+    }
+    return this.getValue().asJsonObject();
+  }
+
+  @Override
+  public JsonArray getArray() {
+    if (this.event != Event.START_ARRAY) {
+      throw new IllegalStateException("current event (" + this.event + ") is not START_ARRAY");
+    }
+    return this.getValue().asJsonArray();
+  }
+
+  @Override
+  public JsonValue getValue() {
+    Event current = this.event;
+    if ((current == null) || (current == Event.END_OBJECT) || (current == Event.END_ARRAY)) {
+      throw new IllegalStateException("current event (" + current + ") is not a value");
+    }
+    if (this.detached != null) {
+      return this.detached;
+    }
+    if (current == Event.KEY_NAME) {
+      return new ImmutableJsonString(this.getString());
+    }
+    JsonValue value = this.materialize();
+    if (current == Event.START_OBJECT) {
+      this.event = Event.END_OBJECT;
+    } else if (current == Event.START_ARRAY) {
+      this.event = Event.END_ARRAY;
+    }
+    return value;
+  }
+
+  /**
+   * Builds the current value, for objects and arrays the delegate is
+   * positioned at the corresponding end token afterwards.
+   */
+  private JsonValue materialize() {
+    JsonpMetrics.materialized();
+    JsonValueGenerator generator = new JsonValueGenerator(this.delegate.getCodec());
+    try {
+      generator.copyCurrentStructure(this.delegate);
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+    return generator.getValue();
+  }
+
+  @Override
+  public Stream<JsonValue> getArrayStream() {
+    if (this.event != Event.START_ARRAY) {
+      throw new IllegalStateException("current event (" + this.event + ") is not START_ARRAY");
+    }
+    return StreamSupport.stream(new ElementSpliterator(Event.END_ARRAY), false);
+  }
+
+  @Override
+  public Stream<Entry<String, JsonValue>> getObjectStream() {
+    if (this.event != Event.START_OBJECT) {
+      throw new IllegalStateException("current event (" + this.event + ") is not START_OBJECT");
+    }
+    return StreamSupport.stream(new EntrySpliterator(), false);
+  }
+
+  @Override
+  public Stream<JsonValue> getValueStream() {
+    if (!this.delegate.getParsingContext().inRoot() || this.isStructStart()) {
+      throw new IllegalStateException("parser is not at the root level");
+    }
+    return StreamSupport.stream(new ElementSpliterator(null), false);
+  }
+
+  @Override
+  public void skipObject() {
+    this.skip(Event.START_OBJECT, Event.END_OBJECT);
+  }
+
+  @Override
+  public void skipArray() {
+    this.skip(Event.START_ARRAY, Event.END_ARRAY);
+  }
+
+  private void skip(Event start, Event end) {
+    if (this.peeked != null) {
+      // read ahead only happens at the root level
+      return;
+    }
+    try {
+      if (this.event == start) {
+        this.delegate.skipChildren();
+        this.event = end;
+        return;
+      }
+      JsonStreamContext context = this.delegate.getParsingContext();
+      if (this.isStructStart()) {
+        // the context of the nested structure that is just starting
+        context = context.getParent();
+      }
+      boolean inContext = start == Event.START_OBJECT ? context.inObject() : context.inArray();
+      if (!inContext) {
+        return;
+      }
+      JsonToken endToken = start == Event.START_OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+      // no-op unless at the start of a nested structure
+      this.delegate.skipChildren();
+      JsonToken token = this.nextToken();
+      while (token != endToken) {
+        if (token == null) {
+          throw new JsonParsingException("unexpected end of input", this.getLocation());
+        }
+        this.delegate.skipChildren();
+        token = this.nextToken();
+      }
+      this.event = end;
+    } catch (IOException e) {
+      throw this.translate(e);
+    }
+  }
+
+  @Override
+  public JsonLocation getLocation() {
+    com.fasterxml.jackson.core.JsonLocation location = this.delegate.getCurrentLocation();
+    long offset = location.getCharOffset();
+    if (offset == -1L) {
+      offset = location.getByteOffset();
+    }
+    return new Location(location.getLineNr(), location.getColumnNr(), offset);
+  }
+
+  @Override
+  public void close() {
+    try {
+      this.delegate.close();
+    } catch (IOException e) {
+      throw new JsonException("could not close parser", e);
+    }
+  }
+
+  private JsonException translate(IOException e) {
+    if (e instanceof JsonProcessingException) {
+      return new JsonParsingException(e.getMessage(), e, this.getLocation());
+    }
+    return new JsonException(e.getMessage(), e);
+  }
+
+  static final class Location implements JsonLocation {
+
+    private final long lineNumber;
+
+    private final long columnNumber;
+
+    private final long streamOffset;
+
+    Location(long lineNumber, long columnNumber, long streamOffset) {
+      this.lineNumber = lineNumber;
+      this.columnNumber = columnNumber;
+      this.streamOffset = streamOffset;
+    }
+
+    @Override
+    public long getLineNumber() {
+      return this.lineNumber;
+    }
+
+    @Override
+    public long getColumnNumber() {
+      return this.columnNumber;
+    }
+
+    @Override
+    public long getStreamOffset() {
+      return this.streamOffset;
+    }
+
+    @Override
+    public String toString() {
+      return "(line no=" + this.lineNumber + ", column no=" + this.columnNumber + ", offset=" + this.streamOffset + ")";
+    }
+
+  }
+
+  /**
+   * Streams the elements of an array or the values at the root level.
+   */
+  final class ElementSpliterator extends Spliterators.AbstractSpliterator<JsonValue> {
+
+    /**
+     * The event that ends the stream, {@code null} for the root level.
+     */
+    private final Event end;
+
+    ElementSpliterator(Event end) {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super JsonValue> action) {
+      if ((this.end == null) && !JacksonParserAdapter.this.hasNext()) {
+        return false;
+      }
+      if (JacksonParserAdapter.this.next() == this.end) {
+        return false;
+      }
+      action.accept(JacksonParserAdapter.this.getValue());
+      return true;
+    }
+
+  }
+
+  /**
+   * Streams the entries of an object.
+   */
+  final class EntrySpliterator extends Spliterators.AbstractSpliterator<Entry<String, JsonValue>> {
+
+    EntrySpliterator() {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Entry<String, JsonValue>> action) {
+      if (JacksonParserAdapter.this.next() == Event.END_OBJECT) {
+        return false;
+      }
+      String key = JacksonParserAdapter.this.getString();
+      JacksonParserAdapter.this.next();
+      action.accept(Map.entry(key, JacksonParserAdapter.this.getValue()));
+      return true;
+    }
+
+  }
+
+}
@@ -1,7 +1,15 @@
 package com.github.marschall.jacksonjaxpbridge;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 
 import javax.json.JsonArray;
 import javax.json.JsonNumber;
@@ -9,27 +17,182 @@ import javax.json.JsonObject;
 import javax.json.JsonString;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
+import javax.json.stream.JsonParser;
 
+import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.POJONode;
 
+/**
+ * Adapts Jackson {@link JsonNode} to JAX-P {@link JsonValue}.
+ */
 public final class JacksonValueAdapter {
 
   private JacksonValueAdapter() {
     throw new AssertionError("not instantiable");
   }
 
+  /**
+   * Adapts a Jackson node to a JSON-P value.
+   * <p>
+   * Objects and arrays are returned as views that adapt their children
+   * lazily on access, nothing is copied. Binary nodes are adapted to
+   * strings that are base64 encoded on first access. POJO nodes can only
+   * be adapted if they contain simple values.
+   *
+   * @param node the node to adapt, not {@code null}
+   * @return the adapted value, {@code null} for a missing node
+   * @see #adapt(JsonNode, ObjectCodec)
+   */
   public static JsonValue adapt(JsonNode node) {
+    return adapt(node, null);
+  }
+
+  /**
+   * Adapts a Jackson node to a JSON-P value.
+   * <p>
+   * Objects and arrays are returned as views that adapt their children
+   * lazily on access, nothing is copied. Binary nodes are adapted to
+   * strings that are base64 encoded on first access. The values of POJO
+   * nodes are materialized using the given codec.
+   *
+   * @param node the node to adapt, not {@code null}
+   * @param codec the codec used to materialize the values of POJO nodes,
+   *              possibly {@code null}
+   * @return the adapted value, {@code null} for a missing node
+   */
+  public static JsonValue adapt(JsonNode node, ObjectCodec codec) {
+    Objects.requireNonNull(node, "node");
     return switch (node.getNodeType()) {
-      case ARRAY ->
-      case BINARY -> throw new UnsupportedOperationException("binary type not supported");
+      case ARRAY -> adaptArrayNode(node, codec);
+      case BINARY -> new BinaryNodeAdapter(node);
       case BOOLEAN -> node.booleanValue() ? JsonValue.TRUE : JsonValue.FALSE;
-      case MISSING ->
+      case MISSING -> null;
       case NULL -> JsonValue.NULL;
-      case NUMBER -> new NumberNodeAdapter(node);
-      case POJO -> throw new UnsupportedOperationException("POJO type not supported");
+      case NUMBER -> adaptNumberNode(node);
+      case OBJECT -> adaptObjectNode(node, codec);
+      case POJO -> adaptPojoNode(node, codec);
       case STRING -> new TextNodeAdapter(node);
+    };
+  }
+
+  /**
+   * Adapts a node that is assigned as a value, {@code null} and missing
+   * nodes are adapted to JSON null like {@link com.fasterxml.jackson.databind.node.ObjectNode} does.
+   * <p>
+   * Objects and arrays are never copied, later changes made to the node
+   * are visible in the value no matter if it is a Jackson or an adapted node.
+   */
+  static JsonValue adaptNullable(JsonNode node) {
+    if (node == null) {
+      return JsonValue.NULL;
+    } else if (node instanceof JsonObjectNode objectNode) {
+      return objectNode.share();
+    } else if (node instanceof JsonArrayNode arrayNode) {
+      return arrayNode.share();
+    }
+    JsonValue value = adapt(node, null);
+    return value != null ? value : JsonValue.NULL;
+  }
+
+  /**
+   * Copies the mutable parts of a value so that changes to the original
+   * are not visible in the copy. Immutable values are shared.
+   */
+  static JsonValue copyMutable(JsonValue value) {
+    if (value instanceof OverlayJsonObject overlay) {
+      return overlay.copy();
+    } else if (value instanceof OverlayJsonArray overlay) {
+      return overlay.copy();
+    } else if (value instanceof ObjectNodeAdapter adapter) {
+      return new ObjectNodeAdapter(adapter.objectNode.deepCopy(), adapter.codec);
+    } else if (value instanceof ArrayNodeAdapter adapter) {
+      return new ArrayNodeAdapter(adapter.arrayNode.deepCopy(), adapter.codec);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the Jackson node a value is a view of, {@code null} if the value
+   * is not backed by a Jackson object or array node.
+   */
+  static JsonNode jacksonNode(JsonValue value) {
+    if (value instanceof ObjectNodeAdapter adapter) {
+      return adapter.objectNode;
+    } else if (value instanceof ArrayNodeAdapter adapter) {
+      return adapter.arrayNode;
+    }
+    return null;
+  }
+
+  private static JsonValue adaptArrayNode(JsonNode node, ObjectCodec codec) {
+    if (node instanceof JsonArrayNode arrayNode) {
+      // already backed by JSON-P
+      return arrayNode.getJsonArray();
+    }
+    return new ArrayNodeAdapter(node, codec);
+  }
+
+  private static JsonValue adaptObjectNode(JsonNode node, ObjectCodec codec) {
+    if (node instanceof JsonObjectNode objectNode) {
+      // already backed by JSON-P
+      return objectNode.getJsonObject();
+    }
+    return new ObjectNodeAdapter(node, codec);
+  }
+
+  private static JsonValue adaptNumberNode(JsonNode node) {
+    if (node instanceof JsonNumberNode numberNode) {
+      // already backed by JSON-P
+      return numberNode.getJsonNumber();
+    }
+    return new NumberNodeAdapter(node);
+  }
+
+  private static JsonValue adaptPojoNode(JsonNode node, ObjectCodec codec) {
+    Object pojo = ((POJONode) node).getPojo();
+    if (pojo == null) {
+      return JsonValue.NULL;
     }
+    if (pojo instanceof JsonValue jsonValue) {
+      return jsonValue;
+    }
+    JsonValueGenerator generator = new JsonValueGenerator(codec);
+    try {
+      generator.writeObject(pojo);
+    } catch (IOException e) {
+      throw new UncheckedIOException("could not materialize POJO", e);
+    }
+    return generator.getValue();
+  }
+
+  /**
+   * Converts a value to JSON-P in a single pass using a {@link JsonValueGenerator},
+   * without creating an intermediate {@link JsonNode} tree.
+   *
+   * @param writer the writer to use, not {@code null}
+   * @param value the value to convert, possibly {@code null}
+   * @return the converted value, not {@code null}
+   * @throws IOException if serialization fails
+   */
+  public static JsonValue writeValue(ObjectWriter writer, Object value) throws IOException {
+    return JsonpBridge.getDefault().writeValue(writer, value);
+  }
+
+  /**
+   * Adapts a Jackson parser to a streaming JSON-P parser.
+   * <p>
+   * This allows consumers written against JSON-P to profit from the
+   * Jackson parser implementations. Values requested through
+   * {@link JsonParser#getValue()} are built directly from the tokens
+   * without an intermediate {@link JsonNode} tree.
+   *
+   * @param parser the Jackson parser to read from, not {@code null}
+   * @return the JSON-P parser, not {@code null}
+   */
+  public static JsonParser parser(com.fasterxml.jackson.core.JsonParser parser) {
+    return JsonpBridge.getDefault().parser(parser);
   }
 
   static final class TextNodeAdapter implements JsonString {
@@ -81,9 +244,64 @@ public final class JacksonValueAdapter {
 
     @Override
     public String toString() {
+      return JsonpNodeAdapter.toJson(this);
+    }
+
+  }
+
+  /**
+   * Adapts a binary node to a base64 encoded string, encoding is done lazily.
+   */
+  static final class BinaryNodeAdapter implements JsonString {
+
+    private final JsonNode binaryNode;
+
+    private String encoded;
+
+    BinaryNodeAdapter(JsonNode binaryNode) {
+      this.binaryNode = binaryNode;
+    }
+
+    @Override
+    public ValueType getValueType() {
+      return ValueType.STRING;
+    }
+
+    @Override
+    public String getString() {
+      String value = this.encoded;
+      if (value == null) {
+        // String is immutable, racy initialization is fine
+        value = this.binaryNode.asText();
+        this.encoded = value;
+      }
+      return value;
+    }
+
+    @Override
+    public CharSequence getChars() {
       return this.getString();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      return (obj instanceof JsonString other)
+          && this.getString().equals(other.getString());
+    }
+
+    @Override
+    public int hashCode() {
+      return this.getString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return JsonpNodeAdapter.toJson(this);
+    }
+
   }
 
   static final class NumberNodeAdapter implements JsonNumber {
@@ -96,7 +314,7 @@ public final class JacksonValueAdapter {
 
     @Override
     public ValueType getValueType() {
-      return ValueType.STRING;
+      return ValueType.NUMBER;
     }
 
     @Override
@@ -121,6 +339,9 @@ public final class JacksonValueAdapter {
 
     @Override
     public int intValueExact() {
+      if (!this.numberNode.isIntegralNumber()) {
+        return this.bigDecimalValue().intValueExact();
+      }
       if (!this.numberNode.canConvertToInt()) {
         throw new ArithmeticException("Overflow");
       }
@@ -134,6 +355,9 @@ public final class JacksonValueAdapter {
 
     @Override
     public long longValueExact() {
+      if (!this.numberNode.isIntegralNumber()) {
+        return this.bigDecimalValue().longValueExact();
+      }
       if (!this.numberNode.canConvertToLong()) {
         throw new ArithmeticException("Overflow");
       }
@@ -147,8 +371,8 @@ public final class JacksonValueAdapter {
 
     @Override
     public BigInteger bigIntegerValueExact() {
-      if (!this.numberNode.canConvertToExactIntegral()) {
-        throw new ArithmeticException("Overflow");
+      if (!this.numberNode.isIntegralNumber()) {
+        return this.bigDecimalValue().toBigIntegerExact();
       }
       return this.numberNode.bigIntegerValue();
     }
@@ -168,6 +392,132 @@ public final class JacksonValueAdapter {
       return this.numberNode.numberValue();
     }
 
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      return (obj instanceof JsonNumber other)
+          && this.bigDecimalValue().equals(other.bigDecimalValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return this.bigDecimalValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return this.numberNode.asText();
+    }
+
+  }
+
+  /**
+   * View of a Jackson object node as a {@link JsonObject}, children are adapted on access.
+   */
+  static final class ObjectNodeAdapter extends AbstractJsonObject {
+
+    private final JsonNode objectNode;
+
+    private final ObjectCodec codec;
+
+    ObjectNodeAdapter(JsonNode objectNode, ObjectCodec codec) {
+      this.objectNode = objectNode;
+      this.codec = codec;
+    }
+
+    @Override
+    public JsonValue get(Object key) {
+      if (!(key instanceof String fieldName)) {
+        return null;
+      }
+      JsonNode child = this.objectNode.get(fieldName);
+      if (child != null) {
+        return adapt(child, this.codec);
+      }
+      return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return (key instanceof String fieldName) && this.objectNode.has(fieldName);
+    }
+
+    @Override
+    public int size() {
+      return this.objectNode.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return this.objectNode.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<String, JsonValue>> entrySet() {
+      return new EntrySet();
+    }
+
+    final class EntrySet extends AbstractSet<Entry<String, JsonValue>> {
+
+      @Override
+      public Iterator<Entry<String, JsonValue>> iterator() {
+        Iterator<Entry<String, JsonNode>> fields = ObjectNodeAdapter.this.objectNode.fields();
+        ObjectCodec codec = ObjectNodeAdapter.this.codec;
+        return new Iterator<>() {
+
+          @Override
+          public boolean hasNext() {
+            return fields.hasNext();
+          }
+
+          @Override
+          public Entry<String, JsonValue> next() {
+            Entry<String, JsonNode> field = fields.next();
+            return Map.entry(field.getKey(), adapt(field.getValue(), codec));
+          }
+
+        };
+      }
+
+      @Override
+      public int size() {
+        return ObjectNodeAdapter.this.objectNode.size();
+      }
+
+    }
+
+  }
+
+  /**
+   * View of a Jackson array node as a {@link JsonArray}, elements are adapted on access.
+   */
+  static final class ArrayNodeAdapter extends AbstractJsonArray {
+
+    private final JsonNode arrayNode;
+
+    private final ObjectCodec codec;
+
+    ArrayNodeAdapter(JsonNode arrayNode, ObjectCodec codec) {
+      this.arrayNode = arrayNode;
+      this.codec = codec;
+    }
+
+    @Override
+    public JsonValue get(int index) {
+      JsonNode child = this.arrayNode.get(index);
+      if (child == null) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+      }
+      return adapt(child, this.codec);
+    }
+
+    @Override
+    public int size() {
+      return this.arrayNode.size();
+    }
+
   }
 
 }
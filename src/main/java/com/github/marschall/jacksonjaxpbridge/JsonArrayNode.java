@@ -1,17 +1,20 @@
 package com.github.marschall.jacksonjaxpbridge;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
-import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonValue;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.core.type.WritableTypeId;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.SerializerProvider;
@@ -24,14 +27,154 @@ import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
+/**
+ * Adapts a JAX-P {@link JsonArray} to a Jackson array node.
+ * <p>
+ * Elements are adapted lazily. The node can be modified through
+ * {@link #add(JsonNode)}, {@link #set(int, JsonNode)} and friends,
+ * changes are recorded on top of the backing value which is never copied.
+ * <p>
+ * Changes made to a child are visible in the parent. All nodes adapted
+ * from the same child share its changes, no matter if they were adapted
+ * before or after the change. Like with Jackson nodes a child whose value
+ * has been replaced or removed in the parent is detached, its further
+ * changes are no longer visible in the parent.
+ */
+public final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
 
   private JsonArray jsonArray;
 
+  private final boolean memoizeChildren;
+
+  /**
+   * Index of the field names of the whole tree, {@code null} if not indexed.
+   */
+  private final FieldNameIndex index;
+
+  /**
+   * Lazily filled child slots, only used when {@link #memoizeChildren} is set.
+   * Slots past the end of the array are always empty.
+   */
+  private JsonNode[] children;
+
+  /**
+   * Changes made through this node, {@code null} if unchanged.
+   */
+  private OverlayJsonArray overlay;
+
+  /**
+   * Cached hash code, {@code 0} if not yet computed.
+   */
+  private int hash;
+
+  /**
+   * The node this node was adapted from as a child, {@code null} if none.
+   * Changes to this node are made visible to the parent.
+   */
+  private ContainerNode<?> parent;
+
+  private String parentFieldName;
+
+  private int parentIndex;
+
   public JsonArrayNode(JsonArray jsonArray, JsonNodeFactory nc) {
+    this(jsonArray, nc, false);
+  }
+
+  JsonArrayNode(JsonArray jsonArray, JsonNodeFactory nc, boolean memoizeChildren) {
+    this(jsonArray, nc, memoizeChildren, null);
+  }
+
+  JsonArrayNode(JsonArray jsonArray, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
     super(nc);
     Objects.requireNonNull(jsonArray, "jsonArray");
     this.jsonArray = jsonArray;
+    this.memoizeChildren = memoizeChildren;
+    this.index = index;
+  }
+
+  /**
+   * Returns the backing JSON-P value.
+   */
+  JsonArray getJsonArray() {
+    return this.jsonArray;
+  }
+
+  /**
+   * Adapts a value found somewhere below this node with the same settings as this node.
+   */
+  JsonNode adaptDescendant(JsonValue descendant) {
+    return JsonpNodeAdapter.adapt(descendant, this._nodeFactory, this.memoizeChildren, this.index);
+  }
+
+  private JsonNode adaptChild(int index, JsonValue child) {
+    if (!this.memoizeChildren) {
+      return this.attachChild(index, JsonpNodeAdapter.adapt(child, this._nodeFactory, false, this.index));
+    }
+    JsonNode[] slots = this.children;
+    if (slots == null) {
+      slots = new JsonNode[this.jsonArray.size()];
+      this.children = slots;
+    } else if (index >= slots.length) {
+      // elements have been appended
+      slots = Arrays.copyOf(slots, Math.max(this.jsonArray.size(), slots.length * 2));
+      this.children = slots;
+    }
+    JsonNode adapted = slots[index];
+    if (adapted == null) {
+      adapted = this.attachChild(index, JsonpNodeAdapter.adapt(child, this._nodeFactory, true, this.index));
+      slots[index] = adapted;
+    }
+    return adapted;
+  }
+
+  private JsonNode attachChild(int index, JsonNode child) {
+    if (child instanceof JsonObjectNode objectNode) {
+      objectNode.attach(this, index);
+    } else if (child instanceof JsonArrayNode arrayNode) {
+      arrayNode.attach(this, index);
+    }
+    return child;
+  }
+
+  /**
+   * Replaces an element with its changed version, the child has just
+   * resolved this node. The element is looked up by identity if elements
+   * have been inserted or removed before it.
+   */
+  void replaceChild(int index, JsonValue original, JsonValue replacement) {
+    OverlayJsonArray current = this.resolvedOverlay();
+    int position = indexOf(current, original, index);
+    if ((position == -1) || (current.get(position) != original)) {
+      throw new IllegalStateException("element " + index + " has been changed concurrently");
+    }
+    current.setElement(position, replacement);
+  }
+
+  /**
+   * Looks up the current version of an element. The element is looked up
+   * by identity if elements have been inserted or removed before it.
+   *
+   * @return the element or the overlay with the changes made to it,
+   *         {@code null} if it has been replaced or removed
+   */
+  JsonValue currentChild(int index, JsonValue element) {
+    JsonArray array = this.current();
+    int position = indexOf(array, element, index);
+    return position != -1 ? array.get(position) : null;
+  }
+
+  private static int indexOf(JsonArray array, JsonValue element, int expectedIndex) {
+    int size = array.size();
+    if ((expectedIndex < size) && JsonpNodeAdapter.isVersionOf(array.get(expectedIndex), element)) {
+      return expectedIndex;
+    }
+    for (int i = 0; i < size; i++) {
+      if (JsonpNodeAdapter.isVersionOf(array.get(i), element)) {
+        return i;
+      }
+    }
+    return -1;
   }
 
   @Override
@@ -51,14 +194,14 @@ final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
 
   @Override
   public Iterator<JsonNode> elements() {
-      return new AdaptingIterator(this.jsonArray.iterator(), this._nodeFactory);
+      return new AdaptingIterator<>(this.jsonArray.iterator(), this::adaptChild);
   }
 
   @Override
   public JsonNode get(int index) {
     if ((index >= 0) && (index < this.jsonArray.size())) {
       JsonValue child = this.jsonArray.get(index);
-      return JsonpNodeAdapter.adapt(child, this._nodeFactory);
+      return this.adaptChild(index, child);
     }
     return null;
   }
@@ -70,19 +213,353 @@ final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
 
   @Override
   protected ObjectNode _withObject(JsonPointer origPtr, JsonPointer currentPtr, OverwriteMode overwriteMode, boolean preferIndex) {
-    throw new UnsupportedOperationException();
+    if (currentPtr.matches()) {
+      // not an ObjectNode, the parent has to replace this node
+      return null;
+    }
+    int index = currentPtr.getMatchingIndex();
+    JsonPointer tail = currentPtr.tail();
+    if ((index >= 0) && (index < this.jsonArray.size())) {
+      JsonValue value = this.jsonArray.get(index);
+      JsonNode child = JacksonValueAdapter.jacksonNode(value);
+      if (child == null) {
+        child = this.adaptChild(index, value);
+      }
+      if ((child instanceof JsonObjectNode objectNode) && tail.matches()) {
+        // only a Jackson object node can be returned, the members stay adapted
+        ObjectNode replacement = objectNode.toObjectNode();
+        this.set(index, replacement);
+        return replacement;
+      }
+      ObjectNode found = JsonpNodeAdapter.withObject(child, origPtr, tail, overwriteMode, preferIndex);
+      if (found != null) {
+        return found;
+      }
+      this._withXxxVerifyReplace(origPtr, currentPtr, overwriteMode, preferIndex, child);
+    }
+    ContainerNode<?> added = (preferIndex && tail.mayMatchElement()) ? this.arrayNode() : this.objectNode();
+    if (index >= this.jsonArray.size()) {
+      this.add(added);
+    } else if (index >= 0) {
+      this.set(index, added);
+    } else {
+      this.insert(0, added);
+    }
+    return added.withObject(tail, overwriteMode, preferIndex);
+  }
+
+  /**
+   * Returns the backing value after catching up with the changes made
+   * through other nodes adapted from the same value.
+   */
+  private JsonArray current() {
+    if (this.overlay == null) {
+      this.resolve();
+    }
+    return this.jsonArray;
+  }
+
+  /**
+   * Adopts the changes made through another node adapted from the same
+   * value, or detaches this node if its value has been replaced or
+   * removed in the parent.
+   */
+  private void resolve() {
+    if (this.parent == null) {
+      return;
+    }
+    JsonValue current = JsonpNodeAdapter.currentInParent(this.parent, this.parentFieldName, this.parentIndex, this.jsonArray);
+    if (current == null) {
+      this.parent = null;
+    } else if (current != this.jsonArray) {
+      OverlayJsonArray shared = (OverlayJsonArray) current;
+      this.jsonArray = shared;
+      this.overlay = shared;
+      this.children = null;
+      this.hash = 0;
+    }
+  }
+
+  /**
+   * Returns the backing value to be used as the value of another node,
+   * changes made through either node afterwards are visible in both.
+   */
+  JsonArray share() {
+    return this.overlay();
+  }
+
+  private OverlayJsonArray overlay() {
+    this.current();
+    return this.resolvedOverlay();
+  }
+
+  private OverlayJsonArray resolvedOverlay() {
+    OverlayJsonArray current = this.overlay;
+    if (current == null) {
+      if (this.jsonArray instanceof OverlayJsonArray shared) {
+        // already changed through another node, the parent has the changes
+        current = shared;
+      } else {
+        // record changes on top of the immutable value instead of copying it
+        current = new OverlayJsonArray(this.jsonArray);
+        JsonValue original = this.jsonArray;
+        this.jsonArray = current;
+        this.hash = 0;
+        JsonpNodeAdapter.replaceInParent(this.parent, this.parentFieldName, this.parentIndex, original, current);
+      }
+      this.overlay = current;
+    }
+    return current;
+  }
+
+  /**
+   * Records that this node was adapted from a child of an object node.
+   */
+  void attach(JsonObjectNode parent, String fieldName) {
+    this.parent = parent;
+    this.parentFieldName = fieldName;
+  }
+
+  /**
+   * Records that this node was adapted from an element of an array node.
+   */
+  void attach(JsonArrayNode parent, int index) {
+    this.parent = parent;
+    this.parentIndex = index;
+  }
+
+  private void changed(int index) {
+    JsonNode[] slots = this.children;
+    if ((slots != null) && (index < slots.length)) {
+      slots[index] = null;
+    }
+    this.invalidateIndex();
+  }
+
+  /**
+   * Moves the memoized children after an inserted element up by one slot.
+   */
+  private void inserted(int index) {
+    JsonNode[] slots = this.children;
+    if ((slots != null) && (index < slots.length)) {
+      int size = this.jsonArray.size();
+      if (slots.length < size) {
+        slots = Arrays.copyOf(slots, Math.max(size, slots.length * 2));
+        this.children = slots;
+      }
+      // the last slot is past the end of the array and therefore empty
+      System.arraycopy(slots, index, slots, index + 1, slots.length - index - 1);
+      slots[index] = null;
+      this.reattachChildren(index + 1);
+    }
+    this.invalidateIndex();
+  }
+
+  /**
+   * Moves the memoized children after a removed element down by one slot.
+   */
+  private void removed(int index) {
+    JsonNode[] slots = this.children;
+    if ((slots != null) && (index < slots.length)) {
+      System.arraycopy(slots, index + 1, slots, index, slots.length - index - 1);
+      slots[slots.length - 1] = null;
+      this.reattachChildren(index);
+    }
+    this.invalidateIndex();
+  }
+
+  private void reattachChildren(int fromIndex) {
+    JsonNode[] slots = this.children;
+    for (int i = fromIndex; i < slots.length; i++) {
+      this.attachChild(i, slots[i]);
+    }
+  }
+
+  private void invalidateIndex() {
+    if (this.index != null) {
+      this.index.invalidate();
+    }
+  }
+
+  private JsonArrayNode addValue(JsonValue value) {
+    this.overlay().append(value);
+    // slots for appended elements are added on access
+    this.invalidateIndex();
+    return this;
+  }
+
+  /**
+   * Appends an element, equivalent to {@link ArrayNode#add(JsonNode)}.
+   * <p>
+   * The backing JSON-P array is not copied, only the change is recorded.
+   * Like with Jackson nodes the element is stored by reference, later
+   * changes to it are visible in this node, also if it is an adapted node.
+   *
+   * @param value the element to append, {@code null} for a JSON null
+   * @return this node
+   */
+  public JsonArrayNode add(JsonNode value) {
+    return this.addValue(JacksonValueAdapter.adaptNullable(value));
+  }
+
+  /**
+   * Appends a string element.
+   *
+   * @param value the element to append, {@code null} for a JSON null
+   * @return this node
+   */
+  public JsonArrayNode add(String value) {
+    return this.addValue(value != null ? new ImmutableJsonString(value) : JsonValue.NULL);
+  }
+
+  /**
+   * Appends a number element.
+   *
+   * @param value the element to append
+   * @return this node
+   */
+  public JsonArrayNode add(int value) {
+    return this.addValue(ImmutableJsonNumber.of(value));
+  }
+
+  /**
+   * Appends a number element.
+   *
+   * @param value the element to append
+   * @return this node
+   */
+  public JsonArrayNode add(long value) {
+    return this.addValue(ImmutableJsonNumber.of(value));
+  }
+
+  /**
+   * Appends a number element.
+   *
+   * @param value the element to append
+   * @return this node
+   */
+  public JsonArrayNode add(double value) {
+    return this.addValue(ImmutableJsonNumber.of(value));
+  }
+
+  /**
+   * Appends a number element.
+   *
+   * @param value the element to append, {@code null} for a JSON null
+   * @return this node
+   */
+  public JsonArrayNode add(BigDecimal value) {
+    return this.addValue(value != null ? ImmutableJsonNumber.of(value) : JsonValue.NULL);
+  }
+
+  /**
+   * Appends a boolean element.
+   *
+   * @param value the element to append
+   * @return this node
+   */
+  public JsonArrayNode add(boolean value) {
+    return this.addValue(value ? JsonValue.TRUE : JsonValue.FALSE);
+  }
+
+  /**
+   * Appends a JSON null.
+   *
+   * @return this node
+   */
+  public JsonArrayNode addNull() {
+    return this.addValue(JsonValue.NULL);
+  }
+
+  /**
+   * Replaces an element, equivalent to {@link ArrayNode#set(int, JsonNode)}.
+   * <p>
+   * The element is stored by reference like with {@link #add(JsonNode)}.
+   *
+   * @param index the index of the element to replace
+   * @param value the new element, {@code null} for a JSON null
+   * @return the previous element
+   * @throws IndexOutOfBoundsException if the index is not valid
+   */
+  public JsonNode set(int index, JsonNode value) {
+    Objects.checkIndex(index, this.current().size());
+    JsonValue previous = this.overlay().setElement(index, JacksonValueAdapter.adaptNullable(value));
+    this.changed(index);
+    return this.adaptDescendant(previous);
+  }
+
+  /**
+   * Inserts an element, equivalent to {@link ArrayNode#insert(int, JsonNode)}.
+   * <p>
+   * The first insertion copies the references to the elements once. The
+   * element is stored by reference like with {@link #add(JsonNode)}.
+   *
+   * @param index the index to insert at, values outside the array insert
+   *              at the start or the end
+   * @param value the element to insert, {@code null} for a JSON null
+   * @return this node
+   */
+  public JsonArrayNode insert(int index, JsonNode value) {
+    OverlayJsonArray current = this.overlay();
+    int size = current.size();
+    JsonValue element = JacksonValueAdapter.adaptNullable(value);
+    if (index >= size) {
+      current.append(element);
+      this.invalidateIndex();
+    } else {
+      int position = Math.max(index, 0);
+      current.insert(position, element);
+      this.inserted(position);
+    }
+    return this;
+  }
+
+  /**
+   * Removes an element, equivalent to {@link ArrayNode#remove(int)}.
+   * <p>
+   * The first removal copies the references to the elements once.
+   *
+   * @param index the index of the element to remove
+   * @return the removed element, {@code null} if the index is not valid
+   */
+  public JsonNode remove(int index) {
+    if ((index < 0) || (index >= this.current().size())) {
+      return null;
+    }
+    JsonValue previous = this.overlay().removeElement(index);
+    this.removed(index);
+    return this.adaptDescendant(previous);
   }
 
   @Override
   public JsonArrayNode removeAll() {
-    // JsonValue are immutable, have to create a new one
-    this.jsonArray = Json.createArrayBuilder().build();
+    this.overlay().removeAllElements();
+    this.children = null;
+    this.invalidateIndex();
     return this;
   }
 
+  /**
+   * Consistent with the hash code of the equivalent Jackson node.
+   * <p>
+   * Cached as long as the node has not been changed.
+   */
   @Override
   public int hashCode() {
-    return this.jsonArray.hashCode();
+    int hash = this.hash;
+    if (hash == 0) {
+      hash = JsonValueEquality.hashCode(this.jsonArray);
+      if (!this.isMutable()) {
+        // immutable, racy initialization is fine
+        this.hash = hash;
+      }
+    }
+    return hash;
+  }
+
+  private boolean isMutable() {
+    // also true for values changed through another node
+    return this.jsonArray instanceof OverlayJsonArray;
   }
 
   @Override
@@ -93,16 +570,32 @@ final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
   @Override
   public void serializeWithType(JsonGenerator g, SerializerProvider ctxt, TypeSerializer typeSer) throws IOException {
     WritableTypeId typeIdDef = typeSer.writeTypePrefix(g, typeSer.typeId(this, JsonToken.START_ARRAY));
-    for (JsonValue child : this.jsonArray) {
-      JsonpNodeAdapter.serialize(child, g, ctxt);
-    }
+    SerializationPlan.of(ctxt).serializeElements(this.jsonArray, g);
     typeSer.writeTypeSuffix(g, typeIdDef);
   }
 
+  @Override
+  public JsonParser traverse() {
+    return new JsonValueParser(this.jsonArray, null);
+  }
+
+  @Override
+  public JsonParser traverse(ObjectCodec codec) {
+    return new JsonValueParser(this.jsonArray, codec);
+  }
+
+  /**
+   * Creates a deep copy in constant time, the immutable JSON-P values are
+   * shared and only changes made through mutation methods are copied.
+   */
   @Override
   public <T extends JsonNode> T deepCopy() {
-    JsonArray copy = Json.createArrayBuilder(this.jsonArray).build();
-    return (T) new JsonArrayNode(copy, this._nodeFactory);
+    JsonArrayNode copy = new JsonArrayNode((JsonArray) JacksonValueAdapter.copyMutable(this.jsonArray), this._nodeFactory, this.memoizeChildren);
+    if (copy.jsonArray instanceof OverlayJsonArray overlay) {
+      // further changes to the copy go into the copied overlay
+      copy.overlay = overlay;
+    }
+    return (T) copy;
   }
 
   @Override
@@ -114,7 +607,7 @@ final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
   public JsonNode path(int index) {
     if ((index >= 0) && (index < this.jsonArray.size())) {
       JsonValue child = this.jsonArray.get(index);
-      return JsonpNodeAdapter.adapt(child, this._nodeFactory);
+      return this.adaptChild(index, child);
     }
     return MissingNode.getInstance();
   }
@@ -136,27 +629,27 @@ final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
 
   @Override
   public JsonNode findParent(String fieldName) {
-    return JsonpNodeAdapter.findParent(this.jsonArray, fieldName, this._nodeFactory);
+    return JsonpNodeAdapter.findParent(this.jsonArray, fieldName, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public List<JsonNode> findParents(String fieldName, List<JsonNode> foundSoFar) {
-    return JsonpNodeAdapter.findParents(this.jsonArray, fieldName, foundSoFar, this._nodeFactory);
+    return JsonpNodeAdapter.findParents(this.jsonArray, fieldName, foundSoFar, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public JsonNode findValue(String fieldName) {
-    return JsonpNodeAdapter.findValue(this.jsonArray, fieldName, this._nodeFactory);
+    return JsonpNodeAdapter.findValue(this.jsonArray, fieldName, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public List<JsonNode> findValues(String fieldName, List<JsonNode> foundSoFar) {
-    return JsonpNodeAdapter.findValues(this.jsonArray, fieldName, foundSoFar, this._nodeFactory);
+    return JsonpNodeAdapter.findValues(this.jsonArray, fieldName, foundSoFar, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
-    return JsonpNodeAdapter.findValuesAsText(this.jsonArray, fieldName, foundSoFar);
+    return JsonpNodeAdapter.findValuesAsText(this.jsonArray, fieldName, foundSoFar, this.index);
   }
 
   @Override
@@ -164,8 +657,9 @@ final class JsonArrayNode extends ContainerNode<JsonArrayNode> {
     if (o == this) {
       return true;
     }
+    // only equal to adapted nodes so that equals is symmetric
     return (o instanceof JsonArrayNode other)
-        && this.jsonArray.equals(other.jsonArray);
+        && JsonValueEquality.equals(this.jsonArray, other.jsonArray);
   }
 
 }
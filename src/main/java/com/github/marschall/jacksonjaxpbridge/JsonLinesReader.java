@@ -0,0 +1,311 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads newline delimited JSON (NDJSON, JSON Lines) and binds every line
+ * lazily using an {@link ObjectReader}.
+ * <p>
+ * The input is read through a single reused buffer, lines are bound
+ * straight from the buffer and only copied when they span a buffer
+ * boundary. Memory use only depends on the buffer size and the longest
+ * line, not on the size of the input. Records of JSON-P types can be read
+ * with a reader of a mapper that has {@link JsonpBridgeModule} registered.
+ * <pre><code>
+ * ObjectReader reader = objectMapper.readerFor(LogEntry.class);
+ * try (JsonLinesReader&lt;LogEntry&gt; lines = new JsonLinesReader&lt;&gt;(reader, in);
+ *      Stream&lt;BindingResult&lt;LogEntry&gt;&gt; entries = lines.stream()) {
+ *   entries.filter(BindingResult::isSuccess)...
+ * }
+ * </code></pre>
+ * <p>
+ * A line that can not be bound does not end the iteration, its exception
+ * is captured in the result, the index of the result is the zero based
+ * line number. Blank lines are skipped, {@code \r\n} line endings are
+ * supported. Failing to read the input ends the iteration with an
+ * {@link UncheckedIOException}.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @param <T> the type of the bound records
+ */
+public final class JsonLinesReader<T> implements Iterator<BindingResult<T>>, Closeable {
+
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  private static final int DEFAULT_MAXIMUM_LINE_LENGTH = 1 << 20;
+
+  private final ObjectReader reader;
+
+  private final ReadableByteChannel channel;
+
+  private final ByteBuffer buffer;
+
+  private final int maximumLineLength;
+
+  /**
+   * The start of the unprocessed bytes in the buffer.
+   */
+  private int position;
+
+  /**
+   * The end of the unprocessed bytes in the buffer.
+   */
+  private int limit;
+
+  /**
+   * Holds the beginning of a line that spans a buffer boundary.
+   */
+  private byte[] line;
+
+  private int lineLength;
+
+  private boolean lineTooLong;
+
+  private int lineIndex;
+
+  private boolean endOfInput;
+
+  private BindingResult<T> next;
+
+  /**
+   * Constructs a new reader with default buffer size and maximum line
+   * length of one MiB.
+   *
+   * @param reader the reader to bind the lines, not {@code null}
+   * @param in the stream to read, not {@code null}, closed by {@link #close()}
+   */
+  public JsonLinesReader(ObjectReader reader, InputStream in) {
+    this(reader, Channels.newChannel(Objects.requireNonNull(in, "in")), DEFAULT_BUFFER_SIZE, DEFAULT_MAXIMUM_LINE_LENGTH);
+  }
+
+  /**
+   * Constructs a new reader with default buffer size and maximum line
+   * length of one MiB.
+   *
+   * @param reader the reader to bind the lines, not {@code null}
+   * @param channel the channel to read, not {@code null}, closed by {@link #close()}
+   */
+  public JsonLinesReader(ObjectReader reader, ReadableByteChannel channel) {
+    this(reader, channel, DEFAULT_BUFFER_SIZE, DEFAULT_MAXIMUM_LINE_LENGTH);
+  }
+
+  /**
+   * Constructs a new reader.
+   *
+   * @param reader the reader to bind the lines, not {@code null}
+   * @param channel the channel to read, not {@code null}, closed by {@link #close()}
+   * @param bufferSize the size of the read buffer in bytes, positive
+   * @param maximumLineLength the maximum length of a line in bytes, longer
+   *                          lines are skipped and reported as failures,
+   *                          positive
+   */
+  public JsonLinesReader(ObjectReader reader, ReadableByteChannel channel, int bufferSize, int maximumLineLength) {
+    Objects.requireNonNull(reader, "reader");
+    Objects.requireNonNull(channel, "channel");
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("bufferSize must be positive");
+    }
+    if (maximumLineLength < 1) {
+      throw new IllegalArgumentException("maximumLineLength must be positive");
+    }
+    this.reader = reader;
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocate(bufferSize);
+    this.maximumLineLength = maximumLineLength;
+    this.line = new byte[Math.min(bufferSize, maximumLineLength)];
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.next == null) {
+      try {
+        this.next = this.readNext();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return this.next != null;
+  }
+
+  @Override
+  public BindingResult<T> next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    BindingResult<T> result = this.next;
+    this.next = null;
+    return result;
+  }
+
+  /**
+   * Returns a sequential stream of the remaining lines. Closing the stream
+   * closes this reader.
+   *
+   * @return the stream of the remaining lines, not {@code null}
+   */
+  public Stream<BindingResult<T>> stream() {
+    return stream(this, this);
+  }
+
+  /**
+   * Returns a sequential stream of the remaining lines that are read and
+   * bound ahead of the consumer on an executor. Closing the stream stops
+   * reading ahead, waits for a line that is being read to complete and
+   * then closes this reader.
+   * <p>
+   * At most {@code readAhead} results are buffered, reading is suspended
+   * when the consumer falls behind.
+   *
+   * @param executor the executor to read and bind on, not {@code null}
+   * @param readAhead the maximum number of results to buffer, positive
+   * @return the stream of the remaining lines, not {@code null}
+   */
+  public Stream<BindingResult<T>> stream(Executor executor, int readAhead) {
+    Objects.requireNonNull(executor, "executor");
+    ReadAhead<BindingResult<T>> iterator = new ReadAhead<>(this, readAhead);
+    executor.execute(iterator);
+    return stream(iterator, () -> {
+      try {
+        // the channel must not be closed while it is being read
+        iterator.close();
+      } finally {
+        this.close();
+      }
+    });
+  }
+
+  private static <E> Stream<E> stream(Iterator<E> iterator, Closeable closeable) {
+    Spliterator<E> spliterator = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(() -> {
+      try {
+        closeable.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private BindingResult<T> readNext() throws IOException {
+    while (true) {
+      byte[] bytes = this.buffer.array();
+      for (int i = this.position; i < this.limit; i++) {
+        if (bytes[i] == '\n') {
+          int start = this.position;
+          this.position = i + 1;
+          BindingResult<T> result = this.lineEnd(bytes, start, i - start);
+          if (result != null) {
+            return result;
+          }
+        }
+      }
+      this.appendToLine(bytes, this.position, this.limit - this.position);
+      if (!this.fill()) {
+        // the last line does not need to be terminated
+        return this.lineLength > 0 || this.lineTooLong ? this.lineEnd(bytes, 0, 0) : null;
+      }
+    }
+  }
+
+  private boolean fill() throws IOException {
+    if (this.endOfInput) {
+      return false;
+    }
+    int read;
+    do {
+      this.buffer.clear();
+      read = this.channel.read(this.buffer);
+    } while (read == 0);
+    if (read == -1) {
+      this.endOfInput = true;
+      this.position = 0;
+      this.limit = 0;
+      return false;
+    }
+    this.position = 0;
+    this.limit = this.buffer.position();
+    return true;
+  }
+
+  private void appendToLine(byte[] bytes, int offset, int length) {
+    if (length == 0 || this.lineTooLong) {
+      return;
+    }
+    int newLength = this.lineLength + length;
+    if (newLength > this.maximumLineLength) {
+      this.lineTooLong = true;
+      return;
+    }
+    if (newLength > this.line.length) {
+      this.line = Arrays.copyOf(this.line, Math.min(Math.max(newLength, this.line.length * 2), this.maximumLineLength));
+    }
+    System.arraycopy(bytes, offset, this.line, this.lineLength, length);
+    this.lineLength = newLength;
+  }
+
+  /**
+   * Binds a complete line, the end of the line is either in the buffer or
+   * already appended to {@link #line}.
+   *
+   * @return the result, {@code null} for a blank line
+   */
+  private BindingResult<T> lineEnd(byte[] bytes, int offset, int length) {
+    int index = this.lineIndex++;
+    byte[] content = bytes;
+    int start = offset;
+    int end = offset + length;
+    if (this.lineLength > 0 || this.lineTooLong) {
+      this.appendToLine(bytes, offset, length);
+      content = this.line;
+      start = 0;
+      end = this.lineLength;
+      this.lineLength = 0;
+    }
+    if (this.lineTooLong || (end - start) > this.maximumLineLength) {
+      this.lineTooLong = false;
+      return BindingResult.failure(index, new IOException("line " + (index + 1) + " exceeds maximum length of " + this.maximumLineLength));
+    }
+    while (start < end && isWhitespace(content[start])) {
+      start += 1;
+    }
+    while (end > start && isWhitespace(content[end - 1])) {
+      end -= 1;
+    }
+    if (start == end) {
+      return null;
+    }
+    try {
+      T value = this.reader.readValue(content, start, end - start);
+      return BindingResult.success(index, value);
+    } catch (IOException | RuntimeException e) {
+      return BindingResult.failure(index, e);
+    }
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b == ' ' || b == '\t' || b == '\r';
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.channel.close();
+  }
+
+}
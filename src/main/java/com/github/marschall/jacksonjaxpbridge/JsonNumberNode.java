@@ -0,0 +1,208 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+import javax.json.JsonNumber;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.NumericNode;
+
+/**
+ * Adapts a JAX-P {@link JsonNumber} to a Jackson {@link NumericNode}.
+ * <p>
+ * All accessors are served directly from the {@link JsonNumber}, no
+ * conversion happens unless requested.
+ */
+final class JsonNumberNode extends NumericNode {
+
+  private final JsonNumber jsonNumber;
+
+  /**
+   * Lazily computed narrowest number type.
+   */
+  private NumberType numberType;
+
+  JsonNumberNode(JsonNumber jsonNumber) {
+    Objects.requireNonNull(jsonNumber, "jsonNumber");
+    this.jsonNumber = jsonNumber;
+  }
+
+  /**
+   * Returns the backing JSON-P value.
+   */
+  JsonNumber getJsonNumber() {
+    return this.jsonNumber;
+  }
+
+  @Override
+  public NumberType numberType() {
+    NumberType type = this.numberType;
+    if (type == null) {
+      // enum constant, racy initialization is fine
+      type = JsonpNodeAdapter.numberType(this.jsonNumber);
+      this.numberType = type;
+    }
+    return type;
+  }
+
+  @Override
+  public JsonToken asToken() {
+    return this.jsonNumber.isIntegral() ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_NUMBER_FLOAT;
+  }
+
+  @Override
+  public boolean isIntegralNumber() {
+    return this.jsonNumber.isIntegral();
+  }
+
+  @Override
+  public boolean isFloatingPointNumber() {
+    return !this.jsonNumber.isIntegral();
+  }
+
+  @Override
+  public boolean isInt() {
+    return this.numberType() == NumberType.INT;
+  }
+
+  @Override
+  public boolean isLong() {
+    return this.numberType() == NumberType.LONG;
+  }
+
+  @Override
+  public boolean isBigInteger() {
+    return this.numberType() == NumberType.BIG_INTEGER;
+  }
+
+  @Override
+  public boolean isDouble() {
+    return this.numberType() == NumberType.DOUBLE;
+  }
+
+  @Override
+  public boolean isFloat() {
+    return this.numberType() == NumberType.FLOAT;
+  }
+
+  @Override
+  public boolean isBigDecimal() {
+    return this.numberType() == NumberType.BIG_DECIMAL;
+  }
+
+  @Override
+  public Number numberValue() {
+    return switch (this.numberType()) {
+      case INT -> this.jsonNumber.intValue();
+      case LONG -> this.jsonNumber.longValue();
+      case BIG_INTEGER -> this.jsonNumber.bigIntegerValue();
+      default -> this.jsonNumber.numberValue();
+    };
+  }
+
+  @Override
+  public int intValue() {
+    return this.jsonNumber.intValue();
+  }
+
+  @Override
+  public long longValue() {
+    return this.jsonNumber.longValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return this.jsonNumber.doubleValue();
+  }
+
+  @Override
+  public float floatValue() {
+    return (float) this.jsonNumber.doubleValue();
+  }
+
+  @Override
+  public BigDecimal decimalValue() {
+    return this.jsonNumber.bigDecimalValue();
+  }
+
+  @Override
+  public BigInteger bigIntegerValue() {
+    return this.jsonNumber.bigIntegerValue();
+  }
+
+  @Override
+  public boolean canConvertToInt() {
+    return switch (this.numberType()) {
+      case INT -> true;
+      // the narrowest type, so out of range
+      case LONG, BIG_INTEGER -> false;
+      default -> {
+        double value = this.jsonNumber.doubleValue();
+        yield (value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE);
+      }
+    };
+  }
+
+  @Override
+  public boolean canConvertToLong() {
+    return switch (this.numberType()) {
+      case INT, LONG -> true;
+      case BIG_INTEGER -> false;
+      default -> {
+        double value = this.jsonNumber.doubleValue();
+        yield (value >= Long.MIN_VALUE) && (value <= Long.MAX_VALUE);
+      }
+    };
+  }
+
+  @Override
+  public boolean canConvertToExactIntegral() {
+    if (this.jsonNumber.isIntegral()) {
+      return true;
+    }
+    return this.jsonNumber.bigDecimalValue().stripTrailingZeros().scale() <= 0;
+  }
+
+  @Override
+  public String asText() {
+    return this.jsonNumber.toString();
+  }
+
+  @Override
+  public void serialize(JsonGenerator g, SerializerProvider provider) throws IOException {
+    switch (this.numberType()) {
+      case INT -> g.writeNumber(this.jsonNumber.intValue());
+      case LONG -> g.writeNumber(this.jsonNumber.longValue());
+      case BIG_INTEGER -> g.writeNumber(this.jsonNumber.bigIntegerValue());
+      case DOUBLE -> g.writeNumber(this.jsonNumber.doubleValue());
+      case FLOAT -> g.writeNumber((float) this.jsonNumber.doubleValue());
+      case BIG_DECIMAL -> g.writeNumber(this.jsonNumber.bigDecimalValue());
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    // only equal to adapted nodes so that equals is symmetric
+    return (o instanceof JsonNumberNode other)
+        && JsonValueEquality.equals(this.jsonNumber, other.jsonNumber);
+  }
+
+  /**
+   * Consistent with the hash codes of the Jackson node for the same number type.
+   */
+  @Override
+  public int hashCode() {
+    return JsonValueEquality.hashCode(this.jsonNumber);
+  }
+
+}
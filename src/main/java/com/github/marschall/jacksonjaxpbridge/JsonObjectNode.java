@@ -1,25 +1,26 @@
 package com.github.marschall.jacksonjaxpbridge;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 
-import javax.json.Json;
 import javax.json.JsonObject;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
 import com.fasterxml.jackson.core.type.WritableTypeId;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
 import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.fasterxml.jackson.databind.node.ContainerNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -27,14 +28,132 @@ import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.MissingNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
+/**
+ * Adapts a JAX-P {@link JsonObject} to a Jackson object node.
+ * <p>
+ * Children are adapted lazily. The node can be modified through
+ * {@link #set(String, JsonNode)}, {@link #put(String, String)} and friends,
+ * changes are recorded on top of the backing value which is never copied.
+ * <p>
+ * Changes made to a child are visible in the parent. All nodes adapted
+ * from the same child share its changes, no matter if they were adapted
+ * before or after the change. Like with Jackson nodes a child whose value
+ * has been replaced or removed in the parent is detached, its further
+ * changes are no longer visible in the parent.
+ */
+public final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
 
   private JsonObject jsonObject;
 
+  private final boolean memoizeChildren;
+
+  /**
+   * Index of the field names of the whole tree, {@code null} if not indexed.
+   */
+  private final FieldNameIndex index;
+
+  /**
+   * Lazily created cache of adapted children, only used when {@link #memoizeChildren} is set.
+   */
+  private Map<String, JsonNode> children;
+
+  /**
+   * Changes made through this node, {@code null} if unchanged.
+   */
+  private OverlayJsonObject overlay;
+
+  /**
+   * Cached hash code, {@code 0} if not yet computed.
+   */
+  private int hash;
+
+  /**
+   * The node this node was adapted from as a child, {@code null} if none.
+   * Changes to this node are made visible to the parent.
+   */
+  private ContainerNode<?> parent;
+
+  private String parentFieldName;
+
+  private int parentIndex;
+
   public JsonObjectNode(JsonObject jsonObject, JsonNodeFactory nc) {
+    this(jsonObject, nc, false);
+  }
+
+  JsonObjectNode(JsonObject jsonObject, JsonNodeFactory nc, boolean memoizeChildren) {
+    this(jsonObject, nc, memoizeChildren, null);
+  }
+
+  JsonObjectNode(JsonObject jsonObject, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
     super(nc);
     Objects.requireNonNull(jsonObject, "jsonObject");
     this.jsonObject = jsonObject;
+    this.memoizeChildren = memoizeChildren;
+    this.index = index;
+  }
+
+  /**
+   * Returns the backing JSON-P value.
+   */
+  JsonObject getJsonObject() {
+    return this.jsonObject;
+  }
+
+  /**
+   * Adapts a value found somewhere below this node with the same settings as this node.
+   */
+  JsonNode adaptDescendant(JsonValue descendant) {
+    return JsonpNodeAdapter.adapt(descendant, this._nodeFactory, this.memoizeChildren, this.index);
+  }
+
+  private JsonNode adaptChild(String fieldName, JsonValue child) {
+    if (!this.memoizeChildren) {
+      return this.attachChild(fieldName, JsonpNodeAdapter.adapt(child, this._nodeFactory, false, this.index));
+    }
+    Map<String, JsonNode> cache = this.children;
+    if (cache == null) {
+      cache = new HashMap<>();
+      this.children = cache;
+    }
+    JsonNode adapted = cache.get(fieldName);
+    if (adapted == null) {
+      adapted = this.attachChild(fieldName, JsonpNodeAdapter.adapt(child, this._nodeFactory, true, this.index));
+      cache.put(fieldName, adapted);
+    }
+    return adapted;
+  }
+
+  private JsonNode attachChild(String fieldName, JsonNode child) {
+    if (child instanceof JsonObjectNode objectNode) {
+      objectNode.attach(this, fieldName);
+    } else if (child instanceof JsonArrayNode arrayNode) {
+      arrayNode.attach(this, fieldName);
+    }
+    return child;
+  }
+
+  /**
+   * Replaces the value of a field with its changed version, the child has
+   * just resolved this node.
+   */
+  void replaceChild(String fieldName, JsonValue original, JsonValue replacement) {
+    OverlayJsonObject current = this.resolvedOverlay();
+    if (current.get(fieldName) != original) {
+      throw new IllegalStateException("field " + fieldName + " has been changed concurrently");
+    }
+    current.set(fieldName, replacement);
+  }
+
+  /**
+   * Looks up the current version of the value of a field.
+   *
+   * @return the value or the overlay with the changes made to it,
+   *         {@code null} if it has been replaced or removed
+   */
+  JsonValue currentChild(String fieldName, JsonValue value) {
+    JsonValue current = this.current().get(fieldName);
+    return JsonpNodeAdapter.isVersionOf(current, value) ? current : null;
   }
 
   @Override
@@ -59,12 +178,13 @@ final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
 
   @Override
   public Iterator<JsonNode> elements() {
-    return new AdaptingIterator(this.jsonObject.values().iterator(), this._nodeFactory);
+    return new AdaptingIterator<>(this.jsonObject.entrySet().iterator(),
+        (index, entry) -> this.adaptChild(entry.getKey(), entry.getValue()));
   }
 
   @Override
   public Iterator<Entry<String, JsonNode>> fields() {
-    return new AdaptingEntryIterator(this.jsonObject.entrySet().iterator(), this._nodeFactory);
+    return new AdaptingEntryIterator(this.jsonObject.entrySet().iterator(), this::adaptChild);
   }
 
   @Override
@@ -76,7 +196,7 @@ final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
   public JsonNode get(String fieldName) {
     JsonValue child = this.jsonObject.get(fieldName);
     if (child != null) {
-      return JsonpNodeAdapter.adapt(child, this._nodeFactory);
+      return this.adaptChild(fieldName, child);
     } else {
       return null;
     }
@@ -84,19 +204,303 @@ final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
 
   @Override
   protected ObjectNode _withObject(JsonPointer origPtr, JsonPointer currentPtr, OverwriteMode overwriteMode, boolean preferIndex) {
-    throw new UnsupportedOperationException();
+    if (currentPtr.matches()) {
+      // not an ObjectNode, the parent has to replace this node
+      return null;
+    }
+    String fieldName = currentPtr.getMatchingProperty();
+    JsonPointer tail = currentPtr.tail();
+    JsonValue value = this.jsonObject.get(fieldName);
+    if (value != null) {
+      JsonNode child = JacksonValueAdapter.jacksonNode(value);
+      if (child == null) {
+        child = this.adaptChild(fieldName, value);
+      }
+      if ((child instanceof JsonObjectNode objectNode) && tail.matches()) {
+        // only a Jackson object node can be returned, the members stay adapted
+        ObjectNode replacement = objectNode.toObjectNode();
+        this.set(fieldName, replacement);
+        return replacement;
+      }
+      ObjectNode found = JsonpNodeAdapter.withObject(child, origPtr, tail, overwriteMode, preferIndex);
+      if (found != null) {
+        return found;
+      }
+      this._withXxxVerifyReplace(origPtr, currentPtr, overwriteMode, preferIndex, child);
+    }
+    ContainerNode<?> added = (preferIndex && tail.mayMatchElement()) ? this.arrayNode() : this.objectNode();
+    this.set(fieldName, added);
+    return added.withObject(tail, overwriteMode, preferIndex);
+  }
+
+  /**
+   * Copies the members to a Jackson object node, the values stay adapted.
+   */
+  ObjectNode toObjectNode() {
+    ObjectNode objectNode = this.objectNode();
+    for (Entry<String, JsonValue> member : this.jsonObject.entrySet()) {
+      objectNode.set(member.getKey(), this.adaptDescendant(member.getValue()));
+    }
+    return objectNode;
+  }
+
+  /**
+   * Returns the backing value after catching up with the changes made
+   * through other nodes adapted from the same value.
+   */
+  private JsonObject current() {
+    if (this.overlay == null) {
+      this.resolve();
+    }
+    return this.jsonObject;
+  }
+
+  /**
+   * Adopts the changes made through another node adapted from the same
+   * value, or detaches this node if its value has been replaced or
+   * removed in the parent.
+   */
+  private void resolve() {
+    if (this.parent == null) {
+      return;
+    }
+    JsonValue current = JsonpNodeAdapter.currentInParent(this.parent, this.parentFieldName, this.parentIndex, this.jsonObject);
+    if (current == null) {
+      this.parent = null;
+    } else if (current != this.jsonObject) {
+      OverlayJsonObject shared = (OverlayJsonObject) current;
+      this.jsonObject = shared;
+      this.overlay = shared;
+      this.children = null;
+      this.hash = 0;
+    }
+  }
+
+  /**
+   * Returns the backing value to be used as the value of another node,
+   * changes made through either node afterwards are visible in both.
+   */
+  JsonObject share() {
+    return this.overlay();
+  }
+
+  private OverlayJsonObject overlay() {
+    this.current();
+    return this.resolvedOverlay();
+  }
+
+  private OverlayJsonObject resolvedOverlay() {
+    OverlayJsonObject current = this.overlay;
+    if (current == null) {
+      if (this.jsonObject instanceof OverlayJsonObject shared) {
+        // already changed through another node, the parent has the changes
+        current = shared;
+      } else {
+        // record changes on top of the immutable value instead of copying it
+        current = new OverlayJsonObject(this.jsonObject);
+        JsonValue original = this.jsonObject;
+        this.jsonObject = current;
+        this.hash = 0;
+        JsonpNodeAdapter.replaceInParent(this.parent, this.parentFieldName, this.parentIndex, original, current);
+      }
+      this.overlay = current;
+    }
+    return current;
+  }
+
+  /**
+   * Records that this node was adapted from a child of an object node.
+   */
+  void attach(JsonObjectNode parent, String fieldName) {
+    this.parent = parent;
+    this.parentFieldName = fieldName;
+  }
+
+  /**
+   * Records that this node was adapted from an element of an array node.
+   */
+  void attach(JsonArrayNode parent, int index) {
+    this.parent = parent;
+    this.parentIndex = index;
+  }
+
+  private void changed(String fieldName) {
+    if (this.children != null) {
+      this.children.remove(fieldName);
+    }
+    if (this.index != null) {
+      this.index.invalidate();
+    }
+  }
+
+  private JsonNode adaptPrevious(JsonValue previous) {
+    return previous != null ? JsonpNodeAdapter.adapt(previous, this._nodeFactory, this.memoizeChildren, this.index) : null;
+  }
+
+  private JsonObjectNode putValue(String fieldName, JsonValue value) {
+    Objects.requireNonNull(fieldName, "fieldName");
+    this.overlay().set(fieldName, value);
+    this.changed(fieldName);
+    return this;
+  }
+
+  /**
+   * Sets the value of a field, equivalent to {@link ObjectNode#set(String, JsonNode)}.
+   * <p>
+   * The backing JSON-P object is not copied, only the change is recorded.
+   * Like with Jackson nodes the value is stored by reference, later
+   * changes to it are visible in this node, also if it is an adapted node.
+   *
+   * @param <T> the type of this node
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field, {@code null} for a JSON null
+   * @return this node
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends JsonNode> T set(String fieldName, JsonNode value) {
+    return (T) this.putValue(fieldName, JacksonValueAdapter.adaptNullable(value));
+  }
+
+  /**
+   * Sets the value of a field, equivalent to {@link ObjectNode#replace(String, JsonNode)}.
+   * <p>
+   * The value is stored by reference like with {@link #set(String, JsonNode)}.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field, {@code null} for a JSON null
+   * @return the previous value, {@code null} if none
+   */
+  public JsonNode replace(String fieldName, JsonNode value) {
+    Objects.requireNonNull(fieldName, "fieldName");
+    JsonValue previous = this.overlay().set(fieldName, JacksonValueAdapter.adaptNullable(value));
+    this.changed(fieldName);
+    return this.adaptPrevious(previous);
+  }
+
+  /**
+   * Removes a field, equivalent to {@link ObjectNode#remove(String)}.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @return the previous value, {@code null} if none
+   */
+  public JsonNode remove(String fieldName) {
+    Objects.requireNonNull(fieldName, "fieldName");
+    if (!this.current().containsKey(fieldName)) {
+      return null;
+    }
+    JsonValue previous = this.overlay().removeMember(fieldName);
+    this.changed(fieldName);
+    return this.adaptPrevious(previous);
+  }
+
+  /**
+   * Sets a field to a string value.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field, {@code null} for a JSON null
+   * @return this node
+   */
+  public JsonObjectNode put(String fieldName, String value) {
+    return this.putValue(fieldName, value != null ? new ImmutableJsonString(value) : JsonValue.NULL);
+  }
+
+  /**
+   * Sets a field to a number value.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field
+   * @return this node
+   */
+  public JsonObjectNode put(String fieldName, int value) {
+    return this.putValue(fieldName, ImmutableJsonNumber.of(value));
+  }
+
+  /**
+   * Sets a field to a number value.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field
+   * @return this node
+   */
+  public JsonObjectNode put(String fieldName, long value) {
+    return this.putValue(fieldName, ImmutableJsonNumber.of(value));
+  }
+
+  /**
+   * Sets a field to a number value.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field
+   * @return this node
+   */
+  public JsonObjectNode put(String fieldName, double value) {
+    return this.putValue(fieldName, ImmutableJsonNumber.of(value));
+  }
+
+  /**
+   * Sets a field to a number value.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field, {@code null} for a JSON null
+   * @return this node
+   */
+  public JsonObjectNode put(String fieldName, BigDecimal value) {
+    return this.putValue(fieldName, value != null ? ImmutableJsonNumber.of(value) : JsonValue.NULL);
+  }
+
+  /**
+   * Sets a field to a boolean value.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @param value the value of the field
+   * @return this node
+   */
+  public JsonObjectNode put(String fieldName, boolean value) {
+    return this.putValue(fieldName, value ? JsonValue.TRUE : JsonValue.FALSE);
+  }
+
+  /**
+   * Sets a field to a JSON null.
+   *
+   * @param fieldName the name of the field, not {@code null}
+   * @return this node
+   */
+  public JsonObjectNode putNull(String fieldName) {
+    return this.putValue(fieldName, JsonValue.NULL);
   }
 
   @Override
   public JsonObjectNode removeAll() {
-    // JsonValue are immutable, have to create a new one
-    this.jsonObject = Json.createObjectBuilder().build();
+    this.overlay().removeAllMembers();
+    this.children = null;
+    if (this.index != null) {
+      // the index still contains the removed children
+      this.index.invalidate();
+    }
     return this;
   }
 
+  /**
+   * Consistent with the hash code of the equivalent Jackson node.
+   * <p>
+   * Cached as long as the node has not been changed.
+   */
   @Override
   public int hashCode() {
-    return this.jsonObject.hashCode();
+    int hash = this.hash;
+    if (hash == 0) {
+      hash = JsonValueEquality.hashCode(this.jsonObject);
+      if (!this.isMutable()) {
+        // immutable, racy initialization is fine
+        this.hash = hash;
+      }
+    }
+    return hash;
+  }
+
+  private boolean isMutable() {
+    // also true for values changed through another node
+    return this.jsonObject instanceof OverlayJsonObject;
   }
 
   @Override
@@ -106,38 +510,40 @@ final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
 
   @Override
   public void serializeWithType(JsonGenerator g, SerializerProvider ctxt, TypeSerializer typeSer) throws IOException {
-    boolean trimEmptyArray = false;
-    boolean skipNulls = false;
-    if (ctxt != null) {
-      trimEmptyArray = !ctxt.isEnabled(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS);
-      skipNulls = !ctxt.isEnabled(JsonNodeFeature.WRITE_NULL_PROPERTIES);
-    }
-
     WritableTypeId typeIdDef = typeSer.writeTypePrefix(g, typeSer.typeId(this, JsonToken.START_OBJECT));
-
-    if (trimEmptyArray || skipNulls) {
-      JsonpNodeAdapter.serializeFilteredContents(this.jsonObject, g, ctxt, trimEmptyArray, skipNulls);
-    } else {
-      for (Map.Entry<String, JsonValue> en : this.jsonObject.entrySet()) {
-        JsonValue value = en.getValue();
-        g.writeFieldName(en.getKey());
-        JsonpNodeAdapter.serialize(value, g, ctxt);
-      }
-    }
+    SerializationPlan.of(ctxt).serializeMembers(this.jsonObject, g);
     typeSer.writeTypeSuffix(g, typeIdDef);
   }
 
+  @Override
+  public JsonParser traverse() {
+    return new JsonValueParser(this.jsonObject, null);
+  }
+
+  @Override
+  public JsonParser traverse(ObjectCodec codec) {
+    return new JsonValueParser(this.jsonObject, codec);
+  }
+
+  /**
+   * Creates a deep copy in constant time, the immutable JSON-P values are
+   * shared and only changes made through mutation methods are copied.
+   */
   @Override
   public <T extends JsonNode> T deepCopy() {
-    JsonObject copy = Json.createObjectBuilder(this.jsonObject).build();
-    return (T) new JsonObjectNode(copy, this._nodeFactory);
+    JsonObjectNode copy = new JsonObjectNode((JsonObject) JacksonValueAdapter.copyMutable(this.jsonObject), this._nodeFactory, this.memoizeChildren);
+    if (copy.jsonObject instanceof OverlayJsonObject overlay) {
+      // further changes to the copy go into the copied overlay
+      copy.overlay = overlay;
+    }
+    return (T) copy;
   }
 
   @Override
   public JsonNode path(String fieldName) {
     JsonValue child = this.jsonObject.get(fieldName);
     if (child != null) {
-        return JsonpNodeAdapter.adapt(child, this._nodeFactory);
+        return this.adaptChild(fieldName, child);
     }
     return MissingNode.getInstance();
   }
@@ -164,27 +570,27 @@ final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
 
   @Override
   public JsonNode findParent(String fieldName) {
-    return JsonpNodeAdapter.findParent(this.jsonObject, fieldName, this._nodeFactory);
+    return JsonpNodeAdapter.findParent(this.jsonObject, fieldName, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public List<JsonNode> findParents(String fieldName, List<JsonNode> foundSoFar) {
-    return JsonpNodeAdapter.findParents(this.jsonObject, fieldName, foundSoFar, this._nodeFactory);
+    return JsonpNodeAdapter.findParents(this.jsonObject, fieldName, foundSoFar, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public JsonNode findValue(String fieldName) {
-    return JsonpNodeAdapter.findValue(this.jsonObject, fieldName, this._nodeFactory);
+    return JsonpNodeAdapter.findValue(this.jsonObject, fieldName, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public List<JsonNode> findValues(String fieldName, List<JsonNode> foundSoFar) {
-    return JsonpNodeAdapter.findValues(this.jsonObject, fieldName, foundSoFar, this._nodeFactory);
+    return JsonpNodeAdapter.findValues(this.jsonObject, fieldName, foundSoFar, this._nodeFactory, this.memoizeChildren, this.index);
   }
 
   @Override
   public List<String> findValuesAsText(String fieldName, List<String> foundSoFar) {
-    return JsonpNodeAdapter.findValuesAsText(this.jsonObject, fieldName, foundSoFar);
+    return JsonpNodeAdapter.findValuesAsText(this.jsonObject, fieldName, foundSoFar, this.index);
   }
 
   @Override
@@ -192,8 +598,9 @@ final class JsonObjectNode extends ContainerNode<JsonObjectNode> {
     if (o == this) {
       return true;
     }
+    // only equal to adapted nodes so that equals is symmetric
     return (o instanceof JsonObjectNode other)
-        && this.jsonObject.equals(other.jsonObject);
+        && JsonValueEquality.equals(this.jsonObject, other.jsonObject);
   }
 
 }
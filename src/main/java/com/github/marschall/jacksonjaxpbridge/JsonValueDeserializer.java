@@ -0,0 +1,88 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.type.LogicalType;
+
+/**
+ * Deserializes JAX-P {@link JsonValue}s.
+ * <p>
+ * If the parser is backed by JAX-P values these are returned directly,
+ * otherwise the value is built from the tokens by a {@link JsonValueGenerator}.
+ */
+final class JsonValueDeserializer<T extends JsonValue> extends StdDeserializer<T> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final Class<T> valueClass;
+
+  JsonValueDeserializer(Class<T> valueClass) {
+    super(valueClass);
+    this.valueClass = valueClass;
+  }
+
+  @Override
+  public LogicalType logicalType() {
+    return LogicalType.Untyped;
+  }
+
+  @Override
+  public boolean isCachable() {
+    return true;
+  }
+
+  @Override
+  public T getNullValue(DeserializationContext ctxt) {
+    // only a plain JsonValue can hold a JSON null
+    return this.valueClass == JsonValue.class ? this.valueClass.cast(JsonValue.NULL) : null;
+  }
+
+  @Override
+  public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    JsonToken token = p.currentToken();
+    JsonValue value;
+    if (token == JsonToken.FIELD_NAME) {
+      // the start of the object has already been consumed, eg. by polymorphic handling
+      JsonpMetrics.materialized();
+      value = readRemainingObject(p);
+    } else if (p instanceof JsonValueSource source) {
+      value = source.getJsonValue();
+    } else {
+      JsonpMetrics.materialized();
+      JsonValueGenerator generator = new JsonValueGenerator(p.getCodec());
+      generator.copyCurrentStructure(p);
+      value = generator.getValue();
+    }
+    if (!this.valueClass.isInstance(value)) {
+      return ctxt.reportInputMismatch(this, "Cannot deserialize value of type %s from %s",
+          this.valueClass.getName(), value.getValueType());
+    }
+    return this.valueClass.cast(value);
+  }
+
+  private static JsonValue readRemainingObject(JsonParser p) throws IOException {
+    JsonValueGenerator generator = new JsonValueGenerator(p.getCodec());
+    generator.writeStartObject();
+    JsonToken token = p.currentToken();
+    while (token == JsonToken.FIELD_NAME) {
+      generator.copyCurrentStructure(p);
+      token = p.nextToken();
+    }
+    generator.writeEndObject();
+    return generator.getValue();
+  }
+
+  @Override
+  public Object deserializeWithType(JsonParser p, DeserializationContext ctxt, TypeDeserializer typeDeserializer)
+      throws IOException {
+    return typeDeserializer.deserializeTypedFromAny(p, ctxt);
+  }
+
+}
@@ -0,0 +1,329 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+
+/**
+ * Equality and hash codes of JAX-P values with the semantics of the
+ * Jackson nodes they are adapted to.
+ * <p>
+ * Hash codes are the same as the ones of the equivalent
+ * {@link com.fasterxml.jackson.databind.node.ObjectNode} and
+ * {@link com.fasterxml.jackson.databind.node.ArrayNode}. Values are compared
+ * structurally against JAX-P values and Jackson nodes without adapting any
+ * children, identical values are not compared further.
+ * <p>
+ * Adapted nodes are only equal to adapted nodes, Jackson nodes never
+ * consider them equal. Use {@link #equivalent(JsonNode, JsonNode)} to
+ * compare both and {@link #key(JsonNode)} to use both as keys of the
+ * same map or set.
+ */
+public final class JsonValueEquality {
+
+  private JsonValueEquality() {
+    throw new AssertionError("not instantiable");
+  }
+
+  /**
+   * Compares two nodes structurally, no matter whether they are Jackson
+   * nodes, adapted nodes or a mix of both.
+   * <p>
+   * Unlike {@link JsonNode#equals(Object)} an adapted node is equivalent to
+   * a Jackson node with the same structure. Equivalent nodes have the
+   * same hash codes.
+   *
+   * @param a the first node, not {@code null}
+   * @param b the second node, not {@code null}
+   * @return whether both nodes have the same structure and values
+   */
+  public static boolean equivalent(JsonNode a, JsonNode b) {
+    Objects.requireNonNull(a, "a");
+    Objects.requireNonNull(b, "b");
+    if (a == b) {
+      return true;
+    }
+    JsonValue value = JacksonValueAdapter.adapt(a);
+    if (value == null) {
+      // missing node
+      return b.isMissingNode();
+    }
+    return equals(value, b);
+  }
+
+  /**
+   * Returns a key for a node in hash based maps and sets. Keys of
+   * {@link #equivalent(JsonNode, JsonNode) equivalent} nodes are equal, so
+   * Jackson nodes and adapted nodes can be used in the same cache.
+   * <pre><code>
+   * Set&lt;JsonValueEquality.Key&gt; seen = new HashSet&lt;&gt;();
+   * boolean duplicate = !seen.add(JsonValueEquality.key(node));
+   * </code></pre>
+   *
+   * @param node the node, not {@code null}, must not be changed while the
+   *             key is in use
+   * @return the key for the node, not {@code null}
+   */
+  public static Key key(JsonNode node) {
+    return new Key(node);
+  }
+
+  /**
+   * Computes the hash code of the Jackson node a value is adapted to.
+   */
+  static int hashCode(JsonValue value) {
+    return switch (value.getValueType()) {
+      case OBJECT -> hashCode((JsonObject) value);
+      case ARRAY -> hashCode((JsonArray) value);
+      case STRING -> ((JsonString) value).getString().hashCode();
+      case NUMBER -> hashCode((JsonNumber) value);
+      case TRUE -> 3;
+      case FALSE -> 1;
+      case NULL -> JsonNodeType.NULL.ordinal();
+    };
+  }
+
+  /**
+   * Same as {@link java.util.AbstractMap#hashCode()}, used by {@code ObjectNode}.
+   */
+  static int hashCode(JsonObject jsonObject) {
+    int hash = 0;
+    for (Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+      hash += entry.getKey().hashCode() ^ hashCode(entry.getValue());
+    }
+    return hash;
+  }
+
+  /**
+   * Same as {@link java.util.AbstractList#hashCode()}, used by {@code ArrayNode}.
+   */
+  static int hashCode(JsonArray jsonArray) {
+    int hash = 1;
+    for (JsonValue element : jsonArray) {
+      hash = (31 * hash) + hashCode(element);
+    }
+    return hash;
+  }
+
+  static int hashCode(JsonNumber jsonNumber) {
+    return switch (JsonpNodeAdapter.numberType(jsonNumber)) {
+      case INT -> jsonNumber.intValue();
+      case LONG -> Long.hashCode(jsonNumber.longValue());
+      case BIG_INTEGER -> jsonNumber.bigIntegerValue().hashCode();
+      case FLOAT -> Float.hashCode((float) jsonNumber.doubleValue());
+      case DOUBLE, BIG_DECIMAL -> Double.hashCode(jsonNumber.doubleValue());
+    };
+  }
+
+  /**
+   * Compares two JAX-P values like their adapted Jackson nodes.
+   */
+  static boolean equals(JsonValue a, JsonValue b) {
+    if (a == b) {
+      return true;
+    }
+    if (a.getValueType() != b.getValueType()) {
+      return false;
+    }
+    return switch (a.getValueType()) {
+      case OBJECT -> equals((JsonObject) a, (JsonObject) b);
+      case ARRAY -> equals((JsonArray) a, (JsonArray) b);
+      case STRING -> ((JsonString) a).getString().equals(((JsonString) b).getString());
+      case NUMBER -> equals((JsonNumber) a, (JsonNumber) b);
+      case TRUE, FALSE, NULL -> true;
+    };
+  }
+
+  static boolean equals(JsonObject a, JsonObject b) {
+    if (a == b) {
+      return true;
+    }
+    if (a.size() != b.size()) {
+      return false;
+    }
+    for (Entry<String, JsonValue> entry : a.entrySet()) {
+      JsonValue other = b.get(entry.getKey());
+      if ((other == null) || !equals(entry.getValue(), other)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean equals(JsonArray a, JsonArray b) {
+    if (a == b) {
+      return true;
+    }
+    int size = a.size();
+    if (size != b.size()) {
+      return false;
+    }
+    Iterator<JsonValue> otherElements = b.iterator();
+    for (JsonValue element : a) {
+      if (!equals(element, otherElements.next())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean equals(JsonNumber a, JsonNumber b) {
+    NumberType numberType = JsonpNodeAdapter.numberType(a);
+    if (numberType != JsonpNodeAdapter.numberType(b)) {
+      return isDecimal(numberType, JsonpNodeAdapter.numberType(b))
+          && (Double.compare(a.doubleValue(), b.doubleValue()) == 0);
+    }
+    return switch (numberType) {
+      case INT, LONG -> a.longValue() == b.longValue();
+      case BIG_INTEGER -> a.bigIntegerValue().equals(b.bigIntegerValue());
+      case FLOAT, DOUBLE -> Double.compare(a.doubleValue(), b.doubleValue()) == 0;
+      case BIG_DECIMAL -> a.bigDecimalValue().compareTo(b.bigDecimalValue()) == 0;
+    };
+  }
+
+  /**
+   * Whether two different number types are a {@code double} and a
+   * {@code BigDecimal}. Jackson reads decimals as {@code double} by default
+   * while adapted numbers are {@code BigDecimal}, both have the same hash
+   * code so they are compared by their {@code double} value.
+   */
+  private static boolean isDecimal(NumberType a, NumberType b) {
+    return ((a == NumberType.DOUBLE) && (b == NumberType.BIG_DECIMAL))
+        || ((a == NumberType.BIG_DECIMAL) && (b == NumberType.DOUBLE));
+  }
+
+  /**
+   * Compares a JAX-P value with a Jackson node like its adapted Jackson node.
+   */
+  static boolean equals(JsonValue value, JsonNode node) {
+    return switch (value.getValueType()) {
+      case OBJECT -> node.isObject() && equals((JsonObject) value, node);
+      case ARRAY -> node.isArray() && equals((JsonArray) value, node);
+      case STRING -> node.isTextual() && ((JsonString) value).getString().equals(node.textValue());
+      case NUMBER -> node.isNumber() && equals((JsonNumber) value, node);
+      case TRUE -> node.isBoolean() && node.booleanValue();
+      case FALSE -> node.isBoolean() && !node.booleanValue();
+      case NULL -> node.isNull();
+    };
+  }
+
+  /**
+   * Compares a JAX-P object with a Jackson object node.
+   */
+  static boolean equals(JsonObject jsonObject, JsonNode objectNode) {
+    if (objectNode instanceof JsonObjectNode adapted) {
+      return equals(jsonObject, adapted.getJsonObject());
+    }
+    if (jsonObject.size() != objectNode.size()) {
+      return false;
+    }
+    for (Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+      JsonNode other = objectNode.get(entry.getKey());
+      if ((other == null) || !equals(entry.getValue(), other)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares a JAX-P array with a Jackson array node.
+   */
+  static boolean equals(JsonArray jsonArray, JsonNode arrayNode) {
+    if (arrayNode instanceof JsonArrayNode adapted) {
+      return equals(jsonArray, adapted.getJsonArray());
+    }
+    int size = jsonArray.size();
+    if (size != arrayNode.size()) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (!equals(jsonArray.get(i), arrayNode.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares a JAX-P number with a Jackson number node.
+   */
+  static boolean equals(JsonNumber jsonNumber, JsonNode numberNode) {
+    if (numberNode instanceof JsonNumberNode adapted) {
+      return equals(jsonNumber, adapted.getJsonNumber());
+    }
+    NumberType numberType = JsonpNodeAdapter.numberType(jsonNumber);
+    if (numberType != numberNode.numberType()) {
+      return isDecimal(numberType, numberNode.numberType())
+          && (Double.compare(jsonNumber.doubleValue(), numberNode.doubleValue()) == 0);
+    }
+    return switch (numberType) {
+      case INT, LONG -> jsonNumber.longValue() == numberNode.longValue();
+      case BIG_INTEGER -> jsonNumber.bigIntegerValue().equals(numberNode.bigIntegerValue());
+      case FLOAT, DOUBLE -> Double.compare(jsonNumber.doubleValue(), numberNode.doubleValue()) == 0;
+      case BIG_DECIMAL -> jsonNumber.bigDecimalValue().compareTo(numberNode.decimalValue()) == 0;
+    };
+  }
+
+  /**
+   * Wraps a node so that it is equal to the keys of all equivalent nodes.
+   *
+   * @see JsonValueEquality#key(JsonNode)
+   */
+  public static final class Key {
+
+    private final JsonNode node;
+
+    /**
+     * The hash code of the node, the same for equivalent nodes.
+     */
+    private final int hash;
+
+    Key(JsonNode node) {
+      Objects.requireNonNull(node, "node");
+      this.node = node;
+      this.hash = node.hashCode();
+    }
+
+    /**
+     * Returns the node of this key.
+     *
+     * @return the node, not {@code null}
+     */
+    public JsonNode getNode() {
+      return this.node;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      }
+      return (o instanceof Key other)
+          && (this.hash == other.hash)
+          && equivalent(this.node, other.node);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hash;
+    }
+
+    @Override
+    public String toString() {
+      return this.node.toString();
+    }
+
+  }
+
+}
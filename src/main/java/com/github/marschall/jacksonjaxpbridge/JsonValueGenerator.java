@@ -0,0 +1,527 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.json.JsonWriteContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.cfg.PackageVersion;
+
+/**
+ * A {@link JsonGenerator} that builds immutable JAX-P {@link JsonValue}s
+ * directly, without an intermediate {@link JsonNode} tree or JSON text.
+ * <p>
+ * Intended to be passed to {@code ObjectMapper.writeValue(JsonGenerator, Object)}
+ * after which the result is available from {@link #getValue()}.
+ * <pre><code>
+ * JsonValueGenerator generator = new JsonValueGenerator(objectMapper);
+ * objectMapper.writeValue(generator, pojo);
+ * JsonValue jsonValue = generator.getValue();
+ * </code></pre>
+ * <p>
+ * Instances are not thread safe and should be used for a single value only.
+ */
+public final class JsonValueGenerator extends JsonGenerator {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private ObjectCodec codec;
+
+  private int features;
+
+  private boolean closed;
+
+  private JsonWriteContext writeContext;
+
+  /**
+   * The innermost object or array currently being built, {@code null} at the root.
+   */
+  private Frame frame;
+
+  private JsonValue value;
+
+  /**
+   * Constructs a new generator without a codec, such a generator can
+   * not write POJOs.
+   */
+  public JsonValueGenerator() {
+    this(null);
+  }
+
+  /**
+   * Constructs a new generator.
+   *
+   * @param codec the codec used to write POJOs and trees, possibly {@code null}
+   */
+  public JsonValueGenerator(ObjectCodec codec) {
+    this.codec = codec;
+    this.features = JsonGenerator.Feature.collectDefaults();
+    this.writeContext = JsonWriteContext.createRootContext(null);
+  }
+
+  /**
+   * Returns the value built by this generator.
+   *
+   * @return the most recently completed root value, {@code null} if no root
+   *         value has been completed yet
+   */
+  public JsonValue getValue() {
+    return this.value;
+  }
+
+  @Override
+  public JsonGenerator setCodec(ObjectCodec codec) {
+    this.codec = codec;
+    return this;
+  }
+
+  @Override
+  public ObjectCodec getCodec() {
+    return this.codec;
+  }
+
+  @Override
+  public Version version() {
+    return PackageVersion.VERSION;
+  }
+
+  @Override
+  public JsonStreamContext getOutputContext() {
+    return this.writeContext;
+  }
+
+  @Override
+  public Object getOutputTarget() {
+    return null;
+  }
+
+  @Override
+  public JsonGenerator enable(Feature f) {
+    this.features |= f.getMask();
+    return this;
+  }
+
+  @Override
+  public JsonGenerator disable(Feature f) {
+    this.features &= ~f.getMask();
+    return this;
+  }
+
+  @Override
+  public boolean isEnabled(Feature f) {
+    return (this.features & f.getMask()) != 0;
+  }
+
+  @Override
+  public int getFeatureMask() {
+    return this.features;
+  }
+
+  @Override
+  @Deprecated
+  public JsonGenerator setFeatureMask(int values) {
+    this.features = values;
+    return this;
+  }
+
+  @Override
+  public JsonGenerator useDefaultPrettyPrinter() {
+    // no textual output
+    return this;
+  }
+
+  // structure
+
+  @Override
+  public void writeStartArray() throws IOException {
+    this.startArray(new ArrayList<>());
+  }
+
+  @Override
+  public void writeStartArray(Object forValue, int size) throws IOException {
+    this.startArray(new ArrayList<>(size));
+    this.setCurrentValue(forValue);
+  }
+
+  private void startArray(List<JsonValue> elements) throws IOException {
+    this.verifyValueWrite("start an array");
+    this.frame = new ArrayFrame(this.frame, this.writeContext.getCurrentName(), elements);
+    this.writeContext = this.writeContext.createChildArrayContext();
+  }
+
+  @Override
+  public void writeEndArray() throws IOException {
+    if (!this.writeContext.inArray()) {
+      this._reportError("Current context not Array but " + this.writeContext.typeDesc());
+    }
+    this.writeContext = this.writeContext.clearAndGetParent();
+    this.endContainer();
+  }
+
+  @Override
+  public void writeStartObject() throws IOException {
+    this.startObject(new LinkedHashMap<>());
+  }
+
+  @Override
+  public void writeStartObject(Object forValue, int size) throws IOException {
+    // LinkedHashMap uses a load factor of 0.75
+    this.startObject(new LinkedHashMap<>(Math.max((int) (size / 0.75f) + 1, 16)));
+    this.setCurrentValue(forValue);
+  }
+
+  private void startObject(Map<String, JsonValue> members) throws IOException {
+    this.verifyValueWrite("start an object");
+    this.frame = new ObjectFrame(this.frame, this.writeContext.getCurrentName(), members);
+    this.writeContext = this.writeContext.createChildObjectContext();
+  }
+
+  @Override
+  public void writeEndObject() throws IOException {
+    if (!this.writeContext.inObject()) {
+      this._reportError("Current context not Object but " + this.writeContext.typeDesc());
+    }
+    this.writeContext = this.writeContext.clearAndGetParent();
+    this.endContainer();
+  }
+
+  private void endContainer() {
+    Frame completed = this.frame;
+    this.frame = completed.parent;
+    this.addValue(completed.nameInParent, completed.build());
+  }
+
+  @Override
+  public void writeFieldName(String name) throws IOException {
+    if (this.writeContext.writeFieldName(name) == JsonWriteContext.STATUS_EXPECT_VALUE) {
+      this._reportError("Can not write a field name, expecting a value");
+    }
+  }
+
+  @Override
+  public void writeFieldName(SerializableString name) throws IOException {
+    this.writeFieldName(name.getValue());
+  }
+
+  // scalars
+
+  @Override
+  public void writeString(String text) throws IOException {
+    if (text == null) {
+      this.writeNull();
+    } else {
+      this.writeScalar(new ImmutableJsonString(text));
+    }
+  }
+
+  @Override
+  public void writeString(char[] buffer, int offset, int len) throws IOException {
+    this.writeString(new String(buffer, offset, len));
+  }
+
+  @Override
+  public void writeString(SerializableString text) throws IOException {
+    this.writeString(text.getValue());
+  }
+
+  @Override
+  public void writeRawUTF8String(byte[] buffer, int offset, int len) throws IOException {
+    this.writeString(new String(buffer, offset, len, UTF_8));
+  }
+
+  @Override
+  public void writeUTF8String(byte[] buffer, int offset, int len) throws IOException {
+    this.writeString(new String(buffer, offset, len, UTF_8));
+  }
+
+  @Override
+  public void writeRaw(String text) throws IOException {
+    this._reportUnsupportedOperation();
+  }
+
+  @Override
+  public void writeRaw(String text, int offset, int len) throws IOException {
+    this._reportUnsupportedOperation();
+  }
+
+  @Override
+  public void writeRaw(char[] text, int offset, int len) throws IOException {
+    this._reportUnsupportedOperation();
+  }
+
+  @Override
+  public void writeRaw(char c) throws IOException {
+    this._reportUnsupportedOperation();
+  }
+
+  @Override
+  public void writeRawValue(String text) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(text)) {
+      parser.nextToken();
+      this.copyCurrentStructure(parser);
+    }
+  }
+
+  @Override
+  public void writeRawValue(String text, int offset, int len) throws IOException {
+    this.writeRawValue(text.substring(offset, offset + len));
+  }
+
+  @Override
+  public void writeRawValue(char[] text, int offset, int len) throws IOException {
+    this.writeRawValue(new String(text, offset, len));
+  }
+
+  @Override
+  public void writeBinary(Base64Variant bv, byte[] data, int offset, int len) throws IOException {
+    byte[] bytes = data;
+    if ((offset != 0) || (len != data.length)) {
+      bytes = new byte[len];
+      System.arraycopy(data, offset, bytes, 0, len);
+    }
+    this.writeString(bv.encode(bytes));
+  }
+
+  @Override
+  public int writeBinary(Base64Variant bv, InputStream data, int dataLength) throws IOException {
+    byte[] bytes = dataLength < 0 ? data.readAllBytes() : data.readNBytes(dataLength);
+    this.writeBinary(bv, bytes, 0, bytes.length);
+    return bytes.length;
+  }
+
+  @Override
+  public void writeNumber(int v) throws IOException {
+    this.writeScalar(ImmutableJsonNumber.of(v));
+  }
+
+  @Override
+  public void writeNumber(long v) throws IOException {
+    this.writeScalar(ImmutableJsonNumber.of(v));
+  }
+
+  @Override
+  public void writeNumber(BigInteger v) throws IOException {
+    if (v == null) {
+      this.writeNull();
+    } else {
+      this.writeScalar(ImmutableJsonNumber.of(v));
+    }
+  }
+
+  @Override
+  public void writeNumber(double v) throws IOException {
+    if (Double.isFinite(v)) {
+      this.writeScalar(ImmutableJsonNumber.of(v));
+    } else {
+      // JSON-P can not represent NaN and infinity, same as Jackson by default
+      this.writeString(Double.toString(v));
+    }
+  }
+
+  @Override
+  public void writeNumber(float v) throws IOException {
+    if (Float.isFinite(v)) {
+      // go through the String to avoid widening artifacts
+      this.writeScalar(ImmutableJsonNumber.of(new BigDecimal(Float.toString(v))));
+    } else {
+      this.writeString(Float.toString(v));
+    }
+  }
+
+  @Override
+  public void writeNumber(BigDecimal v) throws IOException {
+    if (v == null) {
+      this.writeNull();
+    } else {
+      this.writeScalar(ImmutableJsonNumber.of(v));
+    }
+  }
+
+  @Override
+  public void writeNumber(String encodedValue) throws IOException {
+    if (encodedValue == null) {
+      this.writeNull();
+      return;
+    }
+    BigDecimal decimal;
+    try {
+      decimal = new BigDecimal(encodedValue);
+    } catch (NumberFormatException e) {
+      // NaN and the like
+      this.writeString(encodedValue);
+      return;
+    }
+    this.writeScalar(ImmutableJsonNumber.of(decimal));
+  }
+
+  @Override
+  public void writeBoolean(boolean state) throws IOException {
+    this.writeScalar(state ? JsonValue.TRUE : JsonValue.FALSE);
+  }
+
+  @Override
+  public void writeNull() throws IOException {
+    this.writeScalar(JsonValue.NULL);
+  }
+
+  /**
+   * Writes an already existing JSON-P value, no copy is made.
+   *
+   * @param jsonValue the value to write, not {@code null}
+   * @throws IOException if the value can not be written at the current position
+   */
+  public void writeJsonValue(JsonValue jsonValue) throws IOException {
+    this.writeScalar(jsonValue);
+  }
+
+  @Override
+  public void writeObject(Object pojo) throws IOException {
+    if (pojo == null) {
+      this.writeNull();
+    } else if (pojo instanceof JsonValue jsonValue) {
+      // immutable, can be shared
+      this.writeJsonValue(jsonValue);
+    } else if (this.codec != null) {
+      this.codec.writeValue(this, pojo);
+    } else {
+      this._writeSimpleObject(pojo);
+    }
+  }
+
+  @Override
+  public void writeTree(TreeNode rootNode) throws IOException {
+    if (rootNode == null) {
+      this.writeNull();
+    } else if (rootNode instanceof JsonObjectNode objectNode) {
+      this.writeJsonValue(objectNode.getJsonObject());
+    } else if (rootNode instanceof JsonArrayNode arrayNode) {
+      this.writeJsonValue(arrayNode.getJsonArray());
+    } else if (this.codec != null) {
+      this.codec.writeTree(this, rootNode);
+    } else if (rootNode instanceof JsonNode jsonNode) {
+      jsonNode.serialize(this, null);
+    } else {
+      throw new IllegalStateException("No ObjectCodec defined for the generator, can not serialize TreeNode");
+    }
+  }
+
+  private void writeScalar(JsonValue scalar) throws IOException {
+    this.verifyValueWrite("write a value");
+    this.addValue(this.writeContext.getCurrentName(), scalar);
+  }
+
+  private void verifyValueWrite(String typeMessage) throws IOException {
+    if (this.writeContext.writeValue() == JsonWriteContext.STATUS_EXPECT_NAME) {
+      this._reportError("Can not " + typeMessage + ", expecting field name");
+    }
+  }
+
+  private void addValue(String name, JsonValue jsonValue) {
+    Frame current = this.frame;
+    if (current == null) {
+      this.value = jsonValue;
+    } else {
+      current.add(name, jsonValue);
+    }
+  }
+
+  @Override
+  public void flush() {
+    // nothing to flush
+  }
+
+  @Override
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+  }
+
+  /**
+   * An object or array under construction.
+   */
+  abstract static class Frame {
+
+    final Frame parent;
+
+    /**
+     * The name under which the built value is added to the parent object, if any.
+     */
+    final String nameInParent;
+
+    Frame(Frame parent, String nameInParent) {
+      this.parent = parent;
+      this.nameInParent = nameInParent;
+    }
+
+    abstract void add(String name, JsonValue value);
+
+    abstract JsonValue build();
+
+  }
+
+  static final class ObjectFrame extends Frame {
+
+    private final Map<String, JsonValue> members;
+
+    ObjectFrame(Frame parent, String nameInParent, Map<String, JsonValue> members) {
+      super(parent, nameInParent);
+      this.members = members;
+    }
+
+    @Override
+    void add(String name, JsonValue value) {
+      this.members.put(name, value);
+    }
+
+    @Override
+    JsonValue build() {
+      return new ImmutableJsonObject(this.members);
+    }
+
+  }
+
+  static final class ArrayFrame extends Frame {
+
+    private final List<JsonValue> elements;
+
+    ArrayFrame(Frame parent, String nameInParent, List<JsonValue> elements) {
+      super(parent, nameInParent);
+      this.elements = elements;
+    }
+
+    @Override
+    void add(String name, JsonValue value) {
+      this.elements.add(value);
+    }
+
+    @Override
+    JsonValue build() {
+      return new ImmutableJsonArray(this.elements);
+    }
+
+  }
+
+}
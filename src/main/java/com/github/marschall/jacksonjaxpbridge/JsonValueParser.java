@@ -0,0 +1,498 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.StreamReadCapability;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+import com.fasterxml.jackson.core.util.JacksonFeatureSet;
+import com.fasterxml.jackson.databind.cfg.PackageVersion;
+
+/**
+ * Streams the tokens of a JAX-P {@link JsonValue} tree directly without
+ * adapting any of the values to {@link com.fasterxml.jackson.databind.JsonNode}.
+ */
+final class JsonValueParser extends ParserMinimalBase implements JsonValueSource {
+
+  private ObjectCodec codec;
+
+  /**
+   * Traversal context within the tree, {@code null} once closed.
+   */
+  private Cursor cursor;
+
+  private boolean closed;
+
+  /**
+   * Number type of the current token, lazily computed.
+   */
+  private NumberType numberType;
+
+  JsonValueParser(JsonValue value, ObjectCodec codec) {
+    super(0);
+    Objects.requireNonNull(value, "value");
+    this.codec = codec;
+    this.cursor = new RootCursor(value);
+  }
+
+  @Override
+  public ObjectCodec getCodec() {
+    return this.codec;
+  }
+
+  @Override
+  public void setCodec(ObjectCodec codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public Version version() {
+    return PackageVersion.VERSION;
+  }
+
+  @Override
+  public JacksonFeatureSet<StreamReadCapability> getReadCapabilities() {
+    return DEFAULT_READ_CAPABILITIES;
+  }
+
+  @Override
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      this.cursor = null;
+      this._currToken = null;
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  @Override
+  public JsonToken nextToken() throws IOException {
+    this.numberType = null;
+    if (this.closed) {
+      return null;
+    }
+    JsonToken token = this.cursor.nextToken();
+    this._currToken = token;
+    if (token == null) {
+      this.closed = true;
+      return null;
+    }
+    switch (token) {
+      case START_OBJECT -> this.cursor = new ObjectCursor(this.cursor.currentValue().asJsonObject(), this.cursor);
+      case START_ARRAY -> this.cursor = new ArrayCursor(this.cursor.currentValue().asJsonArray(), this.cursor);
+      case END_OBJECT, END_ARRAY -> this.cursor = this.cursor.getParent();
+      default -> {
+        // scalar or field name, cursor stays
+      }
+    }
+    return token;
+  }
+
+  @Override
+  public JsonParser skipChildren() {
+    // the children are never looked at, simply drop the cursor
+    if (this._currToken == JsonToken.START_OBJECT) {
+      this.cursor = this.cursor.getParent();
+      this._currToken = JsonToken.END_OBJECT;
+    } else if (this._currToken == JsonToken.START_ARRAY) {
+      this.cursor = this.cursor.getParent();
+      this._currToken = JsonToken.END_ARRAY;
+    }
+    return this;
+  }
+
+  @Override
+  public JsonValue getJsonValue() throws IOException {
+    JsonToken token = this._currToken;
+    if ((token == null) || (token == JsonToken.FIELD_NAME) || token.isStructEnd()) {
+      throw this._constructError("Current token (" + token + ") not a value");
+    }
+    if (token.isStructStart()) {
+      // the enclosing cursor still points to the structure
+      JsonValue value = this.cursor.getParent().currentValue();
+      this.skipChildren();
+      return value;
+    }
+    return this.cursor.currentValue();
+  }
+
+  @Override
+  public String getCurrentName() {
+    Cursor context = this.nameContext();
+    return context != null ? context.getCurrentName() : null;
+  }
+
+  @Override
+  public void overrideCurrentName(String name) {
+    Cursor context = this.nameContext();
+    if (context != null) {
+      context.overrideCurrentName(name);
+    }
+  }
+
+  private Cursor nameContext() {
+    Cursor context = this.cursor;
+    if ((context != null) && ((this._currToken == JsonToken.START_OBJECT) || (this._currToken == JsonToken.START_ARRAY))) {
+      return context.getParent();
+    }
+    return context;
+  }
+
+  @Override
+  public JsonStreamContext getParsingContext() {
+    return this.cursor;
+  }
+
+  @Override
+  public JsonLocation getTokenLocation() {
+    return JsonLocation.NA;
+  }
+
+  @Override
+  public JsonLocation getCurrentLocation() {
+    return JsonLocation.NA;
+  }
+
+  @Override
+  public String getText() {
+    JsonToken token = this._currToken;
+    if (token == null) {
+      return null;
+    }
+    return switch (token) {
+      case FIELD_NAME -> this.cursor.getCurrentName();
+      case VALUE_STRING -> ((JsonString) this.cursor.currentValue()).getString();
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> this.cursor.currentValue().toString();
+      default -> token.asString();
+    };
+  }
+
+  @Override
+  public char[] getTextCharacters() {
+    String text = this.getText();
+    return text != null ? text.toCharArray() : null;
+  }
+
+  @Override
+  public int getTextLength() {
+    String text = this.getText();
+    return text != null ? text.length() : 0;
+  }
+
+  @Override
+  public int getTextOffset() {
+    return 0;
+  }
+
+  @Override
+  public boolean hasTextCharacters() {
+    // no efficient access as char[]
+    return false;
+  }
+
+  @Override
+  public NumberType getNumberType() throws IOException {
+    NumberType type = this.numberType;
+    if (type == null) {
+      type = JsonpNodeAdapter.numberType(this.currentNumber());
+      this.numberType = type;
+    }
+    return type;
+  }
+
+  @Override
+  public Number getNumberValue() throws IOException {
+    JsonNumber number = this.currentNumber();
+    return switch (this.getNumberType()) {
+      case INT -> number.intValue();
+      case LONG -> number.longValue();
+      case BIG_INTEGER -> number.bigIntegerValue();
+      default -> number.numberValue();
+    };
+  }
+
+  @Override
+  public int getIntValue() throws IOException {
+    JsonNumber number = this.currentNumber();
+    switch (this.getNumberType()) {
+      case INT -> {
+        return number.intValue();
+      }
+      case LONG, BIG_INTEGER -> {
+        this.reportOverflowInt();
+        return 0;
+      }
+      default -> {
+        double doubleValue = number.doubleValue();
+        if ((doubleValue < Integer.MIN_VALUE) || (doubleValue > Integer.MAX_VALUE)) {
+          this.reportOverflowInt();
+        }
+        return (int) doubleValue;
+      }
+    }
+  }
+
+  @Override
+  public long getLongValue() throws IOException {
+    JsonNumber number = this.currentNumber();
+    switch (this.getNumberType()) {
+      case INT, LONG -> {
+        return number.longValue();
+      }
+      case BIG_INTEGER -> {
+        this.reportOverflowLong();
+        return 0L;
+      }
+      default -> {
+        double doubleValue = number.doubleValue();
+        if ((doubleValue < Long.MIN_VALUE) || (doubleValue > Long.MAX_VALUE)) {
+          this.reportOverflowLong();
+        }
+        return (long) doubleValue;
+      }
+    }
+  }
+
+  @Override
+  public BigInteger getBigIntegerValue() throws IOException {
+    return this.currentNumber().bigIntegerValue();
+  }
+
+  @Override
+  public float getFloatValue() throws IOException {
+    return (float) this.currentNumber().doubleValue();
+  }
+
+  @Override
+  public double getDoubleValue() throws IOException {
+    return this.currentNumber().doubleValue();
+  }
+
+  @Override
+  public BigDecimal getDecimalValue() throws IOException {
+    return this.currentNumber().bigDecimalValue();
+  }
+
+  @Override
+  public Object getEmbeddedObject() {
+    // JSON-P has no embedded objects
+    return null;
+  }
+
+  @Override
+  public byte[] getBinaryValue(Base64Variant b64variant) throws IOException {
+    if (this._currToken != JsonToken.VALUE_STRING) {
+      throw this._constructError("Current token (" + this._currToken + ") not VALUE_STRING, can not access as binary");
+    }
+    try {
+      return b64variant.decode(this.getText());
+    } catch (IllegalArgumentException e) {
+      throw this._constructError(e.getMessage(), e);
+    }
+  }
+
+  private JsonNumber currentNumber() throws IOException {
+    JsonToken token = this._currToken;
+    if ((token != JsonToken.VALUE_NUMBER_INT) && (token != JsonToken.VALUE_NUMBER_FLOAT)) {
+      throw this._constructError("Current token (" + token + ") not numeric, cannot use numeric value accessors");
+    }
+    return (JsonNumber) this.cursor.currentValue();
+  }
+
+  @Override
+  protected void _handleEOF() {
+    this._throwInternal(); // should never get called
+  }
+
+  static JsonToken valueToken(JsonValue value) {
+    return switch (value.getValueType()) {
+      case ARRAY  -> JsonToken.START_ARRAY;
+      case OBJECT  -> JsonToken.START_OBJECT;
+      case STRING -> JsonToken.VALUE_STRING;
+      case NUMBER -> ((JsonNumber) value).isIntegral() ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_NUMBER_FLOAT;
+      case TRUE   -> JsonToken.VALUE_TRUE;
+      case FALSE  -> JsonToken.VALUE_FALSE;
+      case NULL   -> JsonToken.VALUE_NULL;
+    };
+  }
+
+  /**
+   * Position within a {@link JsonValue} tree.
+   */
+  abstract static class Cursor extends JsonStreamContext {
+
+    private final Cursor parent;
+
+    Cursor(int type, Cursor parent) {
+      super(type, -1);
+      this.parent = parent;
+    }
+
+    @Override
+    public final Cursor getParent() {
+      return this.parent;
+    }
+
+    @Override
+    public String getCurrentName() {
+      return null;
+    }
+
+    void overrideCurrentName(String name) {
+      // ignore by default
+    }
+
+    /**
+     * Advances to the next token in this context.
+     *
+     * @return the next token, {@code null} if the end of the input was reached
+     */
+    abstract JsonToken nextToken();
+
+    /**
+     * The value of the most recent value token.
+     *
+     * @return the current value
+     */
+    abstract JsonValue currentValue();
+
+  }
+
+  static final class RootCursor extends Cursor {
+
+    private final JsonValue value;
+
+    private boolean done;
+
+    RootCursor(JsonValue value) {
+      super(TYPE_ROOT, null);
+      this.value = value;
+    }
+
+    @Override
+    JsonToken nextToken() {
+      if (this.done) {
+        return null;
+      }
+      this._index += 1;
+      this.done = true;
+      return valueToken(this.value);
+    }
+
+    @Override
+    JsonValue currentValue() {
+      return this.done ? this.value : null;
+    }
+
+  }
+
+  static final class ArrayCursor extends Cursor {
+
+    private final JsonArray array;
+
+    private final int size;
+
+    ArrayCursor(JsonArray array, Cursor parent) {
+      super(TYPE_ARRAY, parent);
+      this.array = array;
+      this.size = array.size();
+    }
+
+    @Override
+    JsonToken nextToken() {
+      int index = this._index + 1;
+      if (index >= this.size) {
+        this._index = this.size;
+        return JsonToken.END_ARRAY;
+      }
+      this._index = index;
+      return valueToken(this.array.get(index));
+    }
+
+    @Override
+    JsonValue currentValue() {
+      int index = this._index;
+      if ((index < 0) || (index >= this.size)) {
+        return null;
+      }
+      return this.array.get(index);
+    }
+
+  }
+
+  static final class ObjectCursor extends Cursor {
+
+    private final Iterator<Entry<String, JsonValue>> entries;
+
+    private String currentName;
+
+    private JsonValue currentValue;
+
+    /**
+     * Whether the next token is the value of the current entry.
+     */
+    private boolean needValue;
+
+    ObjectCursor(JsonObject object, Cursor parent) {
+      super(TYPE_OBJECT, parent);
+      this.entries = object.entrySet().iterator();
+    }
+
+    @Override
+    public String getCurrentName() {
+      return this.currentName;
+    }
+
+    @Override
+    void overrideCurrentName(String name) {
+      this.currentName = name;
+    }
+
+    @Override
+    JsonToken nextToken() {
+      if (this.needValue) {
+        this.needValue = false;
+        return valueToken(this.currentValue);
+      }
+      if (!this.entries.hasNext()) {
+        this.currentName = null;
+        this.currentValue = null;
+        return JsonToken.END_OBJECT;
+      }
+      Entry<String, JsonValue> entry = this.entries.next();
+      this._index += 1;
+      this.currentName = entry.getKey();
+      this.currentValue = entry.getValue();
+      this.needValue = true;
+      return JsonToken.FIELD_NAME;
+    }
+
+    @Override
+    JsonValue currentValue() {
+      return this.currentValue;
+    }
+
+  }
+
+}
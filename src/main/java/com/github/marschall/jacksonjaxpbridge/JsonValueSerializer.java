@@ -0,0 +1,48 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serializes JAX-P {@link JsonValue}s the same way adapted nodes are serialized.
+ */
+final class JsonValueSerializer extends StdSerializer<JsonValue> {
+
+  private static final long serialVersionUID = 1L;
+
+  JsonValueSerializer() {
+    super(JsonValue.class);
+  }
+
+  @Override
+  public boolean isEmpty(SerializerProvider provider, JsonValue value) {
+    return switch (value.getValueType()) {
+      case OBJECT -> ((JsonObject) value).isEmpty();
+      case ARRAY -> ((JsonArray) value).isEmpty();
+      default -> false;
+    };
+  }
+
+  @Override
+  public void serialize(JsonValue value, JsonGenerator g, SerializerProvider provider) throws IOException {
+    JsonpNodeAdapter.serialize(value, g, provider);
+  }
+
+  @Override
+  public void serializeWithType(JsonValue value, JsonGenerator g, SerializerProvider provider, TypeSerializer typeSer)
+      throws IOException {
+    WritableTypeId typeId = typeSer.writeTypePrefix(g, typeSer.typeId(value, JsonValueParser.valueToken(value)));
+    this.serialize(value, g, provider);
+    typeSer.writeTypeSuffix(g, typeId);
+  }
+
+}
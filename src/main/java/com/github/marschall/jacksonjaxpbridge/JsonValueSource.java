@@ -0,0 +1,22 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+
+import javax.json.JsonValue;
+
+/**
+ * A parser that can hand out the JAX-P value of the current token without
+ * building it again from tokens.
+ */
+interface JsonValueSource {
+
+  /**
+   * Returns the value of the current token, for objects and arrays the
+   * parser is positioned at the corresponding end token afterwards.
+   *
+   * @return the current value, not {@code null}
+   * @throws IOException if the current token is not a value
+   */
+  JsonValue getJsonValue() throws IOException;
+
+}
@@ -0,0 +1,276 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+
+/**
+ * Iterative depth first search for the fields with a given name in a
+ * JAX-P value.
+ * <p>
+ * The order in which matches are reported is the same as with the
+ * recursive {@code find*} methods of Jackson's {@code ObjectNode}, the
+ * value of a matching field is not searched any further. Instead of
+ * the call stack an explicit stack is used so that arbitrarily deep
+ * values can be searched.
+ * <p>
+ * Every thread reuses its own instance, searches only allocate the
+ * iterators of the objects they visit.
+ */
+final class JsonValueTraversal {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * Stacks that grew larger are not kept after a search.
+   */
+  private static final int MAXIMUM_RETAINED_CAPACITY = 1024;
+
+  private static final ThreadLocal<JsonValueTraversal> CURRENT = ThreadLocal.withInitial(JsonValueTraversal::new);
+
+  private String fieldName;
+
+  /**
+   * Whether a search is in progress, a visitor may start another search.
+   */
+  private boolean inUse;
+
+  // the stack as parallel arrays so that entering a level does not allocate
+
+  private JsonValue[] containers;
+
+  /**
+   * Entry iterators of objects, {@code null} for arrays.
+   */
+  private Iterator<Entry<String, JsonValue>>[] entries;
+
+  /**
+   * Next index of arrays.
+   */
+  private int[] indices;
+
+  /**
+   * Whether an object contains the field name at all, avoids comparing every key.
+   */
+  private boolean[] containsFieldName;
+
+  private int depth;
+
+  private JsonValueTraversal() {
+    this.allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    this.containers = new JsonValue[capacity];
+    this.entries = newEntryIterators(capacity);
+    this.indices = new int[capacity];
+    this.containsFieldName = new boolean[capacity];
+  }
+
+  /**
+   * Creates an array for the entry iterators of a stack.
+   */
+  @SuppressWarnings("unchecked")
+  static Iterator<Entry<String, JsonValue>>[] newEntryIterators(int capacity) {
+    // arrays of a generic type can not be created directly
+    return (Iterator<Entry<String, JsonValue>>[]) new Iterator<?>[capacity];
+  }
+
+  /**
+   * Returns an iterator over the members of an object, avoids the
+   * unmodifiable wrappers of our own objects.
+   */
+  static Iterator<Entry<String, JsonValue>> members(JsonObject object) {
+    if (object instanceof ImmutableJsonObject immutable) {
+      return immutable.memberIterator();
+    }
+    return object.entrySet().iterator();
+  }
+
+  /**
+   * Called for every field with a matching name.
+   */
+  @FunctionalInterface
+  interface Visitor {
+
+    /**
+     * Visits a matching field.
+     *
+     * @param parent the object containing the field
+     * @param value the value of the field
+     * @return {@code true} if the traversal should terminate
+     */
+    boolean visit(JsonObject parent, JsonValue value);
+
+  }
+
+  /**
+   * Searches a value for fields with a matching name.
+   *
+   * @param root the value to search
+   * @param fieldName the name of the fields to search
+   * @param visitor the visitor to call for every match
+   * @return {@code true} if the traversal was terminated by the visitor
+   */
+  static boolean traverse(JsonValue root, String fieldName, Visitor visitor) {
+    Objects.requireNonNull(fieldName, "fieldName");
+    JsonValueTraversal traversal = CURRENT.get();
+    if (traversal.inUse) {
+      traversal = new JsonValueTraversal();
+    }
+    traversal.inUse = true;
+    traversal.fieldName = fieldName;
+    try {
+      return traversal.traverse(root, visitor);
+    } finally {
+      traversal.release();
+    }
+  }
+
+  private boolean traverse(JsonValue root, Visitor visitor) {
+    this.depth = 0;
+    this.pushIfContainer(root);
+    while (this.depth > 0) {
+      int top = this.depth - 1;
+      JsonValue container = this.containers[top];
+      JsonValue child;
+      Iterator<Entry<String, JsonValue>> iterator = this.entries[top];
+      if (iterator == null) {
+        JsonArray array = (JsonArray) container;
+        int index = this.indices[top];
+        if (index >= array.size()) {
+          this.pop();
+          continue;
+        }
+        this.indices[top] = index + 1;
+        child = array.get(index);
+      } else {
+        if (!iterator.hasNext()) {
+          this.pop();
+          continue;
+        }
+        Entry<String, JsonValue> entry = iterator.next();
+        child = entry.getValue();
+        if (this.containsFieldName[top] && this.fieldName.equals(entry.getKey())) {
+          if (visitor.visit((JsonObject) container, child)) {
+            return true;
+          }
+          continue;
+        }
+      }
+      this.pushIfContainer(child);
+    }
+    return false;
+  }
+
+  private void pushIfContainer(JsonValue value) {
+    ValueType valueType = value.getValueType();
+    if (valueType == ValueType.OBJECT) {
+      JsonObject object = (JsonObject) value;
+      if (object.isEmpty()) {
+        return;
+      }
+      int top = this.push(value);
+      this.entries[top] = members(object);
+      this.containsFieldName[top] = object.containsKey(this.fieldName);
+    } else if ((valueType == ValueType.ARRAY) && !((JsonArray) value).isEmpty()) {
+      int top = this.push(value);
+      this.entries[top] = null;
+      this.indices[top] = 0;
+    }
+  }
+
+  private int push(JsonValue container) {
+    int top = this.depth;
+    if (top == this.containers.length) {
+      this.grow();
+    }
+    this.containers[top] = container;
+    this.depth = top + 1;
+    return top;
+  }
+
+  private void pop() {
+    int top = this.depth - 1;
+    // allow values to be collected
+    this.containers[top] = null;
+    this.entries[top] = null;
+    this.depth = top;
+  }
+
+  private void release() {
+    if (this.containers.length > MAXIMUM_RETAINED_CAPACITY) {
+      this.allocate(INITIAL_CAPACITY);
+    } else {
+      // allow values to be collected
+      Arrays.fill(this.containers, 0, this.depth, null);
+      Arrays.fill(this.entries, 0, this.depth, null);
+    }
+    this.depth = 0;
+    this.fieldName = null;
+    this.inUse = false;
+  }
+
+  private void grow() {
+    int capacity = this.containers.length * 2;
+    this.containers = Arrays.copyOf(this.containers, capacity);
+    this.entries = Arrays.copyOf(this.entries, capacity);
+    this.indices = Arrays.copyOf(this.indices, capacity);
+    this.containsFieldName = Arrays.copyOf(this.containsFieldName, capacity);
+  }
+
+  /**
+   * Remembers the first match and terminates the traversal.
+   */
+  static final class FirstMatch implements Visitor {
+
+    JsonObject parent;
+
+    JsonValue value;
+
+    @Override
+    public boolean visit(JsonObject parent, JsonValue value) {
+      this.parent = parent;
+      this.value = value;
+      return true;
+    }
+
+  }
+
+  /**
+   * Collects all matches into a lazily created list.
+   *
+   * @param <T> the element type of the list
+   */
+  static final class Collector<T> implements Visitor {
+
+    private final BiFunction<JsonObject, JsonValue, T> mapper;
+
+    List<T> result;
+
+    Collector(List<T> foundSoFar, BiFunction<JsonObject, JsonValue, T> mapper) {
+      this.result = foundSoFar;
+      this.mapper = mapper;
+    }
+
+    @Override
+    public boolean visit(JsonObject parent, JsonValue value) {
+      if (this.result == null) {
+        this.result = new ArrayList<>();
+      }
+      this.result.add(this.mapper.apply(parent, value));
+      return false;
+    }
+
+  }
+
+}
@@ -0,0 +1,40 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the adaptation of a JSON-P value to a Jackson
+ * node.
+ * <p>
+ * Only the adaptation of the root is recorded. Lazily adapted children
+ * are not walked, so the node count and depth are only known for eager
+ * adaptation.
+ */
+@Name("com.github.marschall.jacksonjaxpbridge.Adapt")
+@Label("JSON-P Adapt")
+@Category("Jackson JAX-P Bridge")
+@Description("Adaptation of a JSON-P value to a Jackson node")
+final class JsonpAdaptEvent extends jdk.jfr.Event {
+
+  @Label("Value Type")
+  String valueType;
+
+  @Label("Size")
+  @Description("Number of members or elements of the root")
+  int size;
+
+  @Label("Eager")
+  boolean eager;
+
+  @Label("Node Count")
+  @Description("Number of adapted nodes, 0 for lazy adaptation")
+  int nodeCount;
+
+  @Label("Depth")
+  @Description("Maximum nesting depth, 0 for lazy adaptation")
+  int depth;
+
+}
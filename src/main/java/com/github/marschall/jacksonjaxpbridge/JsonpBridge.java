@@ -0,0 +1,515 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ContainerNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Configured entry point to the bridge.
+ * <p>
+ * Carries the options that trade memory for speed so that they can be
+ * chosen once per use case instead of once per call.
+ * <pre><code>
+ * JsonpBridge requestPath = JsonpBridge.builder()
+ *     .eager(true)
+ *     .scalarCache(4096, 16)
+ *     .build();
+ * JsonpBridge batch = JsonpBridge.builder()
+ *     .maxDepth(64)
+ *     .build();
+ * </code></pre>
+ * <p>
+ * The static methods of {@link JsonpNodeAdapter} and
+ * {@link JacksonValueAdapter} behave like {@link #getDefault()}.
+ * Instances are immutable and thread safe.
+ */
+public final class JsonpBridge {
+
+  private static final JsonpBridge DEFAULT = builder().build();
+
+  private final JsonNodeFactory nodeFactory;
+
+  private final boolean eager;
+
+  private final boolean memoizeChildren;
+
+  private final boolean indexFieldNames;
+
+  private final boolean decimalsAsDouble;
+
+  private final int maxDepth;
+
+  JsonpBridge(Builder builder) {
+    this.nodeFactory = builder.nodeFactory;
+    this.eager = builder.eager;
+    this.memoizeChildren = builder.memoizeChildren;
+    this.indexFieldNames = builder.indexFieldNames;
+    this.decimalsAsDouble = builder.decimalsAsDouble;
+    this.maxDepth = builder.maxDepth;
+  }
+
+  /**
+   * Returns the bridge with the default options: lazy adaptation without
+   * memoization, index or scalar cache, exact decimals and no depth limit.
+   *
+   * @return the default bridge, not {@code null}
+   */
+  public static JsonpBridge getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Creates a new builder with the default options.
+   *
+   * @return the new builder, not {@code null}
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the node factory used for adapted nodes.
+   *
+   * @return the node factory, not {@code null}
+   */
+  public JsonNodeFactory getNodeFactory() {
+    return this.nodeFactory;
+  }
+
+  /**
+   * Adapts a JSON-P value to a Jackson node.
+   * <p>
+   * With lazy adaptation children are adapted on access. With eager
+   * adaptation a Jackson tree is built in a single pass, it can be walked
+   * any number of times and from several threads without further
+   * adaptation.
+   *
+   * @param value the value to adapt, not {@code null}
+   * @return the adapted node, not {@code null}
+   * @throws IllegalArgumentException if the value is nested deeper than
+   *                                  the maximum depth during eager adaptation
+   */
+  public JsonNode adapt(JsonValue value) {
+    Objects.requireNonNull(value, "value");
+    if (this.eager) {
+      return this.materializeRoot(value);
+    }
+    return JsonpNodeAdapter.adaptRoot(value, this.nodeFactory, this.memoizeChildren,
+        this.indexFieldNames ? new FieldNameIndex(value) : null);
+  }
+
+  private JsonNode materializeRoot(JsonValue value) {
+    JsonpMetrics.materialized();
+    JsonpAdaptEvent event = new JsonpAdaptEvent();
+    if (!event.isEnabled()) {
+      return this.materialize(value, null);
+    }
+    WalkStatistics statistics = new WalkStatistics();
+    event.begin();
+    JsonNode materialized = this.materialize(value, statistics);
+    event.end();
+    if (event.shouldCommit()) {
+      event.valueType = value.getValueType().name();
+      event.size = JsonpNodeAdapter.size(value);
+      event.eager = true;
+      event.nodeCount = statistics.nodeCount;
+      event.depth = statistics.maxDepth;
+      event.commit();
+    }
+    return materialized;
+  }
+
+  @SuppressWarnings("unchecked")
+  private JsonNode materialize(JsonValue value, WalkStatistics statistics) {
+    // iterative so that deeply nested values do not overflow the stack
+    Deque<Frame> stack = new ArrayDeque<>();
+    JsonNode root = this.materialize(value, 0, stack, statistics);
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (!frame.children().hasNext()) {
+        stack.pop();
+        continue;
+      }
+      int depth = frame.depth() + 1;
+      if (frame.node() instanceof ObjectNode objectNode) {
+        Entry<String, JsonValue> member = (Entry<String, JsonValue>) frame.children().next();
+        objectNode.set(member.getKey(), this.materialize(member.getValue(), depth, stack, statistics));
+      } else {
+        ArrayNode arrayNode = (ArrayNode) frame.node();
+        arrayNode.add(this.materialize((JsonValue) frame.children().next(), depth, stack, statistics));
+      }
+    }
+    return root;
+  }
+
+  /**
+   * Materializes a single value, objects and arrays are returned empty and
+   * pushed on the stack to be filled later.
+   */
+  private JsonNode materialize(JsonValue value, int depth, Deque<Frame> stack, WalkStatistics statistics) {
+    if (statistics != null) {
+      statistics.visit(depth);
+    }
+    return switch (value.getValueType()) {
+      case ARRAY  -> {
+        this.checkDepth(depth);
+        JsonArray jsonArray = (JsonArray) value;
+        ArrayNode arrayNode = this.nodeFactory.arrayNode(jsonArray.size());
+        stack.push(new Frame(arrayNode, jsonArray.iterator(), depth));
+        yield arrayNode;
+      }
+      case OBJECT -> {
+        this.checkDepth(depth);
+        ObjectNode objectNode = this.nodeFactory.objectNode();
+        stack.push(new Frame(objectNode, ((JsonObject) value).entrySet().iterator(), depth));
+        yield objectNode;
+      }
+      case STRING -> this.nodeFactory.textNode(((JsonString) value).getString());
+      case NUMBER -> this.materializeNumber((JsonNumber) value);
+      case TRUE   -> this.nodeFactory.booleanNode(true);
+      case FALSE  -> this.nodeFactory.booleanNode(false);
+      case NULL   -> this.nodeFactory.nullNode();
+    };
+  }
+
+  private JsonNode materializeNumber(JsonNumber value) {
+    return switch (JsonpNodeAdapter.numberType(value)) {
+      case INT -> this.nodeFactory.numberNode(value.intValue());
+      case LONG -> this.nodeFactory.numberNode(value.longValue());
+      case BIG_INTEGER -> this.nodeFactory.numberNode(value.bigIntegerValue());
+      case FLOAT, DOUBLE -> this.nodeFactory.numberNode(value.doubleValue());
+      case BIG_DECIMAL -> this.decimalsAsDouble
+          ? this.nodeFactory.numberNode(value.doubleValue())
+          : this.nodeFactory.numberNode(value.bigDecimalValue());
+    };
+  }
+
+  private void checkDepth(int depth) {
+    if (depth >= this.maxDepth) {
+      throw new IllegalArgumentException("Maximum nesting depth of " + this.maxDepth + " exceeded");
+    }
+  }
+
+  /**
+   * Adapts a Jackson node to a JSON-P value.
+   *
+   * @param node the node to adapt, not {@code null}
+   * @param codec the codec used to materialize the values of POJO nodes,
+   *              possibly {@code null}
+   * @return the adapted value, {@code null} for a missing node
+   * @see JacksonValueAdapter#adapt(JsonNode, ObjectCodec)
+   */
+  public JsonValue adapt(JsonNode node, ObjectCodec codec) {
+    return JacksonValueAdapter.adapt(node, codec);
+  }
+
+  /**
+   * Writes a JSON-P value to a Jackson generator.
+   *
+   * @param value the value to write, not {@code null}
+   * @param g the generator to write to, not {@code null}
+   * @param provider the provider with the serialization features,
+   *                 possibly {@code null}
+   * @throws IOException if writing fails or the value is nested deeper
+   *                     than the maximum depth
+   */
+  public void serialize(JsonValue value, JsonGenerator g, SerializerProvider provider) throws IOException {
+    Objects.requireNonNull(value, "value");
+    Objects.requireNonNull(g, "g");
+    this.plan(provider).serialize(value, g);
+  }
+
+  /**
+   * Resolves the serialization features of a provider for this bridge.
+   */
+  SerializationPlan plan(SerializerProvider provider) {
+    return SerializationPlan.of(provider).withMaxDepth(this.maxDepth);
+  }
+
+  /**
+   * Creates a parser that streams the tokens of a JSON-P value.
+   *
+   * @param value the value to stream, not {@code null}
+   * @param codec the codec for the parser, possibly {@code null}
+   * @return the parser, not {@code null}
+   */
+  public JsonParser parser(JsonValue value, ObjectCodec codec) {
+    Objects.requireNonNull(value, "value");
+    return new JsonValueParser(value, codec);
+  }
+
+  /**
+   * Creates a parser that pulls its tokens from a streaming JSON-P parser.
+   *
+   * @param parser the JSON-P parser to read from, not {@code null}
+   * @param codec the codec for the parser, possibly {@code null}
+   * @return the parser, not {@code null}
+   */
+  public JsonParser parser(javax.json.stream.JsonParser parser, ObjectCodec codec) {
+    Objects.requireNonNull(parser, "parser");
+    return new JsonpParserAdapter(parser, codec);
+  }
+
+  /**
+   * Adapts a Jackson parser to a streaming JSON-P parser.
+   *
+   * @param parser the Jackson parser to read from, not {@code null}
+   * @return the JSON-P parser, not {@code null}
+   */
+  public javax.json.stream.JsonParser parser(JsonParser parser) {
+    Objects.requireNonNull(parser, "parser");
+    return new JacksonParserAdapter(parser);
+  }
+
+  /**
+   * Creates a generator that builds a JSON-P value.
+   *
+   * @param codec the codec for writing POJOs, possibly {@code null}
+   * @return the generator, not {@code null}
+   * @see JsonValueGenerator#getValue()
+   */
+  public JsonValueGenerator generator(ObjectCodec codec) {
+    return new JsonValueGenerator(codec);
+  }
+
+  /**
+   * Binds a JSON-P value using an {@link ObjectReader} by streaming its tokens.
+   *
+   * @param <T> the type of the bound value
+   * @param reader the reader to use, not {@code null}
+   * @param value the value to bind, not {@code null}
+   * @return the bound value
+   * @throws IOException if binding fails
+   */
+  public <T> T readValue(ObjectReader reader, JsonValue value) throws IOException {
+    Objects.requireNonNull(reader, "reader");
+    try (JsonParser parser = this.parser(value, reader)) {
+      return reader.readValue(parser);
+    }
+  }
+
+  /**
+   * Binds a batch of JSON-P values using an {@link ObjectReader} by
+   * streaming their tokens.
+   * <p>
+   * A reader created with a value type resolves its root deserializer
+   * once and reuses it for every element. An element that can not be bound
+   * does not abort the batch, its exception is captured in the result.
+   *
+   * @param <T> the type of the bound values
+   * @param reader the reader to use, not {@code null}
+   * @param values the values to bind, not {@code null}
+   * @return one result per value in the same order, not {@code null}
+   * @see JsonpParallel#readAll(ObjectReader, List)
+   */
+  public <T> List<BindingResult<T>> readAll(ObjectReader reader, List<? extends JsonValue> values) {
+    Objects.requireNonNull(reader, "reader");
+    Objects.requireNonNull(values, "values");
+    List<BindingResult<T>> results = new ArrayList<>(values.size());
+    this.readAll(reader, values, 0, results);
+    return results;
+  }
+
+  /**
+   * Binds a range of a batch and adds the results.
+   */
+  <T> void readAll(ObjectReader reader, List<? extends JsonValue> values, int offset, List<BindingResult<T>> results) {
+    for (int i = 0; i < values.size(); i++) {
+      int index = offset + i;
+      try {
+        results.add(BindingResult.success(index, this.readValue(reader, values.get(i))));
+      } catch (IOException | RuntimeException e) {
+        results.add(BindingResult.failure(index, e));
+      }
+    }
+  }
+
+  /**
+   * Converts a value to JSON-P in a single pass.
+   *
+   * @param writer the writer to use, not {@code null}
+   * @param value the value to convert, possibly {@code null}
+   * @return the converted value, not {@code null}
+   * @throws IOException if serialization fails
+   */
+  public JsonValue writeValue(ObjectWriter writer, Object value) throws IOException {
+    Objects.requireNonNull(writer, "writer");
+    JsonValueGenerator generator = this.generator(null);
+    writer.writeValue(generator, value);
+    return generator.getValue();
+  }
+
+  @Override
+  public String toString() {
+    return "JsonpBridge[eager=" + this.eager
+        + ", memoizeChildren=" + this.memoizeChildren
+        + ", indexFieldNames=" + this.indexFieldNames
+        + ", decimalsAsDouble=" + this.decimalsAsDouble
+        + ", maxDepth=" + this.maxDepth
+        + ", nodeFactory=" + this.nodeFactory.getClass().getSimpleName() + ']';
+  }
+
+  /**
+   * An object or array that is being materialized with its remaining
+   * members or elements.
+   */
+  record Frame(ContainerNode<?> node, Iterator<?> children, int depth) {
+
+  }
+
+  /**
+   * Builds {@link JsonpBridge} instances.
+   * <p>
+   * Builders are not thread safe and can be reused.
+   */
+  public static final class Builder {
+
+    private JsonNodeFactory nodeFactory;
+
+    private boolean eager;
+
+    private boolean memoizeChildren;
+
+    private boolean indexFieldNames;
+
+    private boolean decimalsAsDouble;
+
+    private int maxDepth;
+
+    Builder() {
+      this.nodeFactory = JsonNodeFactory.instance;
+      this.maxDepth = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets the node factory for scalar and eagerly adapted nodes, the
+     * default is {@link JsonNodeFactory#instance}.
+     *
+     * @param nodeFactory the node factory, not {@code null}
+     * @return this builder
+     */
+    public Builder nodeFactory(JsonNodeFactory nodeFactory) {
+      Objects.requireNonNull(nodeFactory, "nodeFactory");
+      this.nodeFactory = nodeFactory;
+      return this;
+    }
+
+    /**
+     * Shares scalar nodes of repetitive values, replaces the node factory.
+     *
+     * @param maximumSize the maximum number of strings to cache, positive
+     * @param maximumLength the maximum length of a string to be cached, positive
+     * @return this builder
+     * @see CachingJsonNodeFactory
+     */
+    public Builder scalarCache(int maximumSize, int maximumLength) {
+      this.nodeFactory = new CachingJsonNodeFactory(maximumSize, maximumLength);
+      return this;
+    }
+
+    /**
+     * Sets whether values are adapted to a Jackson tree in a single pass
+     * instead of lazily, the default is {@code false}.
+     *
+     * @param eager whether values are adapted eagerly
+     * @return this builder
+     */
+    public Builder eager(boolean eager) {
+      this.eager = eager;
+      return this;
+    }
+
+    /**
+     * Sets whether lazily adapted objects and arrays memoize their adapted
+     * children, the default is {@code false}.
+     *
+     * @param memoizeChildren whether children are memoized
+     * @return this builder
+     * @see JsonpNodeAdapter#adapt(JsonValue, JsonNodeFactory, boolean)
+     */
+    public Builder memoizeChildren(boolean memoizeChildren) {
+      this.memoizeChildren = memoizeChildren;
+      return this;
+    }
+
+    /**
+     * Sets whether field names of lazily adapted values are indexed for
+     * searches, the default is {@code false}.
+     *
+     * @param indexFieldNames whether field names are indexed
+     * @return this builder
+     * @see JsonpNodeAdapter#adapt(JsonValue, JsonNodeFactory, boolean, boolean)
+     */
+    public Builder indexFieldNames(boolean indexFieldNames) {
+      this.indexFieldNames = indexFieldNames;
+      return this;
+    }
+
+    /**
+     * Sets whether eagerly adapted decimals are {@code double} instead of
+     * {@code BigDecimal} nodes, the default is {@code false}.
+     * <p>
+     * {@code double} nodes are smaller and faster but may lose precision.
+     *
+     * @param decimalsAsDouble whether decimals are adapted to {@code double}
+     * @return this builder
+     */
+    public Builder decimalsAsDouble(boolean decimalsAsDouble) {
+      this.decimalsAsDouble = decimalsAsDouble;
+      return this;
+    }
+
+    /**
+     * Sets the maximum nesting depth of objects and arrays for eager
+     * adaptation and serialization, unlimited by default.
+     * <p>
+     * The limit only applies to the methods of the bridge. Lazily adapted
+     * nodes do not carry it, an {@code ObjectMapper} writes them without a
+     * limit.
+     *
+     * @param maxDepth the maximum depth, positive
+     * @return this builder
+     */
+    public Builder maxDepth(int maxDepth) {
+      if (maxDepth < 1) {
+        throw new IllegalArgumentException("maxDepth must be positive");
+      }
+      this.maxDepth = maxDepth;
+      return this;
+    }
+
+    /**
+     * Builds a bridge with the current options.
+     *
+     * @return the new bridge, not {@code null}
+     */
+    public JsonpBridge build() {
+      return new JsonpBridge(this);
+    }
+
+  }
+
+}
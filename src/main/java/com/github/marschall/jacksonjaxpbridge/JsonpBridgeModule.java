@@ -0,0 +1,43 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonStructure;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module for properties of JAX-P types like {@link JsonValue} or
+ * {@link JsonObject}.
+ * <p>
+ * Values are serialized without intermediate copies. When binding from an
+ * adapted JAX-P value, for example through
+ * {@link JsonpNodeAdapter#readValue(com.fasterxml.jackson.databind.ObjectReader, JsonValue)},
+ * the original values are assigned as is. Otherwise values are built
+ * directly from the tokens.
+ * <pre><code>
+ * ObjectMapper objectMapper = new ObjectMapper().registerModule(new JsonpBridgeModule());
+ * </code></pre>
+ */
+public final class JsonpBridgeModule extends SimpleModule {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Constructs a new module.
+   */
+  public JsonpBridgeModule() {
+    super(JsonpBridgeModule.class.getSimpleName());
+    this.addSerializer(JsonValue.class, new JsonValueSerializer());
+    this.addDeserializer(JsonValue.class, new JsonValueDeserializer<>(JsonValue.class));
+    this.addDeserializer(JsonStructure.class, new JsonValueDeserializer<>(JsonStructure.class));
+    this.addDeserializer(JsonObject.class, new JsonValueDeserializer<>(JsonObject.class));
+    this.addDeserializer(JsonArray.class, new JsonValueDeserializer<>(JsonArray.class));
+    this.addDeserializer(JsonString.class, new JsonValueDeserializer<>(JsonString.class));
+    this.addDeserializer(JsonNumber.class, new JsonValueDeserializer<>(JsonNumber.class));
+  }
+
+}
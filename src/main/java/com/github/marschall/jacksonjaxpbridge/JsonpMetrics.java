@@ -0,0 +1,190 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide counters of the work done by the bridge.
+ * <p>
+ * Counting is disabled by default, when disabled the cost on the hot path
+ * is a single field read. The counters can be polled, for example by a
+ * Micrometer gauge, or the instance can be registered as an MXBean.
+ * <pre><code>
+ * JsonpMetrics metrics = JsonpMetrics.getInstance();
+ * metrics.setEnabled(true);
+ * ManagementFactory.getPlatformMBeanServer()
+ *     .registerMBean(metrics, new ObjectName("com.github.marschall.jacksonjaxpbridge:type=JsonpMetrics"));
+ * </code></pre>
+ * <p>
+ * Durations, sizes and depths of individual operations are recorded as
+ * Flight Recorder events instead.
+ */
+public final class JsonpMetrics implements JsonpMetricsMXBean {
+
+  private static final JsonpMetrics INSTANCE = new JsonpMetrics();
+
+  private volatile boolean enabled;
+
+  private final LongAdder adaptations;
+
+  private final LongAdder materializations;
+
+  private final LongAdder cacheHits;
+
+  private final LongAdder cacheMisses;
+
+  private final LongAdder bytesWritten;
+
+  private JsonpMetrics() {
+    this.adaptations = new LongAdder();
+    this.materializations = new LongAdder();
+    this.cacheHits = new LongAdder();
+    this.cacheMisses = new LongAdder();
+    this.bytesWritten = new LongAdder();
+  }
+
+  /**
+   * Returns the only instance.
+   *
+   * @return the only instance, not {@code null}
+   */
+  public static JsonpMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  static void adapted() {
+    if (INSTANCE.enabled) {
+      INSTANCE.adaptations.increment();
+    }
+  }
+
+  static void materialized() {
+    if (INSTANCE.enabled) {
+      INSTANCE.materializations.increment();
+    }
+  }
+
+  static void cacheHit() {
+    if (INSTANCE.enabled) {
+      INSTANCE.cacheHits.increment();
+    }
+  }
+
+  static void cacheMiss() {
+    if (INSTANCE.enabled) {
+      INSTANCE.cacheMisses.increment();
+    }
+  }
+
+  static void written(long bytes) {
+    if (INSTANCE.enabled) {
+      INSTANCE.bytesWritten.add(bytes);
+    }
+  }
+
+  /**
+   * Returns a stream that counts the bytes written to it if counting is
+   * enabled, otherwise the stream itself.
+   */
+  static OutputStream counting(OutputStream out) {
+    if (INSTANCE.enabled) {
+      return new CountingOutputStream(out);
+    }
+    return out;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public long getAdaptations() {
+    return this.adaptations.sum();
+  }
+
+  @Override
+  public long getMaterializations() {
+    return this.materializations.sum();
+  }
+
+  @Override
+  public long getCacheHits() {
+    return this.cacheHits.sum();
+  }
+
+  @Override
+  public long getCacheMisses() {
+    return this.cacheMisses.sum();
+  }
+
+  @Override
+  public long getBytesWritten() {
+    return this.bytesWritten.sum();
+  }
+
+  @Override
+  public void reset() {
+    this.adaptations.reset();
+    this.materializations.reset();
+    this.cacheHits.reset();
+    this.cacheMisses.reset();
+    this.bytesWritten.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "JsonpMetrics[adaptations=" + this.getAdaptations()
+        + ", materializations=" + this.getMaterializations()
+        + ", cacheHits=" + this.getCacheHits()
+        + ", cacheMisses=" + this.getCacheMisses()
+        + ", bytesWritten=" + this.getBytesWritten() + ']';
+  }
+
+  /**
+   * Adds the bytes written to the counter when flushed, generators flush
+   * when closed even if they do not close their target.
+   */
+  static final class CountingOutputStream extends FilterOutputStream {
+
+    private long count;
+
+    CountingOutputStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      this.out.write(b);
+      this.count += 1L;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      this.out.write(b, off, len);
+      this.count += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      this.out.flush();
+      written(this.count);
+      this.count = 0L;
+    }
+
+    @Override
+    public void close() throws IOException {
+      // the target is not ours to close
+      this.flush();
+    }
+
+  }
+
+}
@@ -0,0 +1,64 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+/**
+ * Management interface of {@link JsonpMetrics}.
+ */
+public interface JsonpMetricsMXBean {
+
+  /**
+   * Returns whether counting is enabled.
+   *
+   * @return whether counting is enabled
+   */
+  boolean isEnabled();
+
+  /**
+   * Enables or disables counting.
+   *
+   * @param enabled whether counting is enabled
+   */
+  void setEnabled(boolean enabled);
+
+  /**
+   * Returns the number of JSON-P values adapted to Jackson nodes, including
+   * lazily adapted children.
+   *
+   * @return the number of adapted nodes
+   */
+  long getAdaptations();
+
+  /**
+   * Returns the number of values that were copied instead of adapted, for
+   * example eagerly adapted trees or values built from parser tokens.
+   *
+   * @return the number of materializations
+   */
+  long getMaterializations();
+
+  /**
+   * Returns the number of hits of all field name and scalar caches.
+   *
+   * @return the number of cache hits
+   */
+  long getCacheHits();
+
+  /**
+   * Returns the number of misses of all field name and scalar caches.
+   *
+   * @return the number of cache misses
+   */
+  long getCacheMisses();
+
+  /**
+   * Returns the number of bytes written by {@link JsonpParallel#writeValue(javax.json.JsonValue, com.fasterxml.jackson.databind.ObjectWriter, java.io.OutputStream)}.
+   *
+   * @return the number of bytes written
+   */
+  long getBytesWritten();
+
+  /**
+   * Resets all counters to zero.
+   */
+  void reset();
+
+}
@@ -1,10 +1,10 @@
 package com.github.marschall.jacksonjaxpbridge;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
 
 import javax.json.JsonArray;
@@ -12,189 +12,264 @@ import javax.json.JsonNumber;
 import javax.json.JsonObject;
 import javax.json.JsonString;
 import javax.json.JsonValue;
-import javax.json.JsonValue.ValueType;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.JsonNode.OverwriteMode;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.ContainerNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.marschall.jacksonjaxpbridge.JsonValueTraversal.Collector;
+import com.github.marschall.jacksonjaxpbridge.JsonValueTraversal.FirstMatch;
+import com.github.marschall.jacksonjaxpbridge.JsonValueTraversal.Visitor;
 
 /**
  * Adapts JAX-P {@link JsonValue} to Jackson {@link JsonNode}.
  */
 public final class JsonpNodeAdapter {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   private JsonpNodeAdapter() {
     throw new AssertionError("not instantiable");
   }
 
+  /**
+   * Adapts a JSON-P value to a Jackson node.
+   * <p>
+   * Children of objects and arrays are adapted lazily on every access.
+   *
+   * @param value the value to adapt, not {@code null}
+   * @param nc the node factory to use for scalar values, not {@code null}
+   * @return the adapted node, not {@code null}
+   */
   public static JsonNode adapt(JsonValue value, JsonNodeFactory nc) {
+    return adapt(value, nc, false);
+  }
+
+  /**
+   * Adapts a JSON-P value to a Jackson node, optionally memoizing adapted children.
+   * <p>
+   * Children are always adapted lazily. If {@code memoizeChildren} is
+   * {@code true} every object and array node remembers its adapted children
+   * so that each child is adapted at most once per parent, no matter how
+   * often the tree is walked. Such nodes are not safe for concurrent access.
+   *
+   * @param value the value to adapt, not {@code null}
+   * @param nc the node factory to use for scalar values, not {@code null}
+   * @param memoizeChildren whether object and array nodes should memoize adapted children
+   * @return the adapted node, not {@code null}
+   */
+  public static JsonNode adapt(JsonValue value, JsonNodeFactory nc, boolean memoizeChildren) {
+    return adaptRoot(value, nc, memoizeChildren, null);
+  }
+
+  /**
+   * Adapts a JSON-P value to a Jackson node, optionally memoizing adapted
+   * children and indexing field names.
+   * <p>
+   * If {@code indexFieldNames} is {@code true} all field names are indexed
+   * in a single pass on the first call to one of the {@code find*} methods
+   * of the returned node or any of its descendants. All further searches
+   * are answered from the index instead of walking the value again. This
+   * pays off when several different field names are searched in the same
+   * large value.
+   *
+   * @param value the value to adapt, not {@code null}
+   * @param nc the node factory to use for scalar values, not {@code null}
+   * @param memoizeChildren whether object and array nodes should memoize adapted children
+   * @param indexFieldNames whether field names should be indexed for searches
+   * @return the adapted node, not {@code null}
+   * @see JsonNode#findValues(String)
+   */
+  public static JsonNode adapt(JsonValue value, JsonNodeFactory nc, boolean memoizeChildren, boolean indexFieldNames) {
+    Objects.requireNonNull(value, "value");
+    return adaptRoot(value, nc, memoizeChildren, indexFieldNames ? new FieldNameIndex(value) : null);
+  }
+
+  /**
+   * Adapts the root of a value and records a {@link JsonpAdaptEvent}.
+   */
+  static JsonNode adaptRoot(JsonValue value, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
+    JsonpAdaptEvent event = new JsonpAdaptEvent();
+    if (!event.isEnabled()) {
+      return adapt(value, nc, memoizeChildren, index);
+    }
+    event.begin();
+    JsonNode adapted = adapt(value, nc, memoizeChildren, index);
+    event.end();
+    if (event.shouldCommit()) {
+      event.valueType = value.getValueType().name();
+      event.size = size(value);
+      event.commit();
+    }
+    return adapted;
+  }
+
+  /**
+   * Returns the number of members or elements of an object or array, {@code 0} for other values.
+   */
+  static int size(JsonValue value) {
+    return switch (value.getValueType()) {
+      case OBJECT -> ((JsonObject) value).size();
+      case ARRAY -> ((JsonArray) value).size();
+      default -> 0;
+    };
+  }
+
+  static JsonNode adapt(JsonValue value, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
     Objects.requireNonNull(value, "value");
     Objects.requireNonNull(nc, "nc");
+    JsonpMetrics.adapted();
     return switch (value.getValueType()) {
-      case ARRAY  -> new JsonArrayNode(value.asJsonArray(), nc);
-      case OBJECT  -> new JsonObjectNode(value.asJsonObject(), nc);
+      case ARRAY  -> new JsonArrayNode(value.asJsonArray(), nc, memoizeChildren, index);
+      case OBJECT  -> new JsonObjectNode(value.asJsonObject(), nc, memoizeChildren, index);
       case STRING -> nc.textNode(((JsonString) value).getString());
-      case NUMBER -> adaptNumberNode((JsonNumber) value, nc);
+      case NUMBER -> adaptNumber((JsonNumber) value, nc);
       case TRUE   -> nc.booleanNode(true);
       case FALSE  -> nc.booleanNode(false);
       case NULL   -> nc.nullNode();
     };
   }
 
-  private static JsonNode adaptNumberNode(JsonNumber value, JsonNodeFactory nc) {
-    if (value.isIntegral()) {
-      try {
-        long longValue = value.longValueExact();
-        if ((longValue <= Integer.MAX_VALUE) && (longValue >= Integer.MIN_VALUE)) {
-          int intValue = Math.toIntExact(longValue);
-          return nc.numberNode(intValue);
-        } else {
-          return nc.numberNode(longValue);
-        }
-      } catch (ArithmeticException e) {
-        return nc.numberNode(value.bigIntegerValueExact());
-      }
+  /**
+   * Integers that fit into a {@code long} are adapted to the nodes of the
+   * factory so that they are equal to the nodes Jackson creates, all other
+   * numbers are converted lazily.
+   */
+  private static JsonNode adaptNumber(JsonNumber value, JsonNodeFactory nc) {
+    return switch (numberType(value)) {
+      case INT -> nc.numberNode(value.intValue());
+      case LONG -> nc.numberNode(value.longValue());
+      default -> new JsonNumberNode(value);
+    };
+  }
+
+  /**
+   * Creates a parser that streams the tokens of a JSON-P value.
+   * <p>
+   * Unlike traversing an adapted node no intermediate {@link JsonNode}s are
+   * created.
+   *
+   * @param value the value to stream, not {@code null}
+   * @param codec the codec for the parser, possibly {@code null}
+   * @return the parser, not {@code null}
+   */
+  public static JsonParser parser(JsonValue value, ObjectCodec codec) {
+    return JsonpBridge.getDefault().parser(value, codec);
+  }
+
+  /**
+   * Creates a parser that pulls its tokens from a streaming JSON-P parser.
+   * <p>
+   * The input is never materialized unless a tree is requested through
+   * {@link JsonParser#readValueAsTree()}, in which case the current value
+   * is adapted.
+   *
+   * @param parser the JSON-P parser to read from, not {@code null}
+   * @param codec the codec for the parser, possibly {@code null}
+   * @return the parser, not {@code null}
+   */
+  public static JsonParser parser(javax.json.stream.JsonParser parser, ObjectCodec codec) {
+    return JsonpBridge.getDefault().parser(parser, codec);
+  }
+
+  /**
+   * Binds a JSON-P value using an {@link ObjectReader} by streaming its tokens.
+   *
+   * @param <T> the type of the bound value
+   * @param reader the reader to use, not {@code null}
+   * @param value the value to bind, not {@code null}
+   * @return the bound value
+   * @throws IOException if binding fails
+   * @see #parser(JsonValue, ObjectCodec)
+   */
+  public static <T> T readValue(ObjectReader reader, JsonValue value) throws IOException {
+    return JsonpBridge.getDefault().readValue(reader, value);
+  }
+
+  /**
+   * Determines the narrowest number type of a JSON-P number without
+   * relying on exceptions.
+   */
+  static NumberType numberType(JsonNumber value) {
+    Number number = value.numberValue();
+    if (number instanceof Integer) {
+      return NumberType.INT;
+    } else if (number instanceof Long longValue) {
+      return bitLengthNumberType(64 - Long.numberOfLeadingZeros(longValue < 0L ? ~longValue : longValue));
+    } else if (number instanceof BigInteger bigInteger) {
+      return bitLengthNumberType(bigInteger.bitLength());
+    } else if (number instanceof Double) {
+      return NumberType.DOUBLE;
+    } else if (number instanceof Float) {
+      return NumberType.FLOAT;
+    } else if (value.isIntegral()) {
+      return bitLengthNumberType(value.bigIntegerValue().bitLength());
     } else {
-      return nc.numberNode(value.bigDecimalValue());
+      return NumberType.BIG_DECIMAL;
     }
   }
 
-  static JsonNode findParent(JsonValue jsonValue, String fieldName, JsonNodeFactory nc) {
-    return switch (jsonValue.getValueType()) {
-      case ARRAY  -> {
-        for (JsonValue child : jsonValue.asJsonArray()) {
-          JsonNode parent = findParent(child, fieldName, nc);
-          if (parent != null) {
-            yield parent;
-          }
-        }
-        yield null;
-      }
-      case OBJECT  -> {
-        for (Entry<String, JsonValue> entry : jsonValue.asJsonObject().entrySet()) {
-          if (fieldName.equals(entry.getKey())) {
-            yield adapt(jsonValue, nc);
-          }
-          JsonNode value = findValue(entry.getValue(), fieldName, nc);
-          if (value != null) {
-            yield value;
-          }
-        }
-        yield null;
-      }
-      case STRING, NUMBER, TRUE, FALSE, NULL   -> null;
-    };
+  private static NumberType bitLengthNumberType(int bitLength) {
+    if (bitLength < 32) {
+      return NumberType.INT;
+    } else if (bitLength < 64) {
+      return NumberType.LONG;
+    } else {
+      return NumberType.BIG_INTEGER;
+    }
   }
 
-  static List<JsonNode> findParents(JsonValue jsonValue, String fieldName, List<JsonNode> foundSoFar, JsonNodeFactory nc) {
-    return switch (jsonValue.getValueType()) {
-      case ARRAY  -> {
-        List<JsonNode> result = foundSoFar;
-        for (JsonValue child : jsonValue.asJsonArray()) {
-          result = findParents(child, fieldName, result, nc);
-        }
-        yield result;
-      }
-      case OBJECT  -> {
-        List<JsonNode> result = foundSoFar;
-        for (Entry<String, JsonValue> entry : jsonValue.asJsonObject().entrySet()) {
-          if (fieldName.equals(entry.getKey())) {
-            if (result == null) {
-              result = new ArrayList<>();
-            }
-            result.add(adapt(jsonValue, nc));
-          } else { // only add children if parent not added
-            result = findParents(entry.getValue(), fieldName, result, nc);
-          }
-        }
-        yield result;
+  private static boolean traverse(JsonValue jsonValue, String fieldName, Visitor visitor, FieldNameIndex index) {
+    if (index != null) {
+      Boolean terminated = index.traverse(jsonValue, fieldName, visitor);
+      if (terminated != null) {
+        return terminated;
       }
-      case STRING, NUMBER, TRUE, FALSE, NULL   -> foundSoFar;
-    };
+    }
+    return JsonValueTraversal.traverse(jsonValue, fieldName, visitor);
   }
 
-  static JsonNode findValue(JsonValue jsonValue, String fieldName, JsonNodeFactory nc) {
-    return switch (jsonValue.getValueType()) {
-      case ARRAY  -> {
-        for (JsonValue child : jsonValue.asJsonArray()) {
-          JsonNode value = findValue(child, fieldName, nc);
-          if (value != null) {
-            yield value;
-          }
-        }
-        yield null;
-      }
-      case OBJECT  -> {
-        for (Entry<String, JsonValue> entry : jsonValue.asJsonObject().entrySet()) {
-          if (fieldName.equals(entry.getKey())) {
-            yield adapt(entry.getValue(), nc);
-          }
-          JsonNode value = findValue(entry.getValue(), fieldName, nc);
-          if (value != null) {
-            yield value;
-          }
-        }
-        yield null;
-      }
-      case STRING, NUMBER, TRUE, FALSE, NULL   -> null;
-    };
+  static JsonNode findParent(JsonValue jsonValue, String fieldName, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
+    FirstMatch match = new FirstMatch();
+    if (traverse(jsonValue, fieldName, match, index)) {
+      return adapt(match.parent, nc, memoizeChildren, index);
+    }
+    return null;
   }
 
-  static List<JsonNode> findValues(JsonValue jsonValue, String fieldName, List<JsonNode> foundSoFar, JsonNodeFactory nc) {
-    return switch (jsonValue.getValueType()) {
-      case ARRAY  -> {
-        List<JsonNode> result = foundSoFar;
-        for (JsonValue child : jsonValue.asJsonArray()) {
-          result = findValues(child, fieldName, result, nc);
-        }
-        yield result;
-      }
-      case OBJECT  -> {
-        List<JsonNode> result = foundSoFar;
-        for (Entry<String, JsonValue> entry : jsonValue.asJsonObject().entrySet()) {
-          if (fieldName.equals(entry.getKey())) {
-            if (result == null) {
-              result = new ArrayList<>();
-            }
-            result.add(adapt(entry.getValue(), nc));
-          } else { // only add children if parent not added
-            result = findValues(entry.getValue(), fieldName, result, nc);
-          }
-        }
-        yield result;
-      }
-      case STRING, NUMBER, TRUE, FALSE, NULL   -> foundSoFar;
-    };
+  static List<JsonNode> findParents(JsonValue jsonValue, String fieldName, List<JsonNode> foundSoFar, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
+    Collector<JsonNode> collector = new Collector<>(foundSoFar, (parent, value) -> adapt(parent, nc, memoizeChildren, index));
+    traverse(jsonValue, fieldName, collector, index);
+    return collector.result;
   }
-  
-  static List<String> findValuesAsText(JsonValue jsonValue, String fieldName, List<String> foundSoFar) {
-    return switch (jsonValue.getValueType()) {
-    case ARRAY  -> {
-      List<String> result = foundSoFar;
-      for (JsonValue child : jsonValue.asJsonArray()) {
-        result = findValuesAsText(child, fieldName, result);
-      }
-      yield result;
-    }
-    case OBJECT  -> {
-      List<String> result = foundSoFar;
-      for (Entry<String, JsonValue> entry : jsonValue.asJsonObject().entrySet()) {
-        if (fieldName.equals(entry.getKey())) {
-          if (result == null) {
-            result = new ArrayList<>();
-          }
-          result.add(asText(entry.getValue()));
-        } else { // only add children if parent not added
-          result = findValuesAsText(entry.getValue(), fieldName, result);
-        }
-      }
-      yield result;
+
+  static JsonNode findValue(JsonValue jsonValue, String fieldName, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
+    FirstMatch match = new FirstMatch();
+    if (traverse(jsonValue, fieldName, match, index)) {
+      return adapt(match.value, nc, memoizeChildren, index);
     }
-    case STRING, NUMBER, TRUE, FALSE, NULL   -> foundSoFar;
-    };
+    return null;
+  }
+
+  static List<JsonNode> findValues(JsonValue jsonValue, String fieldName, List<JsonNode> foundSoFar, JsonNodeFactory nc, boolean memoizeChildren, FieldNameIndex index) {
+    Collector<JsonNode> collector = new Collector<>(foundSoFar, (parent, value) -> adapt(value, nc, memoizeChildren, index));
+    traverse(jsonValue, fieldName, collector, index);
+    return collector.result;
+  }
+
+  static List<String> findValuesAsText(JsonValue jsonValue, String fieldName, List<String> foundSoFar, FieldNameIndex index) {
+    Collector<String> collector = new Collector<>(foundSoFar, (parent, value) -> asText(value));
+    traverse(jsonValue, fieldName, collector, index);
+    return collector.result;
   }
 
   private static String asText(JsonValue value) {
@@ -208,59 +283,82 @@ public final class JsonpNodeAdapter {
     };
   }
 
+  /**
+   * Writes a JSON-P value as JSON text, used to implement {@code toString()}.
+   */
+  static String toJson(JsonValue value) {
+    StringWriter writer = new StringWriter();
+    try (JsonGenerator g = JSON_FACTORY.createGenerator(writer)) {
+      serialize(value, g, null);
+    } catch (IOException e) {
+      // can not happen with a StringWriter
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
   static void serialize(JsonValue value, JsonGenerator g, SerializerProvider provider) throws IOException {
-    switch (value.getValueType()) {
-      case ARRAY  -> {
-        List<JsonValue> children = (JsonArray) value;
-        int size = children.size();
-        g.writeStartArray(value, size);
-        for (JsonValue child : children) {
-          serialize(child, g, provider);
-        }
-        g.writeEndArray();
-      }
-      case OBJECT  -> {
-        if (provider != null) {
-          boolean trimEmptyArray = !provider.isEnabled(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS);
-          boolean skipNulls = !provider.isEnabled(JsonNodeFeature.WRITE_NULL_PROPERTIES);
-          if (trimEmptyArray || skipNulls) {
-              g.writeStartObject(value);
-              serializeFilteredContents(((JsonObject) value), g, provider, trimEmptyArray, skipNulls);
-              g.writeEndObject();
-              return;
-          }
-        }
-        g.writeStartObject(value);
-        for (Map.Entry<String, JsonValue> entry : ((JsonObject) value).entrySet()) {
-            JsonValue v = entry.getValue();
-            g.writeFieldName(entry.getKey());
-            serialize(v, g, provider);
-        }
-        g.writeEndObject();
-      }
-      case STRING -> g.writeString(((JsonString) value).getString());
-      case NUMBER -> g.writeNumber(((JsonNumber) value).bigDecimalValue());
-      case TRUE   -> g.writeBoolean(true);
-      case FALSE  -> g.writeBoolean(false);
-      case NULL   -> g.writeNull();
-    };
+    SerializationPlan.of(provider).serialize(value, g);
   }
 
-  static void serializeFilteredContents(JsonObject jsonObject, JsonGenerator g, SerializerProvider provider, boolean trimEmptyArray, boolean skipNulls)
-      throws IOException {
-    for (Entry<String, JsonValue> entry : jsonObject.entrySet()) {
-      JsonValue value = entry.getValue();
+  /**
+   * Continues {@link JsonNode#withObject(JsonPointer)} in an existing child.
+   *
+   * @return the object node at the end of the pointer, {@code null} if the
+   *         child has to be replaced
+   */
+  static ObjectNode withObject(JsonNode child, JsonPointer origPtr, JsonPointer tail, OverwriteMode overwriteMode, boolean preferIndex) {
+    if (child instanceof JsonObjectNode objectNode) {
+      return objectNode._withObject(origPtr, tail, overwriteMode, preferIndex);
+    } else if (child instanceof JsonArrayNode arrayNode) {
+      return arrayNode._withObject(origPtr, tail, overwriteMode, preferIndex);
+    } else if (child.isObject() || (child.isArray() && !tail.matches())) {
+      // a Jackson node that has been set as a value
+      return child.withObject(tail, overwriteMode, preferIndex);
+    }
+    return null;
+  }
 
-      if (trimEmptyArray && (value.getValueType() == ValueType.ARRAY) && ((JsonArray) value).isEmpty()) {
-        continue;
-      }
-      if (skipNulls && (value.getValueType() == ValueType.NULL)) {
-        continue;
-      }
+  /**
+   * Makes a changed object or array visible to the node it was adapted from.
+   */
+  static void replaceInParent(ContainerNode<?> parent, String fieldName, int index, JsonValue original, JsonValue replacement) {
+    if (parent instanceof JsonObjectNode objectNode) {
+      objectNode.replaceChild(fieldName, original, replacement);
+    } else if (parent instanceof JsonArrayNode arrayNode) {
+      arrayNode.replaceChild(index, original, replacement);
+    }
+  }
+
+  /**
+   * Looks up the current version of a value that was adapted as a child of a node.
+   *
+   * @return the value or the overlay with the changes made to it,
+   *         {@code null} if it has been replaced or removed
+   */
+  static JsonValue currentInParent(ContainerNode<?> parent, String fieldName, int index, JsonValue value) {
+    if (parent instanceof JsonObjectNode objectNode) {
+      return objectNode.currentChild(fieldName, value);
+    } else if (parent instanceof JsonArrayNode arrayNode) {
+      return arrayNode.currentChild(index, value);
+    }
+    return null;
+  }
 
-      g.writeFieldName(entry.getKey());
-      serialize(value, g, provider);
+  /**
+   * Whether a value is either another value or the overlay with the changes made to it.
+   */
+  static boolean isVersionOf(JsonValue current, JsonValue value) {
+    if (current == value) {
+      return true;
+    }
+    if (current instanceof OverlayJsonObject overlay) {
+      return overlay.getOrigin() == value;
+    }
+    if (current instanceof OverlayJsonArray overlay) {
+      return overlay.getOrigin() == value;
     }
+    return false;
   }
 
 }
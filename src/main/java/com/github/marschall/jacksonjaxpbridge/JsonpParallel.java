@@ -0,0 +1,346 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+
+import javax.json.JsonArray;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+
+/**
+ * Searches, binds and writes very large arrays in parallel.
+ * <p>
+ * Arrays with at least {@code threshold} elements are split into chunks
+ * of {@code threshold} elements which are processed on the given
+ * executor, smaller values are processed sequentially in the calling
+ * thread. Results are always the same and in the same order as with
+ * sequential processing.
+ * <pre><code>
+ * JsonpParallel parallel = new JsonpParallel(ForkJoinPool.commonPool(), 10_000);
+ * List&lt;JsonNode&gt; ids = parallel.findValues(records, "id");
+ * </code></pre>
+ * <p>
+ * Instances are immutable and thread safe.
+ */
+public final class JsonpParallel {
+
+  private static final SerializedString ELEMENT_SEPARATOR = new SerializedString(",");
+
+  private final Executor executor;
+
+  private final int threshold;
+
+  private final JsonpBridge bridge;
+
+  /**
+   * Constructs a new instance that uses the {@link JsonpBridge#getDefault() default bridge}.
+   *
+   * @param executor the executor for the chunks, for example a
+   *                 {@link java.util.concurrent.ForkJoinPool}, not {@code null}
+   * @param threshold the minimum size of an array to be processed in
+   *                  parallel and the size of the chunks, positive
+   */
+  public JsonpParallel(Executor executor, int threshold) {
+    this(executor, threshold, JsonpBridge.getDefault());
+  }
+
+  /**
+   * Constructs a new instance.
+   *
+   * @param executor the executor for the chunks, for example a
+   *                 {@link java.util.concurrent.ForkJoinPool}, not {@code null}
+   * @param threshold the minimum size of an array to be processed in
+   *                  parallel and the size of the chunks, positive
+   * @param bridge the bridge to bind and write values with, not {@code null}
+   */
+  public JsonpParallel(Executor executor, int threshold, JsonpBridge bridge) {
+    Objects.requireNonNull(executor, "executor");
+    Objects.requireNonNull(bridge, "bridge");
+    if (threshold < 1) {
+      throw new IllegalArgumentException("threshold must be positive");
+    }
+    this.executor = executor;
+    this.threshold = threshold;
+    this.bridge = bridge;
+  }
+
+  /**
+   * Parallel version of {@link JsonNode#findValue(String)}.
+   *
+   * @param node the node to search, not {@code null}
+   * @param fieldName the name of the field to search, not {@code null}
+   * @return the value of the first matching field, {@code null} if none
+   */
+  public JsonNode findValue(JsonNode node, String fieldName) {
+    return this.findFirst(node, fieldName, JsonNode::findValue);
+  }
+
+  /**
+   * Parallel version of {@link JsonNode#findParent(String)}.
+   *
+   * @param node the node to search, not {@code null}
+   * @param fieldName the name of the field to search, not {@code null}
+   * @return the object containing the first matching field, {@code null} if none
+   */
+  public JsonNode findParent(JsonNode node, String fieldName) {
+    return this.findFirst(node, fieldName, JsonNode::findParent);
+  }
+
+  /**
+   * Parallel version of {@link JsonNode#findValues(String)}.
+   *
+   * @param node the node to search, not {@code null}
+   * @param fieldName the name of the field to search, not {@code null}
+   * @return the values of all matching fields, not {@code null}
+   */
+  public List<JsonNode> findValues(JsonNode node, String fieldName) {
+    return this.findAll(node, fieldName, (element, result) -> element.findValues(fieldName, result));
+  }
+
+  /**
+   * Parallel version of {@link JsonNode#findParents(String)}.
+   *
+   * @param node the node to search, not {@code null}
+   * @param fieldName the name of the field to search, not {@code null}
+   * @return the objects containing matching fields, not {@code null}
+   */
+  public List<JsonNode> findParents(JsonNode node, String fieldName) {
+    return this.findAll(node, fieldName, (element, result) -> element.findParents(fieldName, result));
+  }
+
+  /**
+   * Parallel version of {@link JsonNode#findValuesAsText(String)}.
+   *
+   * @param node the node to search, not {@code null}
+   * @param fieldName the name of the field to search, not {@code null}
+   * @return the values of all matching fields as text, not {@code null}
+   */
+  public List<String> findValuesAsText(JsonNode node, String fieldName) {
+    return this.findAll(node, fieldName, (element, result) -> element.findValuesAsText(fieldName, result));
+  }
+
+  private JsonNode findFirst(JsonNode node, String fieldName, BiFunction<JsonNode, String, JsonNode> search) {
+    Objects.requireNonNull(node, "node");
+    Objects.requireNonNull(fieldName, "fieldName");
+    int size = node.size();
+    if (!node.isArray() || (size < this.threshold)) {
+      return search.apply(node, fieldName);
+    }
+    IntFunction<JsonNode> elements = elements(node);
+    List<CompletableFuture<JsonNode>> chunks = new ArrayList<>();
+    for (int start = 0; start < size; start += this.threshold) {
+      int from = start;
+      int to = Math.min(start + this.threshold, size);
+      chunks.add(CompletableFuture.supplyAsync(() -> {
+        for (int i = from; i < to; i++) {
+          JsonNode found = search.apply(elements.apply(i), fieldName);
+          if (found != null) {
+            return found;
+          }
+        }
+        return null;
+      }, this.executor));
+    }
+    for (int i = 0; i < chunks.size(); i++) {
+      JsonNode found = join(chunks.get(i));
+      if (found != null) {
+        // later chunks can not change the result
+        for (int j = i + 1; j < chunks.size(); j++) {
+          chunks.get(j).cancel(false);
+        }
+        return found;
+      }
+    }
+    return null;
+  }
+
+  private <T> List<T> findAll(JsonNode node, String fieldName, BiFunction<JsonNode, List<T>, List<T>> search) {
+    Objects.requireNonNull(node, "node");
+    Objects.requireNonNull(fieldName, "fieldName");
+    int size = node.size();
+    if (!node.isArray() || (size < this.threshold)) {
+      List<T> result = search.apply(node, null);
+      return result != null ? result : new ArrayList<>(0);
+    }
+    IntFunction<JsonNode> elements = elements(node);
+    List<CompletableFuture<List<T>>> chunks = new ArrayList<>();
+    for (int start = 0; start < size; start += this.threshold) {
+      int from = start;
+      int to = Math.min(start + this.threshold, size);
+      chunks.add(CompletableFuture.supplyAsync(() -> {
+        List<T> result = null;
+        for (int i = from; i < to; i++) {
+          result = search.apply(elements.apply(i), result);
+        }
+        return result;
+      }, this.executor));
+    }
+    List<T> result = new ArrayList<>();
+    for (CompletableFuture<List<T>> chunk : chunks) {
+      List<T> chunkResult = join(chunk);
+      if (chunkResult != null) {
+        result.addAll(chunkResult);
+      }
+    }
+    return result;
+  }
+
+  private static IntFunction<JsonNode> elements(JsonNode node) {
+    if (node instanceof JsonArrayNode arrayNode) {
+      // bypass the memoization cache, it is not thread safe
+      JsonArray jsonArray = arrayNode.getJsonArray();
+      return index -> arrayNode.adaptDescendant(jsonArray.get(index));
+    }
+    return node::get;
+  }
+
+  /**
+   * Parallel version of {@link JsonpBridge#readAll(ObjectReader, List)}.
+   * <p>
+   * Batches with at least {@code threshold} values are bound in chunks on
+   * the executor with the bridge of this instance.
+   *
+   * @param <T> the type of the bound values
+   * @param reader the reader to use, not {@code null}
+   * @param values the values to bind, not {@code null}
+   * @return one result per value in the same order, not {@code null}
+   */
+  public <T> List<BindingResult<T>> readAll(ObjectReader reader, List<? extends JsonValue> values) {
+    Objects.requireNonNull(reader, "reader");
+    Objects.requireNonNull(values, "values");
+    JsonpBridge bridge = this.bridge;
+    int size = values.size();
+    if (size < this.threshold) {
+      return bridge.readAll(reader, values);
+    }
+    List<CompletableFuture<List<BindingResult<T>>>> chunks = new ArrayList<>();
+    for (int start = 0; start < size; start += this.threshold) {
+      int offset = start;
+      List<? extends JsonValue> chunk = values.subList(start, Math.min(start + this.threshold, size));
+      chunks.add(CompletableFuture.supplyAsync(() -> {
+        List<BindingResult<T>> result = new ArrayList<>(chunk.size());
+        bridge.readAll(reader, chunk, offset, result);
+        return result;
+      }, this.executor));
+    }
+    List<BindingResult<T>> result = new ArrayList<>(size);
+    for (CompletableFuture<List<BindingResult<T>>> chunk : chunks) {
+      result.addAll(join(chunk));
+    }
+    return result;
+  }
+
+  /**
+   * Writes a JSON-P value as JSON text.
+   * <p>
+   * The elements of a large array are written in chunks to separate
+   * buffers in parallel, the buffers are then written to the output in
+   * order. The serialization features and attributes of the writer, like
+   * a {@link FieldNameCache}, are resolved once for all chunks. Writers
+   * with a {@link com.fasterxml.jackson.core.PrettyPrinter} always write
+   * sequentially since the indentation of an element depends on its
+   * position in the whole value.
+   *
+   * @param value the value to write, not {@code null}
+   * @param writer the writer to create the generators and with the
+   *               serialization features, not {@code null}
+   * @param out the stream to write to, not {@code null}, not closed
+   * @throws IOException if writing fails
+   */
+  public void writeValue(JsonValue value, ObjectWriter writer, OutputStream out) throws IOException {
+    Objects.requireNonNull(value, "value");
+    Objects.requireNonNull(writer, "writer");
+    Objects.requireNonNull(out, "out");
+    SerializationPlan plan = this.bridge.plan(provider(writer));
+    boolean largeArray = (value.getValueType() == ValueType.ARRAY) && (((JsonArray) value).size() >= this.threshold);
+    try (JsonGenerator generator = writer.createGenerator(JsonpMetrics.counting(out))) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      if (!largeArray || (generator.getPrettyPrinter() != null)) {
+        plan.serialize(value, generator);
+        return;
+      }
+    }
+    JsonArray array = (JsonArray) value;
+    int size = array.size();
+    List<CompletableFuture<byte[]>> chunks = new ArrayList<>();
+    for (int start = 0; start < size; start += this.threshold) {
+      List<JsonValue> elements = array.subList(start, Math.min(start + this.threshold, size));
+      chunks.add(CompletableFuture.supplyAsync(() -> writeChunk(elements, writer, plan), this.executor));
+    }
+    out.write('[');
+    long written = 2L + chunks.size() - 1L;
+    boolean first = true;
+    for (CompletableFuture<byte[]> chunk : chunks) {
+      if (!first) {
+        out.write(',');
+      }
+      try {
+        byte[] bytes = join(chunk);
+        out.write(bytes);
+        written += bytes.length;
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      first = false;
+    }
+    out.write(']');
+    out.flush();
+    JsonpMetrics.written(written);
+  }
+
+  /**
+   * Creates a provider with the configuration of a writer, only used to
+   * resolve its features and attributes.
+   */
+  private static SerializerProvider provider(ObjectWriter writer) {
+    return new DefaultSerializerProvider.Impl().createInstance(writer.getConfig(), BeanSerializerFactory.instance);
+  }
+
+  private static byte[] writeChunk(List<JsonValue> elements, ObjectWriter writer, SerializationPlan plan) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (JsonGenerator generator = writer.createGenerator(buffer)) {
+      // elements are written as a sequence of root values
+      generator.setRootValueSeparator(ELEMENT_SEPARATOR);
+      for (JsonValue element : elements) {
+        plan.serialize(element, generator);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+
+}
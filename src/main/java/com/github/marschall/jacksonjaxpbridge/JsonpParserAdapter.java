@@ -0,0 +1,443 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+
+import javax.json.JsonException;
+import javax.json.JsonValue;
+import javax.json.stream.JsonParser.Event;
+
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.StreamReadCapability;
+import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.core.base.ParserMinimalBase;
+import com.fasterxml.jackson.core.io.ContentReference;
+import com.fasterxml.jackson.core.json.JsonReadContext;
+import com.fasterxml.jackson.core.util.JacksonFeatureSet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.cfg.PackageVersion;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * Adapts a JAX-P {@link javax.json.stream.JsonParser} to a Jackson {@link JsonParser}.
+ * <p>
+ * Tokens are pulled from the JAX-P parser one by one so that large inputs
+ * can be bound with constant memory. {@link #readValueAsTree()} materializes
+ * the current value through {@link javax.json.stream.JsonParser#getValue()}
+ * and adapts it with {@link JsonpNodeAdapter}.
+ */
+final class JsonpParserAdapter extends ParserMinimalBase implements JsonValueSource {
+
+  private final javax.json.stream.JsonParser delegate;
+
+  private ObjectCodec codec;
+
+  private JsonReadContext parsingContext;
+
+  private boolean closed;
+
+  /**
+   * Lazily computed number type of the current token.
+   */
+  private NumberType numberType;
+
+  /**
+   * Value of the current integral token if it fits into a {@code long}.
+   */
+  private long longValue;
+
+  JsonpParserAdapter(javax.json.stream.JsonParser delegate, ObjectCodec codec) {
+    super(0);
+    Objects.requireNonNull(delegate, "delegate");
+    this.delegate = delegate;
+    this.codec = codec;
+    this.parsingContext = JsonReadContext.createRootContext(null);
+  }
+
+  @Override
+  public ObjectCodec getCodec() {
+    return this.codec;
+  }
+
+  @Override
+  public void setCodec(ObjectCodec codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public Version version() {
+    return PackageVersion.VERSION;
+  }
+
+  @Override
+  public JacksonFeatureSet<StreamReadCapability> getReadCapabilities() {
+    return DEFAULT_READ_CAPABILITIES;
+  }
+
+  @Override
+  public Object getInputSource() {
+    return this.delegate;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!this.closed) {
+      this.closed = true;
+      this._currToken = null;
+      if (this.isEnabled(Feature.AUTO_CLOSE_SOURCE)) {
+        try {
+          this.delegate.close();
+        } catch (JsonException e) {
+          throw new IOException("could not close parser", e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  @Override
+  public JsonToken nextToken() throws IOException {
+    this.numberType = null;
+    if (this.closed) {
+      return null;
+    }
+    if (!this.hasNextEvent()) {
+      this._currToken = null;
+      this.close();
+      return null;
+    }
+    Event event = this.nextEvent();
+    JsonReadContext context = this.parsingContext;
+    if ((event != Event.END_OBJECT) && (event != Event.END_ARRAY) && !context.inObject()) {
+      // value in an array or at the root
+      context.expectComma();
+    }
+    JsonToken token = switch (event) {
+      case START_OBJECT -> {
+        this.parsingContext = context.createChildObjectContext(-1, -1);
+        yield JsonToken.START_OBJECT;
+      }
+      case END_OBJECT -> {
+        this.parsingContext = context.clearAndGetParent();
+        yield JsonToken.END_OBJECT;
+      }
+      case START_ARRAY -> {
+        this.parsingContext = context.createChildArrayContext(-1, -1);
+        yield JsonToken.START_ARRAY;
+      }
+      case END_ARRAY -> {
+        this.parsingContext = context.clearAndGetParent();
+        yield JsonToken.END_ARRAY;
+      }
+      case KEY_NAME -> {
+        context.expectComma();
+        context.setCurrentName(this.delegate.getString());
+        yield JsonToken.FIELD_NAME;
+      }
+      case VALUE_STRING -> JsonToken.VALUE_STRING;
+      case VALUE_NUMBER -> this.delegate.isIntegralNumber() ? JsonToken.VALUE_NUMBER_INT : JsonToken.VALUE_NUMBER_FLOAT;
+      case VALUE_TRUE -> JsonToken.VALUE_TRUE;
+      case VALUE_FALSE -> JsonToken.VALUE_FALSE;
+      case VALUE_NULL -> JsonToken.VALUE_NULL;
+    };
+    this._currToken = token;
+    return token;
+  }
+
+  private boolean hasNextEvent() throws IOException {
+    try {
+      return this.delegate.hasNext();
+    } catch (JsonException e) {
+      throw this._constructError(e.getMessage(), e);
+    }
+  }
+
+  private Event nextEvent() throws IOException {
+    try {
+      return this.delegate.next();
+    } catch (JsonException e) {
+      throw this._constructError(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public JsonParser skipChildren() throws IOException {
+    JsonToken token = this._currToken;
+    if (token == JsonToken.START_OBJECT) {
+      this.delegate.skipObject();
+      this.parsingContext = this.parsingContext.clearAndGetParent();
+      this._currToken = JsonToken.END_OBJECT;
+    } else if (token == JsonToken.START_ARRAY) {
+      this.delegate.skipArray();
+      this.parsingContext = this.parsingContext.clearAndGetParent();
+      this._currToken = JsonToken.END_ARRAY;
+    }
+    return this;
+  }
+
+  @Override
+  public JsonValue getJsonValue() throws IOException {
+    JsonToken token = this._currToken;
+    if ((token == null) || (token == JsonToken.FIELD_NAME) || token.isStructEnd()) {
+      throw this._constructError("Current token (" + token + ") not a value");
+    }
+    JsonValue value;
+    try {
+      value = this.delegate.getValue();
+    } catch (JsonException e) {
+      throw this._constructError(e.getMessage(), e);
+    }
+    if (token.isStructStart()) {
+      this.parsingContext = this.parsingContext.clearAndGetParent();
+      this._currToken = token == JsonToken.START_OBJECT ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+    }
+    return value;
+  }
+
+  /**
+   * Reads the current value as a tree backed by JAX-P.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T extends TreeNode> T readValueAsTree() throws IOException {
+    if ((this._currToken == null) && (this.nextToken() == null)) {
+      return null;
+    }
+    return (T) JsonpNodeAdapter.adapt(this.getJsonValue(), this.getNodeFactory());
+  }
+
+  private JsonNodeFactory getNodeFactory() {
+    if (this.codec instanceof ObjectMapper objectMapper) {
+      return objectMapper.getNodeFactory();
+    } else if (this.codec instanceof ObjectReader objectReader) {
+      return objectReader.getConfig().getNodeFactory();
+    }
+    return JsonNodeFactory.instance;
+  }
+
+  @Override
+  public String getCurrentName() {
+    JsonReadContext context = this.parsingContext;
+    if ((this._currToken == JsonToken.START_OBJECT) || (this._currToken == JsonToken.START_ARRAY)) {
+      JsonReadContext parent = context.getParent();
+      if (parent != null) {
+        return parent.getCurrentName();
+      }
+    }
+    return context.getCurrentName();
+  }
+
+  @Override
+  public void overrideCurrentName(String name) {
+    JsonReadContext context = this.parsingContext;
+    if ((this._currToken == JsonToken.START_OBJECT) || (this._currToken == JsonToken.START_ARRAY)) {
+      context = context.getParent();
+    }
+    try {
+      context.setCurrentName(name);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public JsonStreamContext getParsingContext() {
+    return this.parsingContext;
+  }
+
+  @Override
+  public JsonLocation getTokenLocation() {
+    return this.getCurrentLocation();
+  }
+
+  @Override
+  public JsonLocation getCurrentLocation() {
+    javax.json.stream.JsonLocation location = this.delegate.getLocation();
+    return new JsonLocation(ContentReference.unknown(), location.getStreamOffset(),
+        (int) location.getLineNumber(), (int) location.getColumnNumber());
+  }
+
+  @Override
+  public String getText() {
+    JsonToken token = this._currToken;
+    if (token == null) {
+      return null;
+    }
+    return switch (token) {
+      case FIELD_NAME, VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> this.delegate.getString();
+      default -> token.asString();
+    };
+  }
+
+  @Override
+  public char[] getTextCharacters() {
+    String text = this.getText();
+    return text != null ? text.toCharArray() : null;
+  }
+
+  @Override
+  public int getTextLength() {
+    String text = this.getText();
+    return text != null ? text.length() : 0;
+  }
+
+  @Override
+  public int getTextOffset() {
+    return 0;
+  }
+
+  @Override
+  public boolean hasTextCharacters() {
+    return false;
+  }
+
+  @Override
+  public NumberType getNumberType() throws IOException {
+    NumberType type = this.numberType;
+    if (type == null) {
+      type = this.computeNumberType();
+      this.numberType = type;
+    }
+    return type;
+  }
+
+  private NumberType computeNumberType() throws IOException {
+    JsonToken token = this._currToken;
+    if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+      return NumberType.DOUBLE;
+    }
+    if (token != JsonToken.VALUE_NUMBER_INT) {
+      throw this._constructError("Current token (" + token + ") not numeric, cannot use numeric value accessors");
+    }
+    String text = this.delegate.getString();
+    int digits = text.charAt(0) == '-' ? text.length() - 1 : text.length();
+    long value;
+    if (digits <= 18) {
+      value = Long.parseLong(text);
+    } else {
+      // rare, avoid relying on NumberFormatException
+      BigInteger bigInteger = new BigInteger(text);
+      if (bigInteger.bitLength() >= 64) {
+        return NumberType.BIG_INTEGER;
+      }
+      value = bigInteger.longValue();
+    }
+    this.longValue = value;
+    if ((value >= Integer.MIN_VALUE) && (value <= Integer.MAX_VALUE)) {
+      return NumberType.INT;
+    }
+    return NumberType.LONG;
+  }
+
+  @Override
+  public Number getNumberValue() throws IOException {
+    return switch (this.getNumberType()) {
+      case INT -> (int) this.longValue;
+      case LONG -> this.longValue;
+      case BIG_INTEGER -> this.getBigIntegerValue();
+      default -> this.getDoubleValue();
+    };
+  }
+
+  @Override
+  public int getIntValue() throws IOException {
+    switch (this.getNumberType()) {
+      case INT -> {
+        return (int) this.longValue;
+      }
+      case LONG, BIG_INTEGER -> {
+        this.reportOverflowInt();
+        return 0;
+      }
+      default -> {
+        double doubleValue = this.getDoubleValue();
+        if ((doubleValue < Integer.MIN_VALUE) || (doubleValue > Integer.MAX_VALUE)) {
+          this.reportOverflowInt();
+        }
+        return (int) doubleValue;
+      }
+    }
+  }
+
+  @Override
+  public long getLongValue() throws IOException {
+    switch (this.getNumberType()) {
+      case INT, LONG -> {
+        return this.longValue;
+      }
+      case BIG_INTEGER -> {
+        this.reportOverflowLong();
+        return 0L;
+      }
+      default -> {
+        double doubleValue = this.getDoubleValue();
+        if ((doubleValue < Long.MIN_VALUE) || (doubleValue > Long.MAX_VALUE)) {
+          this.reportOverflowLong();
+        }
+        return (long) doubleValue;
+      }
+    }
+  }
+
+  @Override
+  public BigInteger getBigIntegerValue() throws IOException {
+    return switch (this.getNumberType()) {
+      case INT, LONG -> BigInteger.valueOf(this.longValue);
+      case BIG_INTEGER -> new BigInteger(this.delegate.getString());
+      default -> this.delegate.getBigDecimal().toBigInteger();
+    };
+  }
+
+  @Override
+  public float getFloatValue() throws IOException {
+    return (float) this.getDoubleValue();
+  }
+
+  @Override
+  public double getDoubleValue() throws IOException {
+    this.getNumberType(); // verifies the token
+    return Double.parseDouble(this.delegate.getString());
+  }
+
+  @Override
+  public BigDecimal getDecimalValue() throws IOException {
+    this.getNumberType(); // verifies the token
+    return this.delegate.getBigDecimal();
+  }
+
+  @Override
+  public Object getEmbeddedObject() {
+    return null;
+  }
+
+  @Override
+  public byte[] getBinaryValue(Base64Variant b64variant) throws IOException {
+    if (this._currToken != JsonToken.VALUE_STRING) {
+      throw this._constructError("Current token (" + this._currToken + ") not VALUE_STRING, can not access as binary");
+    }
+    try {
+      return b64variant.decode(this.delegate.getString());
+    } catch (IllegalArgumentException e) {
+      throw this._constructError(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  protected void _handleEOF() {
+    this._throwInternal(); // should never get called
+  }
+
+}
@@ -0,0 +1,169 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Objects;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+/**
+ * A compiled JSON Pointer that resolves directly against JAX-P values.
+ * <p>
+ * {@link JsonNode#at(JsonPointer)} adapts every intermediate value on
+ * the path. When applied to an adapted node this class instead walks the
+ * backing {@link JsonValue}s and only adapts the target.
+ * <p>
+ * Instances are immutable and thread safe, they are intended to be
+ * compiled once and applied to many documents.
+ * <pre><code>
+ * private static final JsonpPointer CUSTOMER_ID = JsonpPointer.compile("/customer/ids/0");
+ *
+ * JsonNode customerId = CUSTOMER_ID.at(JsonpNodeAdapter.adapt(jaxpNode, nodeFactory));
+ * </code></pre>
+ */
+public final class JsonpPointer {
+
+  private final JsonPointer pointer;
+
+  /**
+   * Unescaped property names, one per segment.
+   */
+  private final String[] properties;
+
+  /**
+   * Array indices, one per segment, {@code -1} if a segment is not a valid index.
+   */
+  private final int[] indices;
+
+  private JsonpPointer(JsonPointer pointer) {
+    this.pointer = pointer;
+    int length = 0;
+    for (JsonPointer segment = pointer; !segment.matches(); segment = segment.tail()) {
+      length += 1;
+    }
+    this.properties = new String[length];
+    this.indices = new int[length];
+    int i = 0;
+    for (JsonPointer segment = pointer; !segment.matches(); segment = segment.tail()) {
+      this.properties[i] = segment.getMatchingProperty();
+      this.indices[i] = segment.getMatchingIndex();
+      i += 1;
+    }
+  }
+
+  /**
+   * Compiles a JSON Pointer expression.
+   *
+   * @param expression the expression, not {@code null}
+   * @return the compiled pointer, not {@code null}
+   * @throws IllegalArgumentException if the expression is not a valid JSON Pointer
+   */
+  public static JsonpPointer compile(String expression) {
+    Objects.requireNonNull(expression, "expression");
+    return new JsonpPointer(JsonPointer.compile(expression));
+  }
+
+  /**
+   * Creates a pointer from a Jackson pointer.
+   *
+   * @param pointer the Jackson pointer, not {@code null}
+   * @return the compiled pointer, not {@code null}
+   */
+  public static JsonpPointer valueOf(JsonPointer pointer) {
+    Objects.requireNonNull(pointer, "pointer");
+    return new JsonpPointer(pointer);
+  }
+
+  /**
+   * Resolves this pointer against a Jackson node.
+   * <p>
+   * Nodes that are not backed by JAX-P are resolved using
+   * {@link JsonNode#at(JsonPointer)}.
+   *
+   * @param node the node to resolve against, not {@code null}
+   * @return the target node, {@link MissingNode} if there is none
+   */
+  public JsonNode at(JsonNode node) {
+    Objects.requireNonNull(node, "node");
+    if (this.properties.length == 0) {
+      return node;
+    }
+    JsonValue target;
+    if (node instanceof JsonObjectNode objectNode) {
+      target = this.at(objectNode.getJsonObject());
+      if (target != null) {
+        return objectNode.adaptDescendant(target);
+      }
+    } else if (node instanceof JsonArrayNode arrayNode) {
+      target = this.at(arrayNode.getJsonArray());
+      if (target != null) {
+        return arrayNode.adaptDescendant(target);
+      }
+    } else {
+      return node.at(this.pointer);
+    }
+    return MissingNode.getInstance();
+  }
+
+  /**
+   * Resolves this pointer against a JAX-P value.
+   * <p>
+   * Unlike {@link javax.json.JsonPointer#getValue(javax.json.JsonStructure)}
+   * a missing target is not reported as an exception.
+   *
+   * @param value the value to resolve against, not {@code null}
+   * @return the target value, {@code null} if there is none
+   */
+  public JsonValue at(JsonValue value) {
+    Objects.requireNonNull(value, "value");
+    JsonValue current = value;
+    for (int i = 0; i < this.properties.length; i++) {
+      current = switch (current.getValueType()) {
+        case OBJECT -> ((JsonObject) current).get(this.properties[i]);
+        case ARRAY -> {
+          JsonArray array = (JsonArray) current;
+          int index = this.indices[i];
+          yield (index >= 0) && (index < array.size()) ? array.get(index) : null;
+        }
+        default -> null;
+      };
+      if (current == null) {
+        return null;
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Returns the equivalent Jackson pointer.
+   *
+   * @return the Jackson pointer, not {@code null}
+   */
+  public JsonPointer toJsonPointer() {
+    return this.pointer;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    return (obj instanceof JsonpPointer other)
+        && this.pointer.equals(other.pointer);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.pointer.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return this.pointer.toString();
+  }
+
+}
@@ -0,0 +1,346 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.json.JsonValue;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Converts the items of a {@link Flow.Publisher} between JSON-P values and
+ * POJOs while honoring the demand of the subscriber.
+ * <p>
+ * At most {@code batchSize} items are requested from upstream ahead of
+ * downstream demand. Items are converted in batches of up to
+ * {@code batchSize} items on the executor and replenished from upstream
+ * once they are delivered.
+ * <pre><code>
+ * JsonpProcessor&lt;JsonValue, Order&gt; processor = JsonpProcessor.reading(objectMapper.readerFor(Order.class), executor, 64);
+ * messages.subscribe(processor);
+ * processor.subscribe(orderSubscriber);
+ * </code></pre>
+ * <p>
+ * A processor supports a single subscriber. If an item can not be
+ * converted the upstream subscription is cancelled and the exception is
+ * signalled to the subscriber after all previously converted items.
+ *
+ * @param <S> the type of the consumed items
+ * @param <T> the type of the produced items
+ */
+public final class JsonpProcessor<S, T> implements Flow.Processor<S, T> {
+
+  private final Converter<? super S, ? extends T> converter;
+
+  private final Executor executor;
+
+  private final int batchSize;
+
+  private final Queue<S> queue;
+
+  /**
+   * Work in progress counter that serializes the delivery to the subscriber.
+   */
+  private final AtomicInteger wip;
+
+  /**
+   * Outstanding demand of the subscriber.
+   */
+  private final AtomicLong requested;
+
+  private final AtomicReference<Flow.Subscription> upstream;
+
+  private final AtomicReference<Flow.Subscriber<? super T>> downstream;
+
+  private volatile boolean done;
+
+  private volatile Throwable error;
+
+  private volatile boolean cancelled;
+
+  /**
+   * Whether the subscriber has been signalled completion or an error,
+   * only accessed while draining.
+   */
+  private boolean terminated;
+
+  private JsonpProcessor(Converter<? super S, ? extends T> converter, Executor executor, int batchSize) {
+    Objects.requireNonNull(executor, "executor");
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be positive");
+    }
+    this.converter = converter;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.queue = new ConcurrentLinkedQueue<>();
+    this.wip = new AtomicInteger();
+    this.requested = new AtomicLong();
+    this.upstream = new AtomicReference<>();
+    this.downstream = new AtomicReference<>();
+  }
+
+  /**
+   * Creates a processor that binds JSON-P values using an
+   * {@link ObjectReader} by streaming their tokens.
+   *
+   * @param <T> the type of the bound values
+   * @param reader the reader to use, not {@code null}
+   * @param executor the executor to convert and deliver on, not {@code null}
+   * @param batchSize the maximum number of values to convert in one batch
+   *                  and to request ahead from upstream, positive
+   * @return the processor, not {@code null}
+   * @see JsonpBridge#readValue(ObjectReader, JsonValue)
+   */
+  public static <T> JsonpProcessor<JsonValue, T> reading(ObjectReader reader, Executor executor, int batchSize) {
+    Objects.requireNonNull(reader, "reader");
+    JsonpBridge bridge = JsonpBridge.getDefault();
+    return new JsonpProcessor<>(value -> bridge.<T>readValue(reader, value), executor, batchSize);
+  }
+
+  /**
+   * Creates a processor that converts values to JSON-P using an
+   * {@link ObjectWriter} in a single pass.
+   *
+   * @param <S> the type of the converted values
+   * @param writer the writer to use, not {@code null}
+   * @param executor the executor to convert and deliver on, not {@code null}
+   * @param batchSize the maximum number of values to convert in one batch
+   *                  and to request ahead from upstream, positive
+   * @return the processor, not {@code null}
+   * @see JacksonValueAdapter#writeValue(ObjectWriter, Object)
+   */
+  public static <S> JsonpProcessor<S, JsonValue> writing(ObjectWriter writer, Executor executor, int batchSize) {
+    Objects.requireNonNull(writer, "writer");
+    return new JsonpProcessor<>(value -> JacksonValueAdapter.writeValue(writer, value), executor, batchSize);
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    Objects.requireNonNull(subscription, "subscription");
+    if (!this.upstream.compareAndSet(null, subscription)) {
+      subscription.cancel();
+      return;
+    }
+    if (this.cancelled) {
+      subscription.cancel();
+      return;
+    }
+    subscription.request(this.batchSize);
+  }
+
+  @Override
+  public void onNext(S item) {
+    Objects.requireNonNull(item, "item");
+    this.queue.offer(item);
+    this.schedule();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable, "throwable");
+    this.error = throwable;
+    this.done = true;
+    this.schedule();
+  }
+
+  @Override
+  public void onComplete() {
+    this.done = true;
+    this.schedule();
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    if (!this.downstream.compareAndSet(null, subscriber)) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+
+        @Override
+        public void request(long n) {
+          // ignored
+        }
+
+        @Override
+        public void cancel() {
+          // ignored
+        }
+
+      });
+      subscriber.onError(new IllegalStateException("only a single subscriber is supported"));
+      return;
+    }
+    subscriber.onSubscribe(new Flow.Subscription() {
+
+      @Override
+      public void request(long n) {
+        JsonpProcessor.this.request(n);
+      }
+
+      @Override
+      public void cancel() {
+        JsonpProcessor.this.cancel();
+      }
+
+    });
+    this.schedule();
+  }
+
+  private void request(long n) {
+    if (n <= 0L) {
+      this.error = new IllegalArgumentException("non-positive request: " + n);
+      this.cancelUpstream();
+      this.done = true;
+      this.queue.clear();
+    } else {
+      this.requested.getAndAccumulate(n, JsonpProcessor::addCapped);
+    }
+    this.schedule();
+  }
+
+  private static long addCapped(long current, long n) {
+    long sum = current + n;
+    return sum < 0L ? Long.MAX_VALUE : sum;
+  }
+
+  private void cancel() {
+    this.cancelled = true;
+    this.cancelUpstream();
+    this.schedule();
+  }
+
+  private void cancelUpstream() {
+    Flow.Subscription subscription = this.upstream.get();
+    if (subscription != null) {
+      subscription.cancel();
+    }
+  }
+
+  private void schedule() {
+    if (this.wip.getAndIncrement() == 0) {
+      this.executor.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    int missed = 1;
+    List<S> batch = new ArrayList<>(this.batchSize);
+    do {
+      Flow.Subscriber<? super T> subscriber = this.downstream.get();
+      if (this.cancelled || this.terminated) {
+        this.queue.clear();
+      } else if (subscriber != null) {
+        this.deliver(subscriber, batch);
+      }
+      missed = this.wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Converts and delivers batches until the demand is satisfied or the
+   * queue is empty.
+   */
+  private void deliver(Flow.Subscriber<? super T> subscriber, List<S> batch) {
+    long demand = this.requested.get();
+    long emitted = 0L;
+    while (true) {
+      if (this.cancelled) {
+        this.queue.clear();
+        return;
+      }
+      // read before polling so that no item is missed before completion
+      boolean upstreamDone = this.done;
+      long limit = Math.min(this.batchSize, demand - emitted);
+      batch.clear();
+      S item;
+      while ((batch.size() < limit) && ((item = this.queue.poll()) != null)) {
+        batch.add(item);
+      }
+      if (batch.isEmpty()) {
+        if (upstreamDone && ((this.error != null) || this.queue.isEmpty())) {
+          this.terminate(subscriber);
+        }
+        break;
+      }
+      if (!this.convert(subscriber, batch)) {
+        return;
+      }
+      emitted += batch.size();
+      Flow.Subscription subscription = this.upstream.get();
+      if (subscription != null && !upstreamDone) {
+        subscription.request(batch.size());
+      }
+    }
+    if ((emitted != 0L) && (demand != Long.MAX_VALUE)) {
+      this.requested.addAndGet(-emitted);
+    }
+  }
+
+  /**
+   * Converts a batch and delivers the converted items.
+   *
+   * @return whether the whole batch was converted
+   */
+  private boolean convert(Flow.Subscriber<? super T> subscriber, List<S> batch) {
+    List<T> converted = new ArrayList<>(batch.size());
+    Exception failure = null;
+    for (S item : batch) {
+      try {
+        converted.add(this.converter.convert(item));
+      } catch (IOException | RuntimeException e) {
+        failure = e;
+        break;
+      }
+    }
+    for (T each : converted) {
+      subscriber.onNext(each);
+    }
+    if (failure != null) {
+      this.cancelled = true;
+      this.cancelUpstream();
+      this.queue.clear();
+      this.terminated = true;
+      subscriber.onError(failure);
+      return false;
+    }
+    return true;
+  }
+
+  private void terminate(Flow.Subscriber<? super T> subscriber) {
+    this.terminated = true;
+    Throwable throwable = this.error;
+    if (throwable != null) {
+      subscriber.onError(throwable);
+    } else {
+      subscriber.onComplete();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "JsonpProcessor[batchSize=" + this.batchSize + ", queued=" + this.queue.size() + ']';
+  }
+
+  /**
+   * Converts a single item.
+   *
+   * @param <S> the type of the consumed items
+   * @param <T> the type of the produced items
+   */
+  @FunctionalInterface
+  interface Converter<S, T> {
+
+    T convert(S item) throws IOException;
+
+  }
+
+}
@@ -0,0 +1,33 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the serialization of a JSON-P value or an
+ * adapted node.
+ */
+@Name("com.github.marschall.jacksonjaxpbridge.Serialize")
+@Label("JSON-P Serialize")
+@Category("Jackson JAX-P Bridge")
+@Description("Serialization of a JSON-P value")
+final class JsonpSerializeEvent extends jdk.jfr.Event {
+
+  @Label("Value Type")
+  String valueType;
+
+  @Label("Size")
+  @Description("Number of members or elements of the root")
+  int size;
+
+  @Label("Node Count")
+  @Description("Number of written values")
+  int nodeCount;
+
+  @Label("Depth")
+  @Description("Maximum nesting depth")
+  int depth;
+
+}
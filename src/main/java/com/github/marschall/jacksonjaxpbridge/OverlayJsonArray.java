@@ -0,0 +1,143 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonValue;
+
+/**
+ * {@link JsonArray} that records changes on top of an unmodified base array.
+ * <p>
+ * Replacing and appending elements costs the same no matter the size of
+ * the base array. The first insertion or removal copies the references
+ * to the elements once, the elements themselves are never copied.
+ */
+final class OverlayJsonArray extends AbstractJsonArray {
+
+  /**
+   * The array this overlay was created on, {@code null} for a copy.
+   */
+  private final JsonArray origin;
+
+  /**
+   * The unmodified base array, {@code null} once the elements have been copied.
+   */
+  private JsonArray base;
+
+  /**
+   * Replaced elements of the base array by index.
+   */
+  private Map<Integer, JsonValue> replaced;
+
+  /**
+   * Elements appended after the base array, all elements once they have
+   * been copied.
+   */
+  private List<JsonValue> elements;
+
+  OverlayJsonArray(JsonArray base) {
+    this(base, base, new HashMap<>(), new ArrayList<>());
+  }
+
+  private OverlayJsonArray(JsonArray origin, JsonArray base, Map<Integer, JsonValue> replaced, List<JsonValue> elements) {
+    this.origin = origin;
+    this.base = base;
+    this.replaced = replaced;
+    this.elements = elements;
+  }
+
+  /**
+   * Creates an independent copy that shares all immutable values, only
+   * the changes are copied.
+   */
+  OverlayJsonArray copy() {
+    Map<Integer, JsonValue> replacedCopy = new HashMap<>(this.replaced);
+    // changed children may be overlays themselves
+    replacedCopy.replaceAll((index, value) -> JacksonValueAdapter.copyMutable(value));
+    List<JsonValue> elementsCopy = new ArrayList<>(this.elements.size());
+    for (JsonValue element : this.elements) {
+      elementsCopy.add(JacksonValueAdapter.copyMutable(element));
+    }
+    JsonArray baseCopy = this.base != null ? (JsonArray) JacksonValueAdapter.copyMutable(this.base) : null;
+    return new OverlayJsonArray(null, baseCopy, replacedCopy, elementsCopy);
+  }
+
+  /**
+   * Returns the array this overlay was created on.
+   *
+   * @return the original array, {@code null} for a copy
+   */
+  JsonArray getOrigin() {
+    return this.origin;
+  }
+
+  private int baseSize() {
+    return this.base != null ? this.base.size() : 0;
+  }
+
+  @Override
+  public JsonValue get(int index) {
+    int baseSize = this.baseSize();
+    if ((index >= 0) && (index < baseSize)) {
+      JsonValue value = this.replaced.get(index);
+      return value != null ? value : this.base.get(index);
+    }
+    return this.elements.get(index - baseSize);
+  }
+
+  @Override
+  public int size() {
+    return this.baseSize() + this.elements.size();
+  }
+
+  /**
+   * Replaces an element.
+   *
+   * @return the previous element
+   */
+  JsonValue setElement(int index, JsonValue element) {
+    int baseSize = this.baseSize();
+    if ((index >= 0) && (index < baseSize)) {
+      JsonValue previous = this.replaced.put(index, element);
+      return previous != null ? previous : this.base.get(index);
+    }
+    return this.elements.set(index - baseSize, element);
+  }
+
+  void append(JsonValue element) {
+    this.elements.add(element);
+  }
+
+  void insert(int index, JsonValue element) {
+    this.copyElements();
+    this.elements.add(index, element);
+  }
+
+  JsonValue removeElement(int index) {
+    this.copyElements();
+    return this.elements.remove(index);
+  }
+
+  /**
+   * Removes all elements.
+   */
+  void removeAllElements() {
+    this.base = null;
+    this.replaced = Map.of();
+    this.elements = new ArrayList<>();
+  }
+
+  private void copyElements() {
+    if (this.base != null) {
+      List<JsonValue> copy = new ArrayList<>(this.size() + 1);
+      copy.addAll(this);
+      this.base = null;
+      this.replaced = Map.of();
+      this.elements = copy;
+    }
+  }
+
+}
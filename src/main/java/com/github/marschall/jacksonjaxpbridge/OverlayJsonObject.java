@@ -0,0 +1,217 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+/**
+ * {@link JsonObject} that records changes on top of an unmodified base object.
+ * <p>
+ * Replaced members keep their position, added members come after all
+ * members of the base object. The cost of a change is independent of the
+ * size of the base object.
+ */
+final class OverlayJsonObject extends AbstractJsonObject {
+
+  /**
+   * The object this overlay was created on, {@code null} for a copy.
+   */
+  private final JsonObject origin;
+
+  private JsonObject base;
+
+  /**
+   * Changed members in the order they were added, {@code null} for a
+   * member of the base object that was removed.
+   */
+  private final Map<String, JsonValue> changes;
+
+  /**
+   * Number of members added or removed relative to the base object.
+   */
+  private int sizeDelta;
+
+  OverlayJsonObject(JsonObject base) {
+    this(base, base, new LinkedHashMap<>(), 0);
+  }
+
+  private OverlayJsonObject(JsonObject origin, JsonObject base, Map<String, JsonValue> changes, int sizeDelta) {
+    this.origin = origin;
+    this.base = base;
+    this.changes = changes;
+    this.sizeDelta = sizeDelta;
+  }
+
+  /**
+   * Creates an independent copy that shares all immutable values, only
+   * the changes are copied.
+   */
+  OverlayJsonObject copy() {
+    Map<String, JsonValue> changesCopy = new LinkedHashMap<>(this.changes);
+    for (Entry<String, JsonValue> entry : changesCopy.entrySet()) {
+      JsonValue value = entry.getValue();
+      if (value != null) {
+        // changed children may be overlays themselves
+        entry.setValue(JacksonValueAdapter.copyMutable(value));
+      }
+    }
+    return new OverlayJsonObject(null, (JsonObject) JacksonValueAdapter.copyMutable(this.base), changesCopy, this.sizeDelta);
+  }
+
+  /**
+   * Returns the object this overlay was created on.
+   *
+   * @return the original object, {@code null} for a copy
+   */
+  JsonObject getOrigin() {
+    return this.origin;
+  }
+
+  /**
+   * Sets a member.
+   *
+   * @return the previous value, {@code null} if none
+   */
+  JsonValue set(String name, JsonValue value) {
+    JsonValue previous = this.get(name);
+    this.changes.put(name, value);
+    if (previous == null) {
+      this.sizeDelta += 1;
+    }
+    return previous;
+  }
+
+  /**
+   * Removes a member.
+   *
+   * @return the previous value, {@code null} if none
+   */
+  JsonValue removeMember(String name) {
+    JsonValue previous = this.get(name);
+    if (previous == null) {
+      return null;
+    }
+    if (this.base.containsKey(name)) {
+      this.changes.put(name, null);
+    } else {
+      this.changes.remove(name);
+    }
+    this.sizeDelta -= 1;
+    return previous;
+  }
+
+  /**
+   * Removes all members.
+   */
+  void removeAllMembers() {
+    this.base = JsonValue.EMPTY_JSON_OBJECT;
+    this.changes.clear();
+    this.sizeDelta = 0;
+  }
+
+  @Override
+  public JsonValue get(Object key) {
+    if (this.changes.containsKey(key)) {
+      return this.changes.get(key);
+    }
+    return this.base.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return this.get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return this.base.size() + this.sizeDelta;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size() == 0;
+  }
+
+  @Override
+  public Set<Entry<String, JsonValue>> entrySet() {
+    return new AbstractSet<>() {
+
+      @Override
+      public Iterator<Entry<String, JsonValue>> iterator() {
+        return new MergingIterator();
+      }
+
+      @Override
+      public int size() {
+        return OverlayJsonObject.this.size();
+      }
+
+    };
+  }
+
+  /**
+   * Iterates over the members of the base object with their changes applied,
+   * followed by the added members.
+   */
+  final class MergingIterator implements Iterator<Entry<String, JsonValue>> {
+
+    private final Iterator<Entry<String, JsonValue>> baseIterator = OverlayJsonObject.this.base.entrySet().iterator();
+
+    private final Iterator<Entry<String, JsonValue>> changesIterator = OverlayJsonObject.this.changes.entrySet().iterator();
+
+    private Entry<String, JsonValue> next;
+
+    MergingIterator() {
+      this.next = this.computeNext();
+    }
+
+    private Entry<String, JsonValue> computeNext() {
+      Map<String, JsonValue> changes = OverlayJsonObject.this.changes;
+      while (this.baseIterator.hasNext()) {
+        Entry<String, JsonValue> entry = this.baseIterator.next();
+        String key = entry.getKey();
+        if (!changes.containsKey(key)) {
+          return entry;
+        }
+        JsonValue changed = changes.get(key);
+        if (changed != null) {
+          return new SimpleImmutableEntry<>(key, changed);
+        }
+        // removed
+      }
+      JsonObject base = OverlayJsonObject.this.base;
+      while (this.changesIterator.hasNext()) {
+        Entry<String, JsonValue> entry = this.changesIterator.next();
+        if (!base.containsKey(entry.getKey())) {
+          // do not expose the mutable entry of the map
+          return new SimpleImmutableEntry<>(entry);
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Entry<String, JsonValue> next() {
+      Entry<String, JsonValue> current = this.next;
+      if (current == null) {
+        throw new NoSuchElementException();
+      }
+      this.next = this.computeNext();
+      return current;
+    }
+
+  }
+
+}
@@ -0,0 +1,194 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterates over the elements of another iterator which are produced ahead
+ * of the consumer in a separate task.
+ * <p>
+ * The elements are handed over through a bounded queue, the producer
+ * blocks when the queue is full. Exceptions thrown by the source are
+ * rethrown to the consumer after all preceding elements. Closing waits
+ * for the producer to stop so that the source can be released safely
+ * afterwards.
+ *
+ * @param <E> the type of the elements
+ */
+final class ReadAhead<E> implements Iterator<E>, Runnable, AutoCloseable {
+
+  private static final Object END = new Object();
+
+  private final Iterator<? extends E> source;
+
+  private final BlockingQueue<Object> queue;
+
+  /**
+   * Set by the first of {@link #run()} and {@link #close()}, a producer
+   * that starts after closing does not touch the source.
+   */
+  private final AtomicBoolean started;
+
+  private final CountDownLatch finished;
+
+  private volatile boolean closed;
+
+  /**
+   * A failure of the source that could not be handed over because the
+   * consumer closed this iterator.
+   */
+  private volatile Throwable undelivered;
+
+  private Object next;
+
+  ReadAhead(Iterator<? extends E> source, int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.source = source;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.started = new AtomicBoolean();
+    this.finished = new CountDownLatch(1);
+  }
+
+  @Override
+  public void run() {
+    if (!this.started.compareAndSet(false, true)) {
+      // closed before the task ran
+      return;
+    }
+    try {
+      Object last = END;
+      try {
+        while (!this.closed && this.source.hasNext()) {
+          if (!this.put(this.source.next())) {
+            return;
+          }
+        }
+      } catch (RuntimeException | Error e) {
+        last = new Failure(e);
+      }
+      if (!this.put(last) && (last instanceof Failure failure)) {
+        this.undelivered = failure.cause();
+      }
+    } finally {
+      this.finished.countDown();
+    }
+  }
+
+  /**
+   * Hands an element over to the consumer.
+   *
+   * @return {@code false} if the consumer closed this iterator or the
+   *         producer was interrupted
+   */
+  private boolean put(Object element) {
+    try {
+      // poll the closed flag so that an abandoned producer terminates
+      while (!this.closed) {
+        if (this.queue.offer(element, 100L, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private Object take() throws InterruptedException {
+    while (true) {
+      Object element = this.queue.poll(100L, TimeUnit.MILLISECONDS);
+      if (element != null) {
+        return element;
+      }
+      if (this.finished.getCount() == 0L) {
+        // the last element may have been handed over after polling
+        element = this.queue.poll();
+        if (element != null) {
+          return element;
+        }
+        throw new IllegalStateException("reading ahead stopped without a result");
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (this.closed) {
+      return false;
+    }
+    if (this.next == null) {
+      try {
+        this.next = this.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted while waiting for the next element", e);
+      }
+    }
+    if (this.next instanceof Failure failure) {
+      this.next = END;
+      if (failure.cause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw (Error) failure.cause();
+    }
+    return this.next != END;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    E element = (E) this.next;
+    this.next = null;
+    return element;
+  }
+
+  /**
+   * Stops reading ahead and waits for the producer to stop, an element
+   * that is being produced is completed first.
+   *
+   * @throws RuntimeException if the source failed while closing
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    // unblock the producer
+    this.queue.clear();
+    if (this.started.compareAndSet(false, true)) {
+      return;
+    }
+    boolean interrupted = false;
+    while (true) {
+      try {
+        this.finished.await();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    Throwable failure = this.undelivered;
+    this.undelivered = null;
+    if (failure instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    } else if (failure instanceof Error error) {
+      throw error;
+    }
+  }
+
+  record Failure(Throwable cause) {
+
+  }
+
+}
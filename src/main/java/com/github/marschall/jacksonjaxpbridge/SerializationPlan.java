@@ -0,0 +1,226 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Map.Entry;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+
+/**
+ * Writes JAX-P values with the serialization features resolved once for
+ * a whole write instead of once per object.
+ * <p>
+ * There is one immutable instance per combination of features, writes
+ * with a {@link FieldNameCache} get their own instance.
+ */
+final class SerializationPlan {
+
+  private static final SerializationPlan UNFILTERED = new SerializationPlan(false, false);
+
+  private static final SerializationPlan TRIM_EMPTY_ARRAYS = new SerializationPlan(true, false);
+
+  private static final SerializationPlan SKIP_NULLS = new SerializationPlan(false, true);
+
+  private static final SerializationPlan TRIM_EMPTY_ARRAYS_SKIP_NULLS = new SerializationPlan(true, true);
+
+  /**
+   * Whether members with empty arrays as values are omitted, the inverse
+   * of {@link SerializationFeature#WRITE_EMPTY_JSON_ARRAYS}.
+   */
+  private final boolean trimEmptyArrays;
+
+  /**
+   * Whether members with null values are omitted, the inverse of
+   * {@link JsonNodeFeature#WRITE_NULL_PROPERTIES}.
+   */
+  private final boolean skipNulls;
+
+  /**
+   * The cache for field names, {@code null} if not cached.
+   */
+  private final FieldNameCache fieldNames;
+
+  /**
+   * The maximum nesting depth of objects and arrays.
+   */
+  private final int maxDepth;
+
+  /**
+   * The statistics of the current write, {@code null} if no event is recorded.
+   */
+  private final WalkStatistics statistics;
+
+  private SerializationPlan(boolean trimEmptyArrays, boolean skipNulls) {
+    this(trimEmptyArrays, skipNulls, null, Integer.MAX_VALUE, null);
+  }
+
+  private SerializationPlan(boolean trimEmptyArrays, boolean skipNulls, FieldNameCache fieldNames, int maxDepth, WalkStatistics statistics) {
+    this.trimEmptyArrays = trimEmptyArrays;
+    this.skipNulls = skipNulls;
+    this.fieldNames = fieldNames;
+    this.maxDepth = maxDepth;
+    this.statistics = statistics;
+  }
+
+  /**
+   * Resolves the features of a provider.
+   *
+   * @param provider the provider, possibly {@code null} in which case
+   *                 nothing is filtered
+   * @return the plan for the features of the provider
+   */
+  static SerializationPlan of(SerializerProvider provider) {
+    if (provider == null) {
+      return UNFILTERED;
+    }
+    boolean trimEmptyArrays = !provider.isEnabled(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS);
+    boolean skipNulls = !provider.isEnabled(JsonNodeFeature.WRITE_NULL_PROPERTIES);
+    if (provider.getAttribute(FieldNameCache.class) instanceof FieldNameCache fieldNames) {
+      return new SerializationPlan(trimEmptyArrays, skipNulls, fieldNames, Integer.MAX_VALUE, null);
+    }
+    if (trimEmptyArrays) {
+      return skipNulls ? TRIM_EMPTY_ARRAYS_SKIP_NULLS : TRIM_EMPTY_ARRAYS;
+    }
+    return skipNulls ? SKIP_NULLS : UNFILTERED;
+  }
+
+  /**
+   * Returns a plan that fails when objects and arrays are nested deeper
+   * than a given depth.
+   */
+  SerializationPlan withMaxDepth(int maxDepth) {
+    if (maxDepth == this.maxDepth) {
+      return this;
+    }
+    return new SerializationPlan(this.trimEmptyArrays, this.skipNulls, this.fieldNames, maxDepth, null);
+  }
+
+  /**
+   * Writes a value and records a {@link JsonpSerializeEvent}.
+   */
+  void serialize(JsonValue value, JsonGenerator g) throws IOException {
+    JsonpSerializeEvent event = new JsonpSerializeEvent();
+    if (!event.isEnabled()) {
+      this.serialize(value, g, 0);
+      return;
+    }
+    WalkStatistics walkStatistics = new WalkStatistics();
+    SerializationPlan recording = new SerializationPlan(this.trimEmptyArrays, this.skipNulls, this.fieldNames, this.maxDepth, walkStatistics);
+    event.begin();
+    recording.serialize(value, g, 0);
+    event.end();
+    if (event.shouldCommit()) {
+      event.valueType = value.getValueType().name();
+      event.size = JsonpNodeAdapter.size(value);
+      event.nodeCount = walkStatistics.nodeCount;
+      event.depth = walkStatistics.maxDepth;
+      event.commit();
+    }
+  }
+
+  private void serialize(JsonValue value, JsonGenerator g, int depth) throws IOException {
+    if (this.statistics != null) {
+      this.statistics.visit(depth);
+    }
+    switch (value.getValueType()) {
+      case ARRAY  -> {
+        JsonArray jsonArray = (JsonArray) value;
+        this.checkDepth(depth, g);
+        g.writeStartArray(value, jsonArray.size());
+        this.serializeElements(jsonArray, g, depth + 1);
+        g.writeEndArray();
+      }
+      case OBJECT -> {
+        this.checkDepth(depth, g);
+        g.writeStartObject(value);
+        this.serializeMembers((JsonObject) value, g, depth + 1);
+        g.writeEndObject();
+      }
+      case STRING -> g.writeString(((JsonString) value).getString());
+      case NUMBER -> serializeNumber((JsonNumber) value, g);
+      case TRUE   -> g.writeBoolean(true);
+      case FALSE  -> g.writeBoolean(false);
+      case NULL   -> g.writeNull();
+    }
+  }
+
+  /**
+   * Writes the elements of an array without the start and end marker.
+   */
+  void serializeElements(JsonArray jsonArray, JsonGenerator g) throws IOException {
+    this.serializeElements(jsonArray, g, 1);
+  }
+
+  private void serializeElements(JsonArray jsonArray, JsonGenerator g, int depth) throws IOException {
+    for (JsonValue element : jsonArray) {
+      this.serialize(element, g, depth);
+    }
+  }
+
+  /**
+   * Writes the members of an object without the start and end marker.
+   */
+  void serializeMembers(JsonObject jsonObject, JsonGenerator g) throws IOException {
+    this.serializeMembers(jsonObject, g, 1);
+  }
+
+  private void serializeMembers(JsonObject jsonObject, JsonGenerator g, int depth) throws IOException {
+    for (Entry<String, JsonValue> entry : jsonObject.entrySet()) {
+      JsonValue value = entry.getValue();
+      if (this.isFiltered(value)) {
+        continue;
+      }
+      if (this.fieldNames != null) {
+        g.writeFieldName(this.fieldNames.get(entry.getKey()));
+      } else {
+        g.writeFieldName(entry.getKey());
+      }
+      this.serialize(value, g, depth);
+    }
+  }
+
+  private void checkDepth(int depth, JsonGenerator g) throws JsonGenerationException {
+    if (depth >= this.maxDepth) {
+      throw new JsonGenerationException("Maximum nesting depth of " + this.maxDepth + " exceeded", g);
+    }
+  }
+
+  private boolean isFiltered(JsonValue value) {
+    ValueType valueType = value.getValueType();
+    if (this.skipNulls && (valueType == ValueType.NULL)) {
+      return true;
+    }
+    return this.trimEmptyArrays && (valueType == ValueType.ARRAY) && ((JsonArray) value).isEmpty();
+  }
+
+  /**
+   * Writes the number in the representation it already has instead of
+   * converting it to a {@link java.math.BigDecimal}.
+   */
+  private static void serializeNumber(JsonNumber jsonNumber, JsonGenerator g) throws IOException {
+    Number number = jsonNumber.numberValue();
+    if (number instanceof Integer intValue) {
+      g.writeNumber(intValue.intValue());
+    } else if (number instanceof Long longValue) {
+      g.writeNumber(longValue.longValue());
+    } else if (number instanceof Double doubleValue) {
+      g.writeNumber(doubleValue.doubleValue());
+    } else if (number instanceof BigInteger bigInteger) {
+      g.writeNumber(bigInteger);
+    } else {
+      g.writeNumber(jsonNumber.bigDecimalValue());
+    }
+  }
+
+}
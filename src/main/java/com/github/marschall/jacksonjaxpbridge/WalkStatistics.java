@@ -0,0 +1,20 @@
+package com.github.marschall.jacksonjaxpbridge;
+
+/**
+ * Counts the nodes visited by a walk over a value and their maximum depth,
+ * only used when an event is recorded.
+ */
+final class WalkStatistics {
+
+  int nodeCount;
+
+  int maxDepth;
+
+  void visit(int depth) {
+    this.nodeCount += 1;
+    if (depth > this.maxDepth) {
+      this.maxDepth = depth;
+    }
+  }
+
+}
@@ -1,28 +1,81 @@
 package com.github.marschall.jacksonjaxpbridge;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
-import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
 import javax.json.JsonReader;
+import javax.json.JsonString;
 import javax.json.JsonStructure;
 import javax.json.JsonValue;
+import javax.json.JsonValue.ValueType;
+import javax.json.JsonWriter;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser.Event;
+import javax.json.stream.JsonParsingException;
 
+import org.glassfish.json.JsonProviderImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonGenerationException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 class ObjectMapperTests {
 
+  /**
+   * Test values are created with the reference implementation, like the values applications pass in.
+   */
+  private static final JsonProvider REFERENCE = new JsonProviderImpl();
+
   private static final String JSON = """
       {
         "projectId": "ABC-123-4",
@@ -53,7 +106,7 @@ class ObjectMapperTests {
   @Test
   void customParser() throws JacksonException, IOException {
     // Setup JSON-P
-    JsonReader jsonReader = Json.createReader(new StringReader(JSON));
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader(JSON));
     JsonStructure jaxpNode = jsonReader.read();
 
     // Adapt to Jackson
@@ -64,6 +117,163 @@ class ObjectMapperTests {
     assertProject(project);
   }
 
+  @Test
+  void memoizingParser() throws JacksonException, IOException {
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader(JSON));
+    JsonStructure jaxpNode = jsonReader.read();
+
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory(), true);
+    JsonNode members = jacksonNode.get("members");
+    assertSame(members, jacksonNode.path("members"));
+    Iterator<JsonNode> elements = jacksonNode.elements();
+    elements.next(); // projectId
+    assertSame(members, elements.next());
+    assertSame(members.get(0), members.elements().next());
+
+    ObjectReader objectReader = this.objectMapper.readerFor(Project.class);
+    Project project = objectReader.readValue(jacksonNode);
+    assertProject(project);
+  }
+
+  @Test
+  void directParser() throws IOException {
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader(JSON));
+    JsonStructure jaxpNode = jsonReader.read();
+
+    ObjectReader objectReader = this.objectMapper.readerFor(Project.class);
+    Project project = JsonpNodeAdapter.readValue(objectReader, jaxpNode);
+    assertProject(project);
+  }
+
+  @Test
+  void streamingParser() throws IOException {
+    javax.json.stream.JsonParser jsonParser = REFERENCE.createParser(new StringReader("[" + JSON + ", " + JSON + "]"));
+
+    ObjectReader objectReader = this.objectMapper.readerFor(Project.class);
+    try (JsonParser parser = JsonpNodeAdapter.parser(jsonParser, objectReader)) {
+      assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+      assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+      assertProject(parser.readValueAs(Project.class));
+
+      assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+      JsonNode tree = parser.readValueAsTree();
+      assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+      assertEquals("Joe", tree.get("members").get(1).asText());
+      assertProject(objectReader.readValue(tree));
+
+      assertEquals(JsonToken.END_ARRAY, parser.nextToken());
+      assertNull(parser.nextToken());
+    }
+  }
+
+  @Test
+  void directParserTokens() throws IOException {
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader("""
+        {
+          "skipped": {"a": [1, 2, {"b": null}]},
+          "int": 1,
+          "long": 9223372036854775807,
+          "bigInteger": 9223372036854775808,
+          "decimal": 1.5
+        }
+        """));
+    JsonStructure jaxpNode = jsonReader.read();
+
+    try (JsonParser parser = JsonpNodeAdapter.parser(jaxpNode, this.objectMapper)) {
+      assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+      assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+      assertEquals("skipped", parser.getCurrentName());
+      assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+      parser.skipChildren();
+      assertEquals(JsonToken.END_OBJECT, parser.currentToken());
+
+      assertEquals("int", parser.nextFieldName());
+      assertEquals(JsonToken.VALUE_NUMBER_INT, parser.nextToken());
+      assertEquals(NumberType.INT, parser.getNumberType());
+      assertEquals(1, parser.getIntValue());
+
+      assertEquals("long", parser.nextFieldName());
+      parser.nextToken();
+      assertEquals(NumberType.LONG, parser.getNumberType());
+      assertEquals(Long.MAX_VALUE, parser.getLongValue());
+
+      assertEquals("bigInteger", parser.nextFieldName());
+      parser.nextToken();
+      assertEquals(NumberType.BIG_INTEGER, parser.getNumberType());
+      assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), parser.getBigIntegerValue());
+
+      assertEquals("decimal", parser.nextFieldName());
+      assertEquals(JsonToken.VALUE_NUMBER_FLOAT, parser.nextToken());
+      assertEquals(1.5d, parser.getDoubleValue());
+
+      assertEquals(JsonToken.END_OBJECT, parser.nextToken());
+      assertNull(parser.nextToken());
+    }
+  }
+
+  @Test
+  void adaptedNumbers() throws IOException {
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader("""
+        {
+          "intValue": 1,
+          "longValue": 9223372036854775807,
+          "bigIntegerValue": 9223372036854775808,
+          "doubleValue": 1.5
+        }
+        """));
+    JsonValue jaxpNode = jsonReader.read();
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory());
+
+    assertEquals(NumberType.INT, jacksonNode.get("intValue").numberType());
+    assertEquals(NumberType.LONG, jacksonNode.get("longValue").numberType());
+    assertEquals(NumberType.BIG_INTEGER, jacksonNode.get("bigIntegerValue").numberType());
+    assertEquals(NumberType.BIG_DECIMAL, jacksonNode.get("doubleValue").numberType());
+    assertEquals(1.5d, jacksonNode.get("doubleValue").doubleValue());
+    assertEquals(this.objectMapper.getNodeFactory().numberNode(1).hashCode(), jacksonNode.get("intValue").hashCode());
+
+    // integers that fit into a long are equal to the nodes Jackson creates, no matter the factory
+    for (JsonNodeFactory nodeFactory : List.of(this.objectMapper.getNodeFactory(), new CachingJsonNodeFactory(16, 8))) {
+      JsonNode adapted = JsonpNodeAdapter.adapt(jaxpNode, nodeFactory);
+      assertEquals(IntNode.valueOf(1), adapted.get("intValue"));
+      assertEquals(adapted.get("intValue"), IntNode.valueOf(1));
+      assertEquals(LongNode.valueOf(Long.MAX_VALUE), adapted.get("longValue"));
+      assertEquals(adapted.get("longValue"), LongNode.valueOf(Long.MAX_VALUE));
+    }
+
+    Numbers numbers = this.objectMapper.readerFor(Numbers.class).readValue(jacksonNode);
+    assertEquals(1, numbers.intValue);
+    assertEquals(Long.MAX_VALUE, numbers.longValue);
+    assertEquals(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE), numbers.bigIntegerValue);
+    assertEquals(1.5d, numbers.doubleValue);
+  }
+
+  @Test
+  void generator() throws IOException {
+    Project project = new Project();
+    project.setProjectId("ABC-123-4");
+    project.setMembers(List.of("Jack", "Joe"));
+
+    JsonValue jaxpNode = JacksonValueAdapter.writeValue(this.objectMapper.writer(), project);
+
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader(JSON));
+    JsonObject expected = jsonReader.readObject();
+    assertEquals(expected, jaxpNode);
+    assertEquals(jaxpNode, expected);
+    assertEquals(expected.hashCode(), jaxpNode.hashCode());
+    assertEquals("ABC-123-4", jaxpNode.asJsonObject().getString("projectId"));
+    assertEquals(expected.toString(), jaxpNode.toString());
+  }
+
+  @Test
+  void generatorNumbers() throws IOException {
+    JsonValueGenerator generator = new JsonValueGenerator(this.objectMapper);
+    this.objectMapper.writeValue(generator, List.of(1, Long.MAX_VALUE, 1.5d, new BigInteger("9223372036854775808")));
+    JsonValue jaxpNode = generator.getValue();
+
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader("[1, 9223372036854775807, 1.5, 9223372036854775808]"));
+    assertEquals(jsonReader.readArray(), jaxpNode);
+  }
+
   @Test
   void adaptOutput() {
     Project project = new Project();
@@ -72,6 +282,740 @@ class ObjectMapperTests {
 
     JsonNode jacksonNode = this.objectMapper.valueToTree(project);
     JsonValue jaxpNode = JacksonValueAdapter.adapt(jacksonNode);
+
+    JsonReader jsonReader = REFERENCE.createReader(new StringReader(JSON));
+    JsonObject expected = jsonReader.readObject();
+    assertEquals(expected, jaxpNode);
+    assertEquals(jaxpNode, expected);
+    assertEquals(expected.hashCode(), jaxpNode.hashCode());
+    assertEquals(expected.toString(), jaxpNode.toString());
+    assertEquals("Joe", jaxpNode.asJsonObject().getJsonArray("members").getString(1));
+  }
+
+  @Test
+  void adaptOutputScalars() {
+    ObjectNode jacksonNode = this.objectMapper.createObjectNode()
+        .put("decimal", new BigDecimal("1.5"))
+        .put("binary", new byte[] {1, 2, 3})
+        .putPOJO("pojo", "value");
+    JsonObject jaxpNode = JacksonValueAdapter.adapt(jacksonNode).asJsonObject();
+
+    assertEquals(ValueType.NUMBER, jaxpNode.get("decimal").getValueType());
+    assertEquals(new BigDecimal("1.5"), jaxpNode.getJsonNumber("decimal").bigDecimalValue());
+    assertEquals("AQID", jaxpNode.getString("binary"));
+    assertEquals("value", jaxpNode.getString("pojo"));
+    assertNull(jaxpNode.get("missing"));
+  }
+
+  @Test
+  void jacksonBackedJsonpParser() throws IOException {
+    String json = """
+        {
+          "skipped": [1, {"a": 2}],
+          "project": %s,
+          "members": ["Jack", "Joe"],
+          "count": 9223372036854775808
+        }
+        """.formatted(JSON);
+    try (javax.json.stream.JsonParser parser = JacksonValueAdapter.parser(this.objectMapper.createParser(json))) {
+      assertEquals(Event.START_OBJECT, parser.next());
+      assertEquals(Event.KEY_NAME, parser.next());
+      assertEquals("skipped", parser.getString());
+      assertEquals(Event.START_ARRAY, parser.next());
+      parser.skipArray();
+
+      assertEquals(Event.KEY_NAME, parser.next());
+      assertEquals(Event.START_OBJECT, parser.next());
+      JsonObject project = parser.getObject();
+      assertEquals("ABC-123-4", project.getString("projectId"));
+      assertEquals(2, project.getJsonArray("members").size());
+
+      assertEquals(Event.KEY_NAME, parser.next());
+      assertEquals(Event.START_ARRAY, parser.next());
+      assertEquals(List.of("Jack", "Joe"), parser.getArrayStream()
+          .map(value -> ((JsonString) value).getString())
+          .toList());
+
+      assertEquals(Event.KEY_NAME, parser.next());
+      assertEquals(Event.VALUE_NUMBER, parser.next());
+      assertTrue(parser.isIntegralNumber());
+      assertEquals(Long.MIN_VALUE, parser.getLong());
+
+      assertEquals(Event.END_OBJECT, parser.next());
+      assertFalse(parser.hasNext());
+    }
+  }
+
+  @Test
+  void module() throws IOException {
+    ObjectMapper mapper = new ObjectMapper().registerModule(new JsonpBridgeModule());
+    String json = """
+        {
+          "type": "project",
+          "payload": %s
+        }
+        """.formatted(JSON);
+    JsonObject jaxpNode = REFERENCE.createReader(new StringReader(json)).readObject();
+
+    ObjectReader objectReader = mapper.readerFor(Envelope.class);
+    Envelope envelope = JsonpNodeAdapter.readValue(objectReader, jaxpNode);
+    assertEquals("project", envelope.type);
+    assertSame(jaxpNode.get("payload"), envelope.payload);
+
+    Envelope copy = objectReader.readValue(mapper.writeValueAsString(envelope));
+    assertEquals("project", copy.type);
+    assertEquals(envelope.payload, copy.payload);
+    assertEquals(JsonValue.NULL, mapper.readValue("{\"type\": null, \"payload\": null}", JsonValue.class)
+        .asJsonObject().get("payload"));
+  }
+
+  @Test
+  void pointer() {
+    JsonObject jaxpNode = REFERENCE.createReader(new StringReader("""
+        {
+          "a": {"b": [0, 1, 2, {"c/d": "value"}]}
+        }
+        """)).readObject();
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory());
+
+    JsonpPointer pointer = JsonpPointer.compile("/a/b/3/c~1d");
+    assertEquals("value", pointer.at(jacksonNode).asText());
+    assertEquals(jacksonNode.at("/a/b/3/c~1d"), pointer.at(jacksonNode));
+    assertEquals("value", ((JsonString) pointer.at(jaxpNode)).getString());
+    assertTrue(JsonpPointer.compile("/a/b/4").at(jacksonNode).isMissingNode());
+    assertNull(JsonpPointer.compile("/a/x/0").at(jaxpNode));
+    assertSame(jacksonNode, JsonpPointer.compile("").at(jacksonNode));
+  }
+
+  @Test
+  void find() throws IOException {
+    String json = """
+        {
+          "x": [{"a": 1}, {"b": {"a": 2}}],
+          "a": 3
+        }
+        """;
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(REFERENCE.createReader(new StringReader(json)).read(),
+        this.objectMapper.getNodeFactory());
+    JsonNode expected = this.objectMapper.readTree(json);
+
+    // adapted nodes are only equal to adapted nodes, compare structurally
+    assertTrue(JsonValueEquality.equivalent(expected.findValue("a"), jacksonNode.findValue("a")));
+    assertTrue(JsonValueEquality.equivalent(expected.findParent("a"), jacksonNode.findParent("a")));
+    // lists compare their elements with equals, compare as text
+    assertEquals(expected.findValues("a").toString(), jacksonNode.findValues("a").toString());
+    assertEquals(expected.findParents("a").toString(), jacksonNode.findParents("a").toString());
+    assertEquals(expected.findValuesAsText("a"), jacksonNode.findValuesAsText("a"));
+    assertNull(jacksonNode.findValue("missing"));
+
+    JsonNode indexedNode = JsonpNodeAdapter.adapt(REFERENCE.createReader(new StringReader(json)).read(),
+        this.objectMapper.getNodeFactory(), false, true);
+    assertEquals(expected.findValues("a").toString(), indexedNode.findValues("a").toString());
+    assertEquals(expected.findParents("a").toString(), indexedNode.findParents("a").toString());
+    assertEquals(expected.findValuesAsText("b").toString(), indexedNode.findValuesAsText("b").toString());
+    assertEquals(expected.get("x").findValues("a").toString(), indexedNode.get("x").findValues("a").toString());
+    assertEquals(expected.get("x").findParent("a").toString(), indexedNode.get("x").findParent("a").toString());
+    assertNull(indexedNode.get("x").findValue("missing"));
+
+    JsonValue deep = REFERENCE.createObjectBuilder().add("a", 1).build();
+    for (int i = 0; i < 100_000; i++) {
+      deep = new ImmutableJsonArray(List.of(deep));
+    }
+    JsonNode deepNode = JsonpNodeAdapter.adapt(deep, this.objectMapper.getNodeFactory());
+    assertEquals(1, deepNode.findValue("a").intValue());
+  }
+
+  @Test
+  void parallel() throws IOException {
+    JsonArrayBuilder builder = REFERENCE.createArrayBuilder();
+    for (int i = 0; i < 100; i++) {
+      builder.add(REFERENCE.createObjectBuilder()
+          .add("id", i)
+          .add("child", REFERENCE.createObjectBuilder().add("id", -i)));
+    }
+    JsonArray jaxpNode = builder.build();
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory());
+    JsonpParallel parallel = new JsonpParallel(ForkJoinPool.commonPool(), 7);
+
+    assertEquals(jacksonNode.findValues("id"), parallel.findValues(jacksonNode, "id"));
+    assertEquals(jacksonNode.findValuesAsText("id"), parallel.findValuesAsText(jacksonNode, "id"));
+    assertEquals(jacksonNode.findParents("id").size(), parallel.findParents(jacksonNode, "id").size());
+    assertEquals(jacksonNode.findValue("id"), parallel.findValue(jacksonNode, "id"));
+    assertNull(parallel.findParent(jacksonNode, "missing"));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    parallel.writeValue(jaxpNode, this.objectMapper.writer(), out);
+    assertEquals(this.objectMapper.writeValueAsString(jacksonNode), out.toString(StandardCharsets.UTF_8));
+
+    FieldNameCache fieldNames = new FieldNameCache(16);
+    ObjectWriter writer = this.objectMapper.writer()
+        .without(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS)
+        .withAttribute(FieldNameCache.class, fieldNames);
+    JsonArray withEmpty = REFERENCE.createArrayBuilder(jaxpNode)
+        .add(REFERENCE.createObjectBuilder().add("empty", JsonValue.EMPTY_JSON_ARRAY))
+        .build();
+    out.reset();
+    parallel.writeValue(withEmpty, writer, out);
+    assertEquals(writer.writeValueAsString(JsonpNodeAdapter.adapt(withEmpty, this.objectMapper.getNodeFactory())), out.toString(StandardCharsets.UTF_8));
+    assertTrue(fieldNames.getHitCount() > 0L);
+
+    ObjectWriter prettyWriter = this.objectMapper.writerWithDefaultPrettyPrinter();
+    out.reset();
+    parallel.writeValue(jaxpNode, prettyWriter, out);
+    assertEquals(prettyWriter.writeValueAsString(jacksonNode), out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void mutation() throws IOException {
+    JsonObject jaxpNode = REFERENCE.createReader(new StringReader(JSON)).readObject();
+    JsonObjectNode jacksonNode = (JsonObjectNode) JsonpNodeAdapter.adapt(jaxpNode,
+        this.objectMapper.getNodeFactory(), true);
+    JsonArrayNode members = (JsonArrayNode) jacksonNode.get("members");
+
+    jacksonNode.put("projectId", "XYZ-987-6")
+      .put("size", 3)
+      .putNull("owner");
+    assertTrue(jacksonNode.replace("owner", this.objectMapper.getNodeFactory().textNode("Jim")).isNull());
+    members.add("Jim").insert(0, this.objectMapper.getNodeFactory().textNode("Jane"));
+    assertEquals("Joe", members.set(2, null).asText());
+    assertEquals("Jack", members.remove(1).asText());
+    assertNull(members.remove(5));
+    assertNull(jacksonNode.remove("missing"));
+    assertEquals(3, jacksonNode.remove("size").intValue());
+
+    // the original value is unchanged
+    assertEquals("ABC-123-4", jaxpNode.getString("projectId"));
+    assertEquals(2, jaxpNode.getJsonArray("members").size());
+
+    String expected = """
+        {"projectId":"XYZ-987-6","members":["Jane",null,"Jim"],"owner":"Jim"}""";
+    assertEquals(expected, this.objectMapper.writeValueAsString(jacksonNode));
+    assertEquals(expected, jacksonNode.toString());
+    Iterator<String> fieldNames = jacksonNode.fieldNames();
+    assertEquals("projectId", fieldNames.next());
+    assertEquals("members", fieldNames.next());
+    assertEquals("owner", fieldNames.next());
+    assertFalse(fieldNames.hasNext());
+    assertEquals(3, members.size());
+    assertSame(members, jacksonNode.get("members"));
+
+    // changes to children are visible without memoization
+    JsonNode unmemoized = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory());
+    ((JsonArrayNode) unmemoized.get("members")).add(true);
+    assertEquals(3, unmemoized.get("members").size());
+
+    // changes to elements are visible after siblings have been inserted or removed
+    JsonArray elements = REFERENCE.createReader(new StringReader("""
+        [{"i":0},{"i":1},{"i":2}]""")).readArray();
+    for (boolean memoizeChildren : List.of(false, true)) {
+      JsonArrayNode array = (JsonArrayNode) JsonpNodeAdapter.adapt(elements,
+          this.objectMapper.getNodeFactory(), memoizeChildren);
+      JsonObjectNode second = (JsonObjectNode) array.get(1);
+      JsonObjectNode third = (JsonObjectNode) array.get(2);
+      array.remove(0);
+      third.put("x", 1);
+      array.insert(0, this.objectMapper.getNodeFactory().textNode("new"));
+      second.put("y", 2);
+      assertEquals("""
+          ["new",{"i":1,"y":2},{"i":2,"x":1}]""", array.toString());
+      if (memoizeChildren) {
+        assertSame(second, array.get(1));
+        assertSame(third, array.get(2));
+      }
+    }
+
+    // changes through several nodes adapted from the same value are combined
+    JsonObject nested = REFERENCE.createReader(new StringReader("""
+        {"o":{"a":0},"e":[0]}""")).readObject();
+    JsonNode root = JsonpNodeAdapter.adapt(nested, this.objectMapper.getNodeFactory());
+    JsonObjectNode x = (JsonObjectNode) root.get("o");
+    x.put("k", 1);
+    JsonObjectNode y = (JsonObjectNode) root.get("o");
+    y.put("k2", 2).put("k", 5);
+    x.remove("k");
+    ((JsonArrayNode) root.get("e")).add(1);
+    ((JsonArrayNode) root.get("e")).remove(0);
+    assertEquals(2, root.get("o").size());
+    assertEquals(1, root.get("e").size());
+    assertEquals("""
+        {"o":{"a":0,"k2":2},"e":[1]}""", root.toString());
+
+    // changes through two nodes adapted before either was changed are combined
+    JsonNode handles = JsonpNodeAdapter.adapt(REFERENCE.createReader(new StringReader("""
+        {"a":{"k":0,"n":{"m":0}},"e":[[0]]}""")).readObject(), this.objectMapper.getNodeFactory());
+    JsonObjectNode a1 = (JsonObjectNode) handles.get("a");
+    JsonObjectNode a2 = (JsonObjectNode) handles.get("a");
+    JsonObjectNode n2 = (JsonObjectNode) a2.get("n");
+    JsonArrayNode e1 = (JsonArrayNode) handles.get("e").get(0);
+    JsonArrayNode e2 = (JsonArrayNode) handles.get("e").get(0);
+    a1.put("x", 1);
+    a2.put("y", 2);
+    n2.put("z", 3);
+    e1.add(1);
+    e2.add(2);
+    assertEquals("""
+        {"a":{"k":0,"n":{"m":0,"z":3},"x":1,"y":2},"e":[[0,1,2]]}""", handles.toString());
+    assertEquals(handles.get("a"), a1);
+
+    // a child replaced in the parent is detached like a Jackson node
+    JsonObjectNode detached = (JsonObjectNode) handles.get("a");
+    ((JsonObjectNode) handles).put("a", "replaced");
+    detached.put("w", 4);
+    assertEquals("""
+        {"a":"replaced","e":[[0,1,2]]}""", handles.toString());
+
+    // values are stored by reference like in Jackson, no matter if they are adapted
+    JsonObjectNode target = (JsonObjectNode) JsonpNodeAdapter.adapt(JsonValue.EMPTY_JSON_OBJECT, this.objectMapper.getNodeFactory());
+    JsonObjectNode adaptedSource = (JsonObjectNode) JsonpNodeAdapter.adapt(REFERENCE.createObjectBuilder().add("a", 0).build(), this.objectMapper.getNodeFactory());
+    JsonArrayNode adaptedElements = (JsonArrayNode) JsonpNodeAdapter.adapt(JsonValue.EMPTY_JSON_ARRAY, this.objectMapper.getNodeFactory());
+    ObjectNode nativeSource = this.objectMapper.createObjectNode();
+    target.set("adapted", adaptedSource);
+    target.set("elements", adaptedElements);
+    target.set("native", nativeSource);
+    adaptedSource.put("b", 1);
+    adaptedElements.add(2);
+    nativeSource.put("c", 3);
+    ((JsonObjectNode) target.get("adapted")).put("d", 4);
+    assertEquals("""
+        {"adapted":{"a":0,"b":1,"d":4},"elements":[2],"native":{"c":3}}""", target.toString());
+    assertEquals("""
+        {"a":0,"b":1,"d":4}""", adaptedSource.toString());
+
+    // removing all members and elements is visible in the parent
+    ((JsonObjectNode) root.get("o")).removeAll();
+    ((JsonArrayNode) root.get("e")).removeAll().add(2);
+    assertEquals(0, root.get("o").size());
+    assertEquals("""
+        {"o":{},"e":[2]}""", root.toString());
+
+    // withObject follows and creates objects through adapted nodes
+    JsonNode document = JsonpNodeAdapter.adapt(REFERENCE.createReader(new StringReader("""
+        {"o":{"a":{"b":0}},"e":[{"c":1}]}""")).readObject(), this.objectMapper.getNodeFactory());
+    document.withObject("/o/a").put("d", 2);
+    document.withObject("/o/a").put("f", 3);
+    document.withObject("/e/0").put("g", 4);
+    document.withObject("/e/1/h").put("i", 5);
+    assertEquals("""
+        {"o":{"a":{"b":0,"d":2,"f":3}},"e":[{"c":1,"g":4},{"h":{"i":5}}]}""", document.toString());
+  }
+
+  @Test
+  void deepCopy() {
+    JsonObject jaxpNode = REFERENCE.createReader(new StringReader(JSON)).readObject();
+    JsonObjectNode jacksonNode = (JsonObjectNode) JsonpNodeAdapter.adapt(jaxpNode,
+        this.objectMapper.getNodeFactory(), true);
+
+    JsonObjectNode unchangedCopy = jacksonNode.deepCopy();
+    assertSame(jaxpNode, unchangedCopy.getJsonObject());
+
+    ((JsonArrayNode) jacksonNode.get("members")).add("Jim");
+    JsonObjectNode copy = jacksonNode.deepCopy();
+    ((JsonArrayNode) jacksonNode.get("members")).add("Jane");
+    ((JsonArrayNode) copy.get("members")).remove(0);
+    copy.put("projectId", "XYZ-987-6");
+
+    assertEquals("""
+        {"projectId":"ABC-123-4","members":["Jack","Joe","Jim","Jane"]}""", jacksonNode.toString());
+    assertEquals("""
+        {"projectId":"XYZ-987-6","members":["Joe","Jim"]}""", copy.toString());
+    assertEquals("""
+        {"projectId":"ABC-123-4","members":["Jack","Joe"]}""", unchangedCopy.toString());
+  }
+
+  @Test
+  void equality() throws IOException {
+    String json = """
+        {
+          "s": "value",
+          "i": 1,
+          "l": 9223372036854775807,
+          "d": 1.5,
+          "b": true,
+          "n": null,
+          "a": [1, {"x": false}]
+        }
+        """;
+    JsonValue jaxpNode = REFERENCE.createReader(new StringReader(json)).read();
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory());
+    JsonNode expected = this.objectMapper.readTree(json);
+
+    assertEquals(expected.hashCode(), jacksonNode.hashCode());
+    assertEquals(expected.get("a").hashCode(), jacksonNode.get("a").hashCode());
+    assertEquals(jacksonNode, JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory()));
+    assertEquals(jacksonNode.get("d"), JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory()).get("d"));
+
+    // equals is symmetric, adapted nodes are only equal to adapted nodes
+    assertFalse(jacksonNode.equals(expected));
+    assertFalse(expected.equals(jacksonNode));
+    assertFalse(jacksonNode.get("d").equals(expected.get("d")));
+    assertTrue(JsonValueEquality.equivalent(jacksonNode, expected));
+    assertTrue(JsonValueEquality.equivalent(expected, jacksonNode));
+    assertTrue(JsonValueEquality.equivalent(expected.get("a"), jacksonNode.get("a")));
+    assertTrue(JsonValueEquality.equivalent(jacksonNode.get("d"), expected.get("d")));
+
+    // adapted and Jackson nodes can be used in the same set through their keys
+    Set<JsonValueEquality.Key> seen = new HashSet<>();
+    assertTrue(seen.add(JsonValueEquality.key(expected)));
+    assertFalse(seen.add(JsonValueEquality.key(jacksonNode)));
+    assertTrue(seen.add(JsonValueEquality.key(expected.get("a"))));
+    assertFalse(seen.add(JsonValueEquality.key(jacksonNode.get("a"))));
+    assertFalse(seen.add(JsonValueEquality.key(this.objectMapper.readTree(json))));
+    assertEquals(JsonValueEquality.key(expected.get("d")), JsonValueEquality.key(jacksonNode.get("d")));
+    assertNotEquals(JsonValueEquality.key(expected.get("d")), JsonValueEquality.key(jacksonNode.get("i")));
+    assertEquals(2, seen.size());
+
+    ((ObjectNode) expected).put("b", false);
+    assertFalse(JsonValueEquality.equivalent(jacksonNode, expected));
+    ((JsonObjectNode) jacksonNode).put("b", false);
+    assertTrue(JsonValueEquality.equivalent(jacksonNode, expected));
+    assertEquals(expected.hashCode(), jacksonNode.hashCode());
+  }
+
+  @Test
+  void serializationFeatures() throws IOException {
+    JsonValue jaxpNode = REFERENCE.createObjectBuilder()
+        .add("empty", JsonValue.EMPTY_JSON_ARRAY)
+        .add("null", JsonValue.NULL)
+        .add("nested", REFERENCE.createObjectBuilder()
+            .add("null", JsonValue.NULL)
+            .add("numbers", REFERENCE.createArrayBuilder().add(1).add(9223372036854775807L).add(1.5d).addNull()))
+        .build();
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, this.objectMapper.getNodeFactory());
+
+    assertEquals("""
+        {"empty":[],"null":null,"nested":{"null":null,"numbers":[1,9223372036854775807,1.5,null]}}""",
+        this.objectMapper.writeValueAsString(jacksonNode));
+    assertEquals("""
+        {"nested":{"numbers":[1,9223372036854775807,1.5,null]}}""",
+        this.objectMapper.writer()
+          .without(SerializationFeature.WRITE_EMPTY_JSON_ARRAYS)
+          .without(JsonNodeFeature.WRITE_NULL_PROPERTIES)
+          .writeValueAsString(jacksonNode));
+  }
+
+  @Test
+  void fieldNameCache() throws IOException {
+    JsonArrayBuilder builder = REFERENCE.createArrayBuilder();
+    for (int i = 0; i < 10; i++) {
+      builder.add(REFERENCE.createObjectBuilder().add("id", i).add("name", "n" + i).add("extra", true));
+    }
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(builder.build(), this.objectMapper.getNodeFactory());
+    FieldNameCache fieldNames = new FieldNameCache(2);
+
+    String json = this.objectMapper.writer()
+        .withAttribute(FieldNameCache.class, fieldNames)
+        .writeValueAsString(jacksonNode);
+
+    assertEquals(this.objectMapper.writeValueAsString(jacksonNode), json);
+    assertEquals(2, fieldNames.size());
+    assertEquals(18, fieldNames.getHitCount());
+    assertEquals(12, fieldNames.getMissCount());
+  }
+
+  @Test
+  void cachingNodeFactory() throws IOException {
+    JsonArray jaxpNode = REFERENCE.createReader(new StringReader("""
+        [
+          {"currency": "CHF", "amount": 10, "description": "a long description"},
+          {"currency": "CHF", "amount": 10, "description": "a long description"}
+        ]
+        """)).readArray();
+    CachingJsonNodeFactory nodeFactory = new CachingJsonNodeFactory(16, 3);
+    JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, nodeFactory);
+
+    assertSame(jacksonNode.get(0).get("currency"), jacksonNode.get(1).get("currency"));
+    assertSame(jacksonNode.get(0).get("amount"), jacksonNode.get(1).get("amount"));
+    assertEquals(NumberType.INT, jacksonNode.get(0).get("amount").numberType());
+    assertEquals("a long description", jacksonNode.get(0).get("description").textValue());
+    assertEquals(1, nodeFactory.size());
+    assertEquals(1, nodeFactory.getHitCount());
+    assertEquals(1, nodeFactory.getMissCount());
+    assertEquals(this.objectMapper.readTree(jaxpNode.toString()).toString(), jacksonNode.toString());
+  }
+
+  @Test
+  void bridge() throws IOException {
+    JsonValue jaxpNode = REFERENCE.createReader(new StringReader("""
+        {"a": [{"b": 1.5}], "c": "d"}
+        """)).read();
+    JsonNode expected = this.objectMapper.readTree(jaxpNode.toString());
+
+    JsonpBridge eager = JsonpBridge.builder()
+        .eager(true)
+        .decimalsAsDouble(true)
+        .build();
+    JsonNode eagerNode = eager.adapt(jaxpNode);
+    assertTrue(eagerNode instanceof ObjectNode);
+    assertEquals(expected, eagerNode);
+
+    JsonpBridge lazy = JsonpBridge.builder()
+        .memoizeChildren(true)
+        .scalarCache(16, 8)
+        .maxDepth(2)
+        .build();
+    JsonNode lazyNode = lazy.adapt(jaxpNode);
+    assertSame(lazyNode.get("a"), lazyNode.get("a"));
+    assertTrue(JsonValueEquality.equivalent(lazyNode, expected));
+    assertProject(lazy.readValue(this.objectMapper.readerFor(Project.class),
+        REFERENCE.createReader(new StringReader(JSON)).read()));
+
+    JsonGenerator generator = this.objectMapper.createGenerator(new ByteArrayOutputStream());
+    assertThrows(JsonGenerationException.class, () -> lazy.serialize(jaxpNode, generator, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> JsonpBridge.builder().eager(true).maxDepth(2).build().adapt(jaxpNode));
+
+    JsonValue deep = JsonValue.EMPTY_JSON_ARRAY;
+    for (int i = 0; i < 100_000; i++) {
+      deep = REFERENCE.createArrayBuilder().add(deep).build();
+    }
+    JsonNode deepNode = eager.adapt(deep);
+    int depth = 0;
+    while (deepNode.size() == 1) {
+      deepNode = deepNode.get(0);
+      depth += 1;
+    }
+    assertEquals(100_000, depth);
+  }
+
+  @Test
+  void metrics() throws IOException {
+    JsonpMetrics metrics = JsonpMetrics.getInstance();
+    metrics.reset();
+    metrics.setEnabled(true);
+    try {
+      JsonObject jaxpNode = REFERENCE.createObjectBuilder()
+          .add("name", "one")
+          .add("tags", REFERENCE.createArrayBuilder().add("a").add("b"))
+          .build();
+      JsonNode jacksonNode = JsonpNodeAdapter.adapt(jaxpNode, new CachingJsonNodeFactory(16, 8));
+      assertEquals("a", jacksonNode.get("tags").get(0).asText());
+      assertEquals("a", jacksonNode.get("tags").get(0).asText());
+      assertTrue(metrics.getAdaptations() >= 3L);
+      assertEquals(1L, metrics.getCacheHits());
+
+      JsonpBridge.builder().eager(true).build().adapt(jaxpNode);
+      assertEquals(1L, metrics.getMaterializations());
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      new JsonpParallel(ForkJoinPool.commonPool(), 7).writeValue(jaxpNode, this.objectMapper.writer(), out);
+      assertEquals(out.size(), metrics.getBytesWritten());
+    } finally {
+      metrics.setEnabled(false);
+      metrics.reset();
+    }
+    long adaptations = metrics.getAdaptations();
+    JsonpNodeAdapter.adapt(JsonValue.EMPTY_JSON_OBJECT, this.objectMapper.getNodeFactory());
+    assertEquals(adaptations, metrics.getAdaptations());
+  }
+
+  @Test
+  void readAll() {
+    ObjectReader reader = this.objectMapper.readerFor(Numbers.class);
+    List<JsonObject> values = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      if (i == 13) {
+        values.add(REFERENCE.createObjectBuilder().add("intValue", "invalid").build());
+      } else {
+        values.add(REFERENCE.createObjectBuilder().add("intValue", i).build());
+      }
+    }
+    List<BindingResult<Numbers>> sequential = JsonpBridge.getDefault().readAll(reader, values);
+    List<BindingResult<Numbers>> parallel = new JsonpParallel(ForkJoinPool.commonPool(), 7).readAll(reader, values);
+    JsonpBridge bridge = JsonpBridge.builder().maxDepth(4).build();
+    List<BindingResult<Numbers>> configured = new JsonpParallel(ForkJoinPool.commonPool(), 7, bridge).readAll(reader, values);
+    for (List<BindingResult<Numbers>> results : List.of(sequential, parallel, configured)) {
+      assertEquals(20, results.size());
+      for (int i = 0; i < 20; i++) {
+        BindingResult<Numbers> result = results.get(i);
+        assertEquals(i, result.getIndex());
+        if (i == 13) {
+          assertFalse(result.isSuccess());
+          assertTrue(result.getError() instanceof JacksonException);
+        } else {
+          assertTrue(result.isSuccess());
+          assertEquals(i, result.getValue().intValue);
+        }
+      }
+    }
+  }
+
+  @Test
+  void jsonLines() throws IOException {
+    String input = "{\"intValue\": 1}\r\n"
+        + "\n"
+        + "{\"intValue\": \"invalid\"}\n"
+        + "{\"intValue\": 3, \"longValue\": 12345678901234}\n"
+        + "{\"intValue\": 4}";
+    byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+    ObjectReader reader = this.objectMapper.readerFor(Numbers.class);
+    for (int bufferSize : new int[] {4, 8192}) {
+      try (JsonLinesReader<Numbers> lines = new JsonLinesReader<>(reader, Channels.newChannel(new ByteArrayInputStream(bytes)), bufferSize, 1024)) {
+        List<BindingResult<Numbers>> results = lines.stream().toList();
+        assertEquals(4, results.size());
+        assertEquals(1, results.get(0).getValue().intValue);
+        assertEquals(2, results.get(1).getIndex());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(12345678901234L, results.get(2).getValue().longValue);
+        assertEquals(4, results.get(3).getValue().intValue);
+      }
+    }
+
+    try (JsonLinesReader<Numbers> lines = new JsonLinesReader<>(reader, Channels.newChannel(new ByteArrayInputStream(bytes)), 4, 16);
+         Stream<BindingResult<Numbers>> results = lines.stream(ForkJoinPool.commonPool(), 2)) {
+      List<Boolean> successes = results.map(BindingResult::isSuccess).toList();
+      assertEquals(List.of(true, false, false, true), successes);
+    }
+
+    ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(bytes));
+    JsonLinesReader<Numbers> abandoned = new JsonLinesReader<>(reader, channel, 4, 16);
+    try (Stream<BindingResult<Numbers>> results = abandoned.stream(ForkJoinPool.commonPool(), 1)) {
+      assertTrue(results.iterator().hasNext());
+    }
+    assertFalse(channel.isOpen());
+
+    ReadAhead<Integer> readAhead = new ReadAhead<>(List.of(1, 2, 3).iterator(), 1);
+    ForkJoinPool.commonPool().execute(readAhead);
+    assertEquals(1, readAhead.next());
+    readAhead.close();
+    assertFalse(readAhead.hasNext());
+
+    ObjectMapper jsonpMapper = new ObjectMapper().registerModule(new JsonpBridgeModule());
+    try (JsonLinesReader<JsonObject> lines = new JsonLinesReader<>(jsonpMapper.readerFor(JsonObject.class), new ByteArrayInputStream(bytes))) {
+      assertEquals(1, lines.next().getValue().getInt("intValue"));
+    }
+  }
+
+  @Test
+  void processor() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      JsonpProcessor<JsonValue, Numbers> reading = JsonpProcessor.reading(this.objectMapper.readerFor(Numbers.class), executor, 3);
+      JsonpProcessor<Numbers, JsonValue> writing = JsonpProcessor.writing(this.objectMapper.writer(), executor, 3);
+      reading.subscribe(writing);
+      CollectingSubscriber<JsonValue> subscriber = new CollectingSubscriber<>();
+      writing.subscribe(subscriber);
+      try (SubmissionPublisher<JsonValue> publisher = new SubmissionPublisher<>(executor, 4)) {
+        publisher.subscribe(reading);
+        for (int i = 0; i < 10; i++) {
+          publisher.submit(REFERENCE.createObjectBuilder().add("intValue", i).build());
+        }
+      }
+      assertTrue(subscriber.done.await(10L, TimeUnit.SECONDS));
+      assertNull(subscriber.error);
+      assertEquals(10, subscriber.items.size());
+      for (int i = 0; i < 10; i++) {
+        assertEquals(i, ((JsonObject) subscriber.items.get(i)).getInt("intValue"));
+      }
+
+      JsonpProcessor<JsonValue, Numbers> failing = JsonpProcessor.reading(this.objectMapper.readerFor(Numbers.class), executor, 3);
+      CollectingSubscriber<Numbers> failed = new CollectingSubscriber<>();
+      failing.subscribe(failed);
+      try (SubmissionPublisher<JsonValue> publisher = new SubmissionPublisher<>(executor, 4)) {
+        publisher.subscribe(failing);
+        publisher.submit(REFERENCE.createObjectBuilder().add("intValue", 1).build());
+        publisher.submit(REFERENCE.createObjectBuilder().add("intValue", "invalid").build());
+      }
+      assertTrue(failed.done.await(10L, TimeUnit.SECONDS));
+      assertEquals(1, failed.items.size());
+      assertTrue(failed.error instanceof JacksonException);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void provider() {
+    // registration for ServiceLoader is opt-in
+    assertFalse(JsonProvider.provider() instanceof JacksonJsonProvider);
+    JsonProvider provider = new JacksonJsonProvider();
+
+    String json = "{\"name\":\"one\",\"amount\":3.14159265358979323846,\"tags\":[1,true,null]}";
+    JsonObject jsonObject = provider.createReader(new StringReader(json)).readObject();
+    assertEquals("one", jsonObject.getString("name"));
+    assertEquals(new BigDecimal("3.14159265358979323846"), jsonObject.getJsonNumber("amount").bigDecimalValue());
+    assertEquals(3, jsonObject.getJsonArray("tags").size());
+    assertThrows(JsonParsingException.class, () -> provider.createReader(new StringReader("[] []")).readArray());
+
+    StringWriter writer = new StringWriter();
+    try (JsonWriter jsonWriter = provider.createWriter(writer)) {
+      jsonWriter.writeObject(jsonObject);
+    }
+    assertEquals(json, writer.toString());
+
+    StringWriter generated = new StringWriter();
+    try (javax.json.stream.JsonGenerator generator = provider.createGenerator(generated)) {
+      generator.writeStartObject()
+          .write("name", "one")
+          .writeStartArray("tags")
+          .write(1)
+          .writeEnd()
+          .writeEnd();
+    }
+    assertEquals("{\"name\":\"one\",\"tags\":[1]}", generated.toString());
+    javax.json.stream.JsonGenerator invalid = provider.createGenerator(new StringWriter());
+    assertThrows(javax.json.stream.JsonGenerationException.class, () -> invalid.write("name", 1));
+
+    Map<String, ?> config = Map.of(javax.json.stream.JsonGenerator.PRETTY_PRINTING, true);
+    assertEquals(config, provider.createWriterFactory(config).getConfigInUse());
+
+    JsonObject built = provider.createObjectBuilder(Map.of("tags", List.of("a", 1))).build();
+    assertEquals(2, built.getJsonArray("tags").size());
+    assertEquals(REFERENCE.createValue("one"), provider.createPointer("/name").getValue(jsonObject));
+  }
+
+  static final class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+
+    final List<T> items = new CopyOnWriteArrayList<>();
+
+    final CountDownLatch done = new CountDownLatch(1);
+
+    volatile Throwable error;
+
+    private Flow.Subscription subscription;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(1L);
+    }
+
+    @Override
+    public void onNext(T item) {
+      this.items.add(item);
+      this.subscription.request(1L);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      this.error = throwable;
+      this.done.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      this.done.countDown();
+    }
+
+  }
+
+  static final class Envelope {
+
+    public String type;
+
+    public JsonObject payload;
+
+  }
+
+  static final class Numbers {
+
+    public int intValue;
+
+    public long longValue;
+
+    public BigInteger bigIntegerValue;
+
+    public double doubleValue;
+
   }
 
   static final class Project {
@@ -80,19 +1024,19 @@ class ObjectMapperTests {
 
     private List<String> members;
 
-    String getProjectId() {
+    public String getProjectId() {
       return projectId;
     }
 
-    void setProjectId(String projectId) {
+    public void setProjectId(String projectId) {
       this.projectId = projectId;
     }
 
-    List<String> getMembers() {
+    public List<String> getMembers() {
       return members;
     }
 
-    void setMembers(List<String> members) {
+    public void setMembers(List<String> members) {
       this.members = members;
     }
 